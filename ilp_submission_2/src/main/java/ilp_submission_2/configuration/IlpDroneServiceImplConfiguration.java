@@ -1,11 +1,13 @@
 package ilp_submission_2.configuration;
 
+import ilp_submission_2.pathfinding.PlannerProperties;
+import ilp_submission_2.referencedata.ReferenceDataService;
 import ilp_submission_2.repository.OrderRepository;
 import ilp_submission_2.service.DroneService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * Configuration class for initializing the DroneService bean.
@@ -13,6 +15,7 @@ import org.springframework.web.client.RestTemplate;
  * Uses a configurable implementation class name to dynamically instantiate the service.
  */
 @Configuration
+@EnableConfigurationProperties(PlannerProperties.class)
 public class IlpDroneServiceImplConfiguration {
     @Value("${ilp.drone_service.implementation:ilp_submission_2.service.impl.DroneServiceImpl}")
     private String drone_service_implementation;
@@ -23,17 +26,20 @@ public class IlpDroneServiceImplConfiguration {
      * The class name is resolved from the {@code ilp.drone_service.implementation} property.
      * If not specified, it defaults to {@code ilp_submission_1.service.impl.DroneServiceImpl}.
      * <p>
-     * The implementation class must have a public no-argument constructor.
+     * The implementation class must have a public constructor taking a
+     * {@link ReferenceDataService}, an {@link OrderRepository} and the {@link PlannerProperties}
+     * bound from {@code ilp.planner.*}.
      *
      * @return a DroneService instance
      * @throws RuntimeException if the class cannot be loaded or instantiated
      */
     @Bean
-    public DroneService getIlpService(RestTemplate restTemplate, String getIlpEndpoint, RestTemplate getRestTemplate, OrderRepository orderRepository) {
+    public DroneService getIlpService(ReferenceDataService getReferenceDataService, OrderRepository orderRepository,
+                                      PlannerProperties plannerProperties) {
         try {
             return (DroneService) Class.forName(drone_service_implementation)
-                    .getDeclaredConstructor(RestTemplate.class, String.class, OrderRepository.class)
-                    .newInstance(getRestTemplate, getIlpEndpoint, orderRepository);
+                    .getDeclaredConstructor(ReferenceDataService.class, OrderRepository.class, PlannerProperties.class)
+                    .newInstance(getReferenceDataService, orderRepository, plannerProperties);
         } catch (Exception e) {
             throw new RuntimeException("error creating instance of class: ", e);
         }
@@ -0,0 +1,71 @@
+package ilp_submission_2.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_2.referencedata.DerivedCacheEndpoint;
+import ilp_submission_2.referencedata.FileReferenceDataSource;
+import ilp_submission_2.referencedata.ReferenceDataEndpoint;
+import ilp_submission_2.referencedata.ReferenceDataHealthIndicator;
+import ilp_submission_2.referencedata.ReferenceDataService;
+import ilp_submission_2.referencedata.ReferenceDataSnapshotWriter;
+import ilp_submission_2.referencedata.ReferenceDataSource;
+import ilp_submission_2.referencedata.UpstreamReferenceDataSource;
+import ilp_submission_2.upstream.IlpUpstreamClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration class for the reference data snapshot.
+ * <p>
+ * Enables scheduling so the snapshot is refreshed in the background
+ * every {@code ilp.reference_data.refresh_interval_ms} milliseconds, and retried every
+ * {@code ilp.reference_data.recovery_probe_interval_ms} milliseconds while the upstream is failing.
+ * <p>
+ * If {@code ilp.reference_data.snapshot_dir} is set, the reference data is read from the files
+ * in that directory instead of the ILP service.
+ */
+@Configuration
+@EnableScheduling
+public class ReferenceDataConfiguration {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataConfiguration.class);
+
+    @Bean
+    public ReferenceDataService getReferenceDataService(
+            IlpUpstreamClient getIlpUpstreamClient,
+            ObjectMapper objectMapper,
+            @Value("${ilp.reference_data.snapshot_dir:}") String snapshotDir,
+            @Value("${ilp.reference_data.refresh_deadline_ms:10000}") long refreshDeadlineMs) {
+        ReferenceDataSource source;
+        if (snapshotDir.isBlank()) {
+            source = new UpstreamReferenceDataSource(getIlpUpstreamClient);
+        } else {
+            logger.info("Serving reference data from local snapshot directory '{}'", snapshotDir);
+            source = new FileReferenceDataSource(Path.of(snapshotDir), objectMapper);
+        }
+        return new ReferenceDataService(source, Duration.ofMillis(refreshDeadlineMs));
+    }
+
+    @Bean
+    public ReferenceDataHealthIndicator referenceDataHealthIndicator(ReferenceDataService getReferenceDataService, IlpUpstreamClient getIlpUpstreamClient) {
+        return new ReferenceDataHealthIndicator(getReferenceDataService, getIlpUpstreamClient);
+    }
+
+    @Bean
+    public ReferenceDataEndpoint getReferenceDataEndpoint(
+            ReferenceDataService getReferenceDataService,
+            ObjectMapper objectMapper,
+            @Value("${ilp.reference_data.export_dir:data/reference-data}") String exportDir) {
+        return new ReferenceDataEndpoint(getReferenceDataService, new ReferenceDataSnapshotWriter(objectMapper), Path.of(exportDir));
+    }
+
+    @Bean
+    public DerivedCacheEndpoint getDerivedCacheEndpoint(ReferenceDataService getReferenceDataService) {
+        return new DerivedCacheEndpoint(getReferenceDataService);
+    }
+}
@@ -1,13 +0,0 @@
-package ilp_submission_2.configuration;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
-
-@Configuration
-public class RestTemplateConfiguration {
-    @Bean
-    public RestTemplate getRestTemplate() {
-        return new RestTemplate();
-    }
-}
@@ -0,0 +1,28 @@
+package ilp_submission_2.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_2.upstream.IlpUpstreamClient;
+import ilp_submission_2.upstream.UpstreamClientProperties;
+import ilp_submission_2.upstream.UpstreamEndpoint;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the pooled ILP upstream client.
+ * <p>
+ * Pool size and timeouts are read from {@code ilp.upstream.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamClientProperties.class)
+public class UpstreamClientConfiguration {
+    @Bean
+    public IlpUpstreamClient getIlpUpstreamClient(String getIlpEndpoint, UpstreamClientProperties properties, ObjectMapper objectMapper) {
+        return new IlpUpstreamClient(getIlpEndpoint, properties, objectMapper);
+    }
+
+    @Bean
+    public UpstreamEndpoint getUpstreamEndpoint(IlpUpstreamClient getIlpUpstreamClient) {
+        return new UpstreamEndpoint(getIlpUpstreamClient);
+    }
+}
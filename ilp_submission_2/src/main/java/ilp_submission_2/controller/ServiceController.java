@@ -2,6 +2,7 @@ package ilp_submission_2.controller;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import ilp_submission_2.dtos.*;
+import ilp_submission_2.pathfinding.PlannerEngine;
 import ilp_submission_2.service.DroneService;
 import ilp_submission_2.service.MedStockService;
 import jakarta.validation.Valid;
@@ -141,14 +142,24 @@ public class ServiceController {
         return ResponseEntity.ok(droneService.getQueryAttributesDrones(queryAttributes));
     }
 
+    /**
+     * POST medicines to deliver, optionally choosing the path planner with {@code ?planner=LATTICE|VISIBILITY|HIERARCHICAL|BIDIRECTIONAL};
+     * without it the configured {@code ilp.planner.engine} is used.
+     * */
     @PostMapping("/calcDeliveryPath")
-    public ResponseEntity<CalcDeliveryPathResult> calcDeliveryPath(@Valid @RequestBody List<@Valid Medicine> medDispatchRec) {
-        return ResponseEntity.ok(droneService.calcDeliveryPath(medDispatchRec));
+    public ResponseEntity<CalcDeliveryPathResult> calcDeliveryPath(@Valid @RequestBody List<@Valid Medicine> medDispatchRec,
+                                                                   @RequestParam(name = "planner", required = false) PlannerEngine planner) {
+        return ResponseEntity.ok(planner == null
+                ? droneService.calcDeliveryPath(medDispatchRec)
+                : droneService.calcDeliveryPath(medDispatchRec, planner));
     }
 
     @PostMapping("/calcDeliveryPathAsGeoJson")
-    public ResponseEntity<ObjectNode> calcDeliveryPathAsGeoJson(@Valid @RequestBody List<@Valid Medicine> medDispatchRec) {
-        return ResponseEntity.ok(droneService.calcDeliveryPathAsGeoJson(medDispatchRec));
+    public ResponseEntity<ObjectNode> calcDeliveryPathAsGeoJson(@Valid @RequestBody List<@Valid Medicine> medDispatchRec,
+                                                                @RequestParam(name = "planner", required = false) PlannerEngine planner) {
+        return ResponseEntity.ok(planner == null
+                ? droneService.calcDeliveryPathAsGeoJson(medDispatchRec)
+                : droneService.calcDeliveryPathAsGeoJson(medDispatchRec, planner));
     }
 
     @PostMapping("/placeOrder")
@@ -166,4 +177,21 @@ public class ServiceController {
         return ResponseEntity.ok(droneService.deliveryLocationAccessible(point));
     }
 
+    /**
+     * GET the area a drone can deliver to and return from, as GeoJSON, with {@code ?droneId=} and/or
+     * {@code ?servicePointId=}; with only a service point, the area of its longest-range drone.
+     * */
+    @GetMapping("/reachableArea")
+    public ResponseEntity<ObjectNode> reachableArea(@RequestParam(name = "droneId", required = false) String droneId,
+                                                    @RequestParam(name = "servicePointId", required = false) Integer servicePointId) {
+        if (droneId == null && servicePointId == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+        ObjectNode area = droneService.getReachableAreaAsGeoJson(droneId, servicePointId);
+        if (area == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+        }
+        return ResponseEntity.ok(area);
+    }
+
 }
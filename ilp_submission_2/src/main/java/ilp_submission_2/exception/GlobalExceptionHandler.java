@@ -1,7 +1,9 @@
 package ilp_submission_2.exception;
 
+import ilp_submission_2.referencedata.ReferenceDataUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -33,4 +35,20 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.badRequest().build();
     }
+
+    /**
+     * Handles requests that need reference data before any snapshot could be loaded from the ILP service.
+     * <p>
+     * Returns a {@code 503 Service Unavailable} response without a body rather than answering
+     * from empty drone or restricted area lists.
+     *
+     * @param ex the exception describing why no reference data is available
+     * @return a {@code ResponseEntity} with HTTP status 503
+     */
+    @ExceptionHandler(ReferenceDataUnavailableException.class)
+    public ResponseEntity<Void> handleReferenceDataUnavailable(ReferenceDataUnavailableException ex) {
+        logger.error("Reference data unavailable: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
 }
@@ -0,0 +1,292 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bidirectional A* over the same 16-direction lattice as {@link LatticeAStarPlanner}, searching
+ * forwards from the start and backwards from the goal at the same time.
+ * <p>
+ * The two searches never land on exactly the same position, since each is anchored at its own end.
+ * What joins them is the goal test of the forward search: a sequence of moves ends within one move of
+ * the goal exactly when, split anywhere, the position its first part reaches from the start is within one
+ * move of the position its reversed second part reaches from the goal. So whenever a node is added, the
+ * other search's nodes less than a move away are candidate meetings. A meeting is completed by replaying
+ * the backward half from the forward node, which shifts it by less than a move; the shifted moves are
+ * checked against the obstacle map before the meeting is accepted.
+ * <p>
+ * Both sides rank positions by moves so far plus half the difference between the distances to the
+ * side's target and to its origin, in moves. These potentials are each other's negation, so the two
+ * priorities of a position on a path add up to no more than the path's length plus the potential shift
+ * between meeting nodes, which is under one move. The search can therefore stop as soon as the two open
+ * sets' lowest priorities add up to the best meeting found: every path still open is a whole move longer
+ * than that bound allows, so none is shorter. This lets each side stop around the middle of the path,
+ * where one-sided A* has to cover the whole band of positions that could still lie on a shortest path.
+ * The side with the smaller open set is expanded next. Searches share the expansion and time limits of
+ * the lattice search, counting the expansions of both directions together.
+ * <p>
+ * Paths are as short as the lattice search's, except where the shortest path runs so close to an area
+ * that its copy shifted to the backward search's anchor is blocked; a slightly longer path is then
+ * returned, or none if the backward search is walled in by the shift.
+ */
+public class BidirectionalAStarPlanner implements PathPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(BidirectionalAStarPlanner.class);
+    private static final int DIRECTIONS = 16;
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final double stepSize;
+    private final int maxExpansions;
+    private final long maxSearchNanos;
+    private final double boundsMargin;
+    private final double[] moveLng = new double[DIRECTIONS];
+    private final double[] moveLat = new double[DIRECTIONS];
+    private final ThreadLocal<Frontier> forwardFrontiers = ThreadLocal.withInitial(Frontier::new);
+    private final ThreadLocal<Frontier> backwardFrontiers = ThreadLocal.withInitial(Frontier::new);
+
+    public BidirectionalAStarPlanner(double stepSize) {
+        this(stepSize, new PlannerProperties());
+    }
+
+    public BidirectionalAStarPlanner(double stepSize, PlannerProperties limits) {
+        this.stepSize = stepSize;
+        this.maxExpansions = limits.getMaxExpansions();
+        this.maxSearchNanos = limits.getMaxSearchMs() * 1_000_000L;
+        this.boundsMargin = limits.getBoundsMarginMoves() * stepSize;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            double radAngle = Math.toRadians(d * 22.5);
+            moveLng[d] = Math.cos(radAngle) * stepSize;
+            moveLat[d] = Math.sin(radAngle) * stepSize;
+        }
+    }
+
+    @Override
+    public List<Point> plan(Point start, Point goal, ObstacleMap obstacles) {
+        if (obstacles.contains(goal.getLng(), goal.getLat())) {
+            logger.debug("Goal ({}, {}) lies in a restricted area", goal.getLng(), goal.getLat());
+            return new ArrayList<>();
+        }
+
+        Bounds region = Bounds.of(start.getLng(), start.getLat(), goal.getLng(), goal.getLat())
+                .union(obstacles.bounds())
+                .expand(boundsMargin);
+        Frontier forward = forwardFrontiers.get();
+        Frontier backward = backwardFrontiers.get();
+        try {
+            forward.begin(start.getLng(), start.getLat(), goal.getLng(), goal.getLat(), stepSize);
+            backward.begin(goal.getLng(), goal.getLat(), start.getLng(), start.getLat(), stepSize);
+            return search(forward, backward, obstacles, region);
+        } finally {
+            forward.release(forwardFrontiers);
+            backward.release(backwardFrontiers);
+        }
+    }
+
+    private List<Point> search(Frontier forward, Frontier backward, ObstacleMap obstacles, Bounds region) {
+        long deadline = System.nanoTime() + maxSearchNanos;
+        int expansions = 0;
+        Meeting best = new Meeting();
+        meet(backward, 0, forward, false, obstacles, best);
+
+        while (!forward.nodes.open.isEmpty() && !backward.nodes.open.isEmpty()) {
+            if (best.path != null
+                    && forward.nodes.open.peekPriority() + backward.nodes.open.peekPriority() >= best.moves) {
+                break;
+            }
+
+            expansions++;
+            if (expansions > maxExpansions
+                    || (expansions % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0)) {
+                logger.warn("Gave up searching from ({}, {}) to ({}, {}) after {} expansions",
+                        forward.originLng, forward.originLat, backward.originLng, backward.originLat, expansions - 1);
+                return new ArrayList<>();
+            }
+
+            boolean forwards = forward.nodes.open.size() <= backward.nodes.open.size();
+            if (forwards) {
+                expand(forward, backward, true, obstacles, region, best);
+            } else {
+                expand(backward, forward, false, obstacles, region, best);
+            }
+        }
+        return best.path != null ? best.path : new ArrayList<>();
+    }
+
+    private void expand(Frontier side, Frontier other, boolean forwards, ObstacleMap obstacles, Bounds region, Meeting best) {
+        SearchWorkspace w = side.nodes;
+        int current = w.open.poll();
+        w.closed[current] = true;
+        double lng = w.lngs[current];
+        double lat = w.lats[current];
+
+        int nextMoves = w.moves[current] + 1;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            double nextLng = lng + moveLng[d];
+            double nextLat = lat + moveLat[d];
+            long key = LatticeAStarPlanner.key(nextLng, nextLat);
+
+            int neighbour = w.index.get(key);
+            if (neighbour != LongIntHashMap.MISSING && (w.closed[neighbour] || nextMoves >= w.moves[neighbour])) {
+                continue;
+            }
+            // the backward search follows moves in reverse, so the drone flies from the neighbour
+            boolean blocked = forwards
+                    ? obstacles.moveBlocked(lng, lat, nextLng, nextLat)
+                    : obstacles.moveBlocked(nextLng, nextLat, lng, lat);
+            if (!region.contains(nextLng, nextLat) || blocked) {
+                continue;
+            }
+
+            if (neighbour == LongIntHashMap.MISSING) {
+                neighbour = side.addNode(nextLng, nextLat, current, nextMoves);
+                w.index.put(key, neighbour);
+            } else {
+                w.parents[neighbour] = current;
+                w.moves[neighbour] = nextMoves;
+            }
+            w.open.offer(neighbour, side.priority(nextMoves, w.lngs[neighbour], w.lats[neighbour]), nextMoves);
+            meet(side, neighbour, other, forwards, obstacles, best);
+        }
+    }
+
+    /**
+     * Looks for nodes of the other search less than a move from {@code node} that complete a path
+     * shorter than the best so far. Called whenever a node is added or reached in fewer moves, so every
+     * pair of nodes is considered once both exist.
+     */
+    private void meet(Frontier side, int node, Frontier other, boolean forwards, ObstacleMap obstacles, Meeting best) {
+        double lng = side.nodes.lngs[node];
+        double lat = side.nodes.lats[node];
+        int moves = side.nodes.moves[node];
+        long column = side.column(lng);
+        long row = side.row(lat);
+        for (long dy = -1; dy <= 1; dy++) {
+            for (long dx = -1; dx <= 1; dx++) {
+                for (int candidate = other.cellHeads.get(Frontier.cellKey(column + dx, row + dy));
+                     candidate != LongIntHashMap.MISSING; candidate = other.cellNext[candidate]) {
+                    if (moves + other.nodes.moves[candidate] >= best.moves
+                            || distance(lng, lat, other.nodes.lngs[candidate], other.nodes.lats[candidate]) >= stepSize) {
+                        continue;
+                    }
+                    List<Point> path = forwards
+                            ? join(side, node, other, candidate, obstacles)
+                            : join(other, candidate, side, node, obstacles);
+                    if (path != null) {
+                        best.moves = path.size() - 1;
+                        best.path = path;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the forward path to {@code meetForward} followed by the backward path from {@code meetBackward},
+     * shifted to continue from where the forward path ends; {@code null} if a shifted move is blocked
+     */
+    private static List<Point> join(Frontier forward, int meetForward, Frontier backward, int meetBackward, ObstacleMap obstacles) {
+        SearchWorkspace f = forward.nodes;
+        SearchWorkspace b = backward.nodes;
+        double shiftLng = f.lngs[meetForward] - b.lngs[meetBackward];
+        double shiftLat = f.lats[meetForward] - b.lats[meetBackward];
+
+        List<Point> path = f.path(meetForward);
+        double lng = f.lngs[meetForward];
+        double lat = f.lats[meetForward];
+        for (int node = b.parents[meetBackward]; node >= 0; node = b.parents[node]) {
+            double nextLng = b.lngs[node] + shiftLng;
+            double nextLat = b.lats[node] + shiftLat;
+            if (obstacles.moveBlocked(lng, lat, nextLng, nextLat)) {
+                return null;
+            }
+            path.add(Point.builder().lng(nextLng).lat(nextLat).build());
+            lng = nextLng;
+            lat = nextLat;
+        }
+        return path;
+    }
+
+    private static double distance(double lng, double lat, double toLng, double toLat) {
+        double dLng = toLng - lng;
+        double dLat = toLat - lat;
+        return Math.sqrt(dLng * dLng + dLat * dLat);
+    }
+
+    /**
+     * Best complete path found so far.
+     */
+    private static final class Meeting {
+        private int moves = Integer.MAX_VALUE;
+        private List<Point> path;
+    }
+
+    /**
+     * One direction of the search: its nodes, and those nodes bucketed into cells one move wide so the
+     * other direction can find the ones within a move of a position by looking at nine cells.
+     */
+    private static final class Frontier {
+        private final SearchWorkspace nodes = new SearchWorkspace();
+        private final LongIntHashMap cellHeads = new LongIntHashMap(1 << 12);
+        private int[] cellNext = new int[1 << 12];
+        private double originLng;
+        private double originLat;
+        private double targetLng;
+        private double targetLat;
+        private double stepSize;
+
+        private void begin(double lng, double lat, double targetLng, double targetLat, double stepSize) {
+            this.originLng = lng;
+            this.originLat = lat;
+            this.targetLng = targetLng;
+            this.targetLat = targetLat;
+            this.stepSize = stepSize;
+            int first = addNode(lng, lat, -1, 0);
+            nodes.index.put(LatticeAStarPlanner.key(lng, lat), first);
+            nodes.open.offer(first, priority(0, lng, lat), 0);
+        }
+
+        private int addNode(double lng, double lat, int parent, int moveCount) {
+            int node = nodes.addNode(lng, lat, parent, moveCount);
+            if (node == cellNext.length) {
+                cellNext = Arrays.copyOf(cellNext, node * 2);
+            }
+            long cell = cellKey(column(lng), row(lat));
+            cellNext[node] = cellHeads.get(cell);
+            cellHeads.put(cell, node);
+            return node;
+        }
+
+        /**
+         * Moves so far plus this side's potential: half of how much further the position is from the
+         * target than from the origin, in moves.
+         */
+        private double priority(int moves, double lng, double lat) {
+            return moves + (distance(lng, lat, targetLng, targetLat) - distance(lng, lat, originLng, originLat)) / (2 * stepSize);
+        }
+
+        private long column(double lng) {
+            return (long) Math.floor(lng / stepSize);
+        }
+
+        private long row(double lat) {
+            return (long) Math.floor(lat / stepSize);
+        }
+
+        private static long cellKey(long column, long row) {
+            return (column << 32) | (row & 0xFFFFFFFFL);
+        }
+
+        private void release(ThreadLocal<Frontier> owner) {
+            if (nodes.oversized()) {
+                owner.remove();
+            } else {
+                nodes.reset();
+                cellHeads.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ilp_submission_2.pathfinding;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Axis-aligned bounding box in degrees.
+ */
+public record Bounds(double minLng, double minLat, double maxLng, double maxLat) {
+    public static Bounds of(double lng1, double lat1, double lng2, double lat2) {
+        return new Bounds(Math.min(lng1, lng2), Math.min(lat1, lat2), Math.max(lng1, lng2), Math.max(lat1, lat2));
+    }
+
+    /**
+     * @return the smallest box containing both boxes; {@code other} may be {@code null}
+     */
+    public Bounds union(Bounds other) {
+        if (other == null) {
+            return this;
+        }
+        return new Bounds(Math.min(minLng, other.minLng), Math.min(minLat, other.minLat),
+                Math.max(maxLng, other.maxLng), Math.max(maxLat, other.maxLat));
+    }
+
+    public Bounds expand(double margin) {
+        return new Bounds(minLng - margin, minLat - margin, maxLng + margin, maxLat + margin);
+    }
+
+    public boolean contains(double lng, double lat) {
+        return lng >= minLng && lng <= maxLng && lat >= minLat && lat <= maxLat;
+    }
+
+    /**
+     * @return true if the boxes touch or overlap
+     */
+    public boolean intersects(Bounds other) {
+        return minLng <= other.maxLng && other.minLng <= maxLng && minLat <= other.maxLat && other.minLat <= maxLat;
+    }
+
+    /**
+     * @return true if the segment touches or passes through the box
+     */
+    public boolean intersectsSegment(double fromLng, double fromLat, double toLng, double toLat) {
+        return new Rectangle2D.Double(minLng, minLat, maxLng - minLng, maxLat - minLat)
+                .intersectsLine(fromLng, fromLat, toLng, toLat);
+    }
+}
@@ -0,0 +1,291 @@
+package ilp_submission_2.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Grid of cells over a region, aligned with an {@link OccupancyBitmap}'s cells, for distance fields
+ * in moves computed with Dijkstra's algorithm.
+ * <p>
+ * Each cell is free if every bitmap cell it covers is, blocked if every one is, and a boundary cell
+ * otherwise. Cells are numbered row by row. Fields may hold several sources side by side, one block of
+ * {@link #size()} entries per source, so that one search can grow all of them at once.
+ */
+final class CellGrid {
+    /**
+     * Bound on the number of cells; larger regions use coarser cells.
+     * */
+    static final int MAX_CELLS = 1 << 20;
+    /**
+     * Largest ratio of an 8-connected grid distance to the straight-line distance.
+     * */
+    static final double OCTILE_STRETCH = Math.sqrt(4 - 2 * Math.sqrt(2));
+    /**
+     * How many cells either side of a position are tried when flying straight between it and a free cell.
+     * */
+    private static final int REACH = 2;
+    private static final byte FREE = 0;
+    private static final byte BOUNDARY = 1;
+    private static final byte BLOCKED = 2;
+
+    private final ObstacleMap obstacles;
+    private final double stepSize;
+    private final double cellSize;
+    private final double originX;
+    private final double originY;
+    private final int columns;
+    private final int rows;
+    private final byte[] states;
+
+    private CellGrid(ObstacleMap obstacles, double stepSize, double cellSize, double originX, double originY,
+                     int columns, int rows, byte[] states) {
+        this.obstacles = obstacles;
+        this.stepSize = stepSize;
+        this.cellSize = cellSize;
+        this.originX = originX;
+        this.originY = originY;
+        this.columns = columns;
+        this.rows = rows;
+        this.states = states;
+    }
+
+    /**
+     * @param region the region to cover; {@code null} for an empty grid
+     */
+    static CellGrid over(OccupancyBitmap obstacles, Bounds region, double stepSize) {
+        if (region == null) {
+            return new CellGrid(obstacles, stepSize, stepSize, 0, 0, 0, 0, new byte[0]);
+        }
+
+        int factor = 1;
+        double cellSize = obstacles.cellSize();
+        while ((Math.ceil((region.maxLng() - region.minLng()) / cellSize) + 2)
+                * (Math.ceil((region.maxLat() - region.minLat()) / cellSize) + 2) > MAX_CELLS) {
+            factor *= 2;
+            cellSize *= 2;
+        }
+        // aligned with the bitmap's cells, so each of ours covers whole bitmap cells
+        double originX = obstacles.originLng() + Math.floor((region.minLng() - obstacles.originLng()) / cellSize) * cellSize;
+        double originY = obstacles.originLat() + Math.floor((region.minLat() - obstacles.originLat()) / cellSize) * cellSize;
+        int columns = (int) Math.ceil((region.maxLng() - originX) / cellSize) + 1;
+        int rows = (int) Math.ceil((region.maxLat() - originY) / cellSize) + 1;
+
+        byte[] states = new byte[columns * rows];
+        double fine = obstacles.cellSize();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                boolean anyBlocked = false;
+                boolean allBlocked = true;
+                boolean allFree = true;
+                for (int fr = 0; fr < factor; fr++) {
+                    for (int fc = 0; fc < factor; fc++) {
+                        OccupancyBitmap.CellState state = obstacles.state(
+                                originX + c * cellSize + (fc + 0.5) * fine, originY + r * cellSize + (fr + 0.5) * fine);
+                        anyBlocked |= state == OccupancyBitmap.CellState.BLOCKED;
+                        allBlocked &= state == OccupancyBitmap.CellState.BLOCKED;
+                        allFree &= state == OccupancyBitmap.CellState.FREE;
+                    }
+                }
+                states[r * columns + c] = allBlocked ? BLOCKED : allFree && !anyBlocked ? FREE : BOUNDARY;
+            }
+        }
+        return new CellGrid(obstacles, stepSize, cellSize, originX, originY, columns, rows, states);
+    }
+
+    /**
+     * @return the number of cells
+     */
+    int size() {
+        return states.length;
+    }
+
+    int columns() {
+        return columns;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    double cellSize() {
+        return cellSize;
+    }
+
+    double originLng() {
+        return originX;
+    }
+
+    double originLat() {
+        return originY;
+    }
+
+    /**
+     * @return the cell containing the position, or -1 if it lies outside the grid
+     */
+    int cell(double lng, double lat) {
+        double x = (lng - originX) / cellSize;
+        double y = (lat - originY) / cellSize;
+        if (x < 0 || y < 0 || x >= columns || y >= rows) {
+            return -1;
+        }
+        return (int) y * columns + (int) x;
+    }
+
+    double centreLng(int cell) {
+        return originX + (cell % columns + 0.5) * cellSize;
+    }
+
+    double centreLat(int cell) {
+        return originY + (cell / columns + 0.5) * cellSize;
+    }
+
+    boolean free(int cell) {
+        return states[cell] == FREE;
+    }
+
+    boolean passable(int cell, boolean freeOnly) {
+        return freeOnly ? states[cell] == FREE : states[cell] != BLOCKED;
+    }
+
+    /**
+     * @return a field for {@code sources} sources with every entry unreached
+     */
+    double[] emptyField(int sources) {
+        double[] field = new double[sources * states.length];
+        Arrays.fill(field, Double.POSITIVE_INFINITY);
+        return field;
+    }
+
+    /**
+     * Starts the field of source {@code source} at {@code (lng, lat)}: the position may itself lie in a
+     * boundary cell, so every free cell nearby that it can fly straight to is queued at that distance.
+     */
+    void seedFree(double[] field, IndexedMinHeap open, int source, double lng, double lat) {
+        int offset = source * states.length;
+        long column = (long) Math.floor((lng - originX) / cellSize);
+        long row = (long) Math.floor((lat - originY) / cellSize);
+        for (long r = row - REACH; r <= row + REACH; r++) {
+            for (long c = column - REACH; c <= column + REACH; c++) {
+                if (c < 0 || r < 0 || c >= columns || r >= rows || states[(int) (r * columns + c)] != FREE) {
+                    continue;
+                }
+                int cell = (int) (r * columns + c);
+                double moves = distance(lng, lat, centreLng(cell), centreLat(cell)) / stepSize;
+                if (moves < field[offset + cell] && !obstacles.moveBlocked(lng, lat, centreLng(cell), centreLat(cell))) {
+                    field[offset + cell] = moves;
+                    open.offer(offset + cell, moves, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * The counterpart of {@link #seedFree}: the free cells nearby that fly straight to {@code (lng, lat)},
+     * whose field entries together give the distance to the position.
+     *
+     * @return the cells, at most {@code (2 * REACH + 1)^2}
+     */
+    int[] freeCellsNear(double lng, double lat) {
+        int[] cells = new int[(2 * REACH + 1) * (2 * REACH + 1)];
+        int found = 0;
+        long column = (long) Math.floor((lng - originX) / cellSize);
+        long row = (long) Math.floor((lat - originY) / cellSize);
+        for (long r = row - REACH; r <= row + REACH; r++) {
+            for (long c = column - REACH; c <= column + REACH; c++) {
+                if (c < 0 || r < 0 || c >= columns || r >= rows || states[(int) (r * columns + c)] != FREE) {
+                    continue;
+                }
+                int cell = (int) (r * columns + c);
+                if (!obstacles.moveBlocked(centreLng(cell), centreLat(cell), lng, lat)) {
+                    cells[found++] = cell;
+                }
+            }
+        }
+        return Arrays.copyOf(cells, found);
+    }
+
+    /**
+     * @return the fewest moves from source {@code source} to {@code (lng, lat)} through {@code cells},
+     * as found by {@link #freeCellsNear}; infinite if none was reached
+     */
+    double movesVia(double[] field, int source, int[] cells, double lng, double lat) {
+        int offset = source * states.length;
+        double best = Double.POSITIVE_INFINITY;
+        for (int cell : cells) {
+            best = Math.min(best, field[offset + cell] + distance(centreLng(cell), centreLat(cell), lng, lat) / stepSize);
+        }
+        return best;
+    }
+
+    /**
+     * Dijkstra's algorithm over the 8-connected cells, for every source queued in {@code open}. With
+     * {@code freeOnly}, only free cells are entered and diagonal steps need both cells beside them free;
+     * otherwise every cell not entirely blocked is.
+     *
+     * @param wanted entries that, once all are final, end the search early; {@code null} to fill the whole field
+     */
+    void relax(double[] field, IndexedMinHeap open, boolean freeOnly, boolean[] wanted) {
+        relax(field, open, freeOnly, wanted, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Like {@link #relax(double[], IndexedMinHeap, boolean, boolean[])}, but stops once every entry within
+     * {@code limit} moves is final; entries further away may be left unreached or too high.
+     */
+    void relax(double[] field, IndexedMinHeap open, boolean freeOnly, boolean[] wanted, double limit) {
+        double straight = cellSize / stepSize;
+        double diagonal = Math.sqrt(2) * straight;
+        int remaining = 0;
+        if (wanted != null) {
+            for (boolean w : wanted) {
+                remaining += w ? 1 : 0;
+            }
+            if (remaining == 0) {
+                return;
+            }
+        }
+        boolean[] done = new boolean[field.length];
+        while (!open.isEmpty()) {
+            if (open.peekPriority() > limit) {
+                return;
+            }
+            int entry = open.poll();
+            done[entry] = true;
+            if (wanted != null && wanted[entry] && --remaining == 0) {
+                return;
+            }
+            int cell = entry % states.length;
+            int offset = entry - cell;
+            int c = cell % columns;
+            int r = cell / columns;
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    int nc = c + dc;
+                    int nr = r + dr;
+                    if ((dc == 0 && dr == 0) || nc < 0 || nr < 0 || nc >= columns || nr >= rows) {
+                        continue;
+                    }
+                    int next = nr * columns + nc;
+                    if (done[offset + next] || !passable(next, freeOnly)) {
+                        continue;
+                    }
+                    boolean isDiagonal = dc != 0 && dr != 0;
+                    if (isDiagonal && freeOnly
+                            && (!passable(r * columns + nc, true) || !passable(nr * columns + c, true))) {
+                        continue;
+                    }
+                    double moves = field[entry] + (isDiagonal ? diagonal : straight);
+                    if (moves < field[offset + next]) {
+                        field[offset + next] = moves;
+                        open.offer(offset + next, moves, 0);
+                    }
+                }
+            }
+        }
+    }
+
+    private static double distance(double lng, double lat, double toLng, double toLat) {
+        double dLng = toLng - lng;
+        double dLat = toLat - lat;
+        return Math.sqrt(dLng * dLng + dLat * dLat);
+    }
+}
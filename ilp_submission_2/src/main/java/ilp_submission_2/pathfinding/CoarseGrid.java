@@ -0,0 +1,165 @@
+package ilp_submission_2.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Coarse abstraction of the restricted areas: square cells many moves wide, each classified once as
+ * clear, near an area, or blocked.
+ * <p>
+ * A cell is clear if no area's bounding box comes within a move of it, and blocked if its centre lies in
+ * an area; every other cell is near an area and costs more to route through, since the fine search may
+ * have to weave around the area inside it. Cells outside the classified box, which covers the areas plus
+ * one cell, are clear. Neighbouring cells, diagonals included, are connected unless one of them is blocked.
+ */
+final class CoarseGrid {
+    private static final byte BLOCKED = 0;
+    private static final byte CLEAR = 1;
+    private static final byte NEAR = 2;
+    private static final double SQRT2 = Math.sqrt(2);
+
+    private final double cellSize;
+    private final double originX;
+    private final double originY;
+    private final int columns;
+    private final int rows;
+    private final byte[] costs;
+
+    CoarseGrid(ObstacleMap obstacles, double cellSize, double stepSize) {
+        this.cellSize = cellSize;
+        Bounds bounds = obstacles.bounds();
+        if (bounds == null) {
+            originX = 0;
+            originY = 0;
+            columns = 0;
+            rows = 0;
+            costs = new byte[0];
+            return;
+        }
+
+        originX = bounds.minLng() - cellSize;
+        originY = bounds.minLat() - cellSize;
+        columns = (int) Math.ceil((bounds.maxLng() - bounds.minLng()) / cellSize) + 2;
+        rows = (int) Math.ceil((bounds.maxLat() - bounds.minLat()) / cellSize) + 2;
+        costs = new byte[columns * rows];
+
+        double halfDiagonal = cellSize * SQRT2 / 2;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                double x = originX + (c + 0.5) * cellSize;
+                double y = originY + (r + 0.5) * cellSize;
+                if (obstacles.corridorClear(x, y, x, y, halfDiagonal + stepSize)) {
+                    costs[r * columns + c] = CLEAR;
+                } else {
+                    costs[r * columns + c] = obstacles.contains(x, y) ? BLOCKED : NEAR;
+                }
+            }
+        }
+    }
+
+    double cellSize() {
+        return cellSize;
+    }
+
+    long column(double lng) {
+        return (long) Math.floor((lng - originX) / cellSize);
+    }
+
+    long row(double lat) {
+        return (long) Math.floor((lat - originY) / cellSize);
+    }
+
+    private int cost(long column, long row) {
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return CLEAR;
+        }
+        return costs[(int) (row * columns + column)];
+    }
+
+    /**
+     * A* over the cells of the box spanned by start, goal and the classified area, plus {@code margin} cells.
+     *
+     * @return the cells of the cheapest route as {@code {column, row}} pairs, from the start's cell to the
+     * goal's; {@code null} if there is none
+     */
+    List<long[]> route(double startLng, double startLat, double goalLng, double goalLat, int margin) {
+        long startColumn = column(startLng);
+        long startRow = row(startLat);
+        long goalColumn = column(goalLng);
+        long goalRow = row(goalLat);
+
+        long minColumn = Math.min(Math.min(startColumn, goalColumn), 0) - margin;
+        long minRow = Math.min(Math.min(startRow, goalRow), 0) - margin;
+        long maxColumn = Math.max(Math.max(startColumn, goalColumn), columns - 1L) + margin;
+        long maxRow = Math.max(Math.max(startRow, goalRow), rows - 1L) + margin;
+        int width = (int) (maxColumn - minColumn + 1);
+        int height = (int) (maxRow - minRow + 1);
+
+        double[] best = new double[width * height];
+        int[] previous = new int[width * height];
+        boolean[] done = new boolean[width * height];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+
+        int start = (int) ((startRow - minRow) * width + (startColumn - minColumn));
+        int goal = (int) ((goalRow - minRow) * width + (goalColumn - minColumn));
+        best[start] = 0;
+        previous[start] = -1;
+        PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        open.add(new double[]{heuristic(start, goal, width), start});
+
+        while (!open.isEmpty()) {
+            int current = (int) open.poll()[1];
+            if (done[current]) {
+                continue;
+            }
+            if (current == goal) {
+                return cells(previous, goal, width, minColumn, minRow);
+            }
+            done[current] = true;
+
+            int cx = current % width;
+            int cy = current / width;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = cx + dx;
+                    int ny = cy + dy;
+                    if ((dx == 0 && dy == 0) || nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                        continue;
+                    }
+                    int next = ny * width + nx;
+                    int cost = next == goal ? CLEAR : cost(nx + minColumn, ny + minRow);
+                    if (done[next] || cost == BLOCKED) {
+                        continue;
+                    }
+                    // no cutting corners past a blocked cell
+                    if (dx != 0 && dy != 0
+                            && (cost(cx + dx + minColumn, cy + minRow) == BLOCKED
+                            || cost(cx + minColumn, cy + dy + minRow) == BLOCKED)) {
+                        continue;
+                    }
+                    double g = best[current] + (dx != 0 && dy != 0 ? SQRT2 : 1) * cost;
+                    if (g < best[next]) {
+                        best[next] = g;
+                        previous[next] = current;
+                        open.add(new double[]{g + heuristic(next, goal, width), next});
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static double heuristic(int cell, int goal, int width) {
+        return Math.hypot(cell % width - goal % width, cell / width - goal / width);
+    }
+
+    private static List<long[]> cells(int[] previous, int goal, int width, long minColumn, long minRow) {
+        List<long[]> cells = new ArrayList<>();
+        for (int cell = goal; cell >= 0; cell = previous[cell]) {
+            cells.add(new long[]{cell % width + minColumn, cell / width + minRow});
+        }
+        return cells.reversed();
+    }
+}
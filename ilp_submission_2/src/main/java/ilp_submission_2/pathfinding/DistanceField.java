@@ -0,0 +1,75 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+
+/**
+ * Obstacle-aware move counts from one source, normally a service point, to every position in an
+ * operating area, flood-filled once so that each lookup is a cell read.
+ * <p>
+ * The field is computed with Dijkstra's algorithm over a {@link CellGrid} through every cell not entirely
+ * inside a restricted area, like the lower bounds of {@link Landmarks}, and read back shrunk by the most
+ * an 8-connected grid path can exceed the straight line and by one cell diagonal for rounding both ends
+ * to cell centres. Lookups therefore never overstate the moves needed; the straight-line distance is
+ * returned where it is higher, which includes everywhere with nothing in the way, so the field only ever
+ * adds what going around restricted areas costs. Positions outside the operating area get the straight
+ * line alone.
+ * <p>
+ * Instances are immutable and safe to share between concurrent requests.
+ */
+public final class DistanceField {
+    private final CellGrid grid;
+    private final float[] moves;
+    private final double sourceLng;
+    private final double sourceLat;
+    private final double stepSize;
+
+    private DistanceField(CellGrid grid, float[] moves, double sourceLng, double sourceLat, double stepSize) {
+        this.grid = grid;
+        this.moves = moves;
+        this.sourceLng = sourceLng;
+        this.sourceLat = sourceLat;
+        this.stepSize = stepSize;
+    }
+
+    /**
+     * @param obstacles the restricted areas
+     * @param area      the operating area the field covers
+     * @param source    where every counted route starts
+     * @param stepSize  length of one move
+     */
+    public static DistanceField build(OccupancyBitmap obstacles, Bounds area, Point source, double stepSize) {
+        CellGrid grid = CellGrid.over(obstacles, area, stepSize);
+        double[] field = grid.emptyField(1);
+        int cell = grid.cell(source.getLng(), source.getLat());
+        if (cell >= 0) {
+            IndexedMinHeap open = new IndexedMinHeap(1 << 12);
+            field[cell] = 0;
+            open.offer(cell, 0, 0);
+            grid.relax(field, open, false, null);
+        }
+
+        float[] moves = new float[field.length];
+        for (int i = 0; i < field.length; i++) {
+            // rounded down, so lookups stay below the moves needed
+            float value = (float) field[i];
+            moves[i] = value > field[i] ? Math.nextDown(value) : value;
+        }
+        return new DistanceField(grid, moves, source.getLng(), source.getLat(), stepSize);
+    }
+
+    /**
+     * @return at least how many moves it takes from the source to {@code (lng, lat)}; infinite if the
+     * position cannot be reached without entering a restricted area
+     */
+    public double movesTo(double lng, double lat) {
+        double dLng = lng - sourceLng;
+        double dLat = lat - sourceLat;
+        double straight = Math.sqrt(dLng * dLng + dLat * dLat) / stepSize;
+        int cell = grid.cell(lng, lat);
+        if (cell < 0) {
+            return straight;
+        }
+        double around = moves[cell] / CellGrid.OCTILE_STRETCH - Math.sqrt(2) * grid.cellSize() / stepSize;
+        return Math.max(straight, around);
+    }
+}
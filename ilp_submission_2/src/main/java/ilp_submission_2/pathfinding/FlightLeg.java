@@ -0,0 +1,17 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+
+/**
+ * Cache key of a planned leg: start and goal quantized the same way the planner identifies
+ * positions, so legs whose endpoints differ by less than the quantization share one path,
+ * and the planner that planned it.
+ */
+public record FlightLeg(long start, long goal, PlannerEngine engine) {
+    public static FlightLeg of(Point start, Point goal, PlannerEngine engine) {
+        return new FlightLeg(
+                LatticeAStarPlanner.key(start.getLng(), start.getLat()),
+                LatticeAStarPlanner.key(goal.getLng(), goal.getLat()),
+                engine);
+    }
+}
@@ -0,0 +1,126 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Coarse-to-fine {@link PathPlanner} for long legs.
+ * <p>
+ * A leg is first routed over a {@link CoarseGrid} of cells {@value #CELL_MOVES} moves wide, built once
+ * per obstacle map, i.e. once per restricted-areas version. The fine planner then searches with the
+ * usual 16-direction moves, but only within the corridor of coarse cells along that route, widened by
+ * one cell on each side. The fine search therefore grows with the length of the leg rather than with
+ * the area between its endpoints. If the corridor turns out too narrow, the leg is searched again
+ * without it. Legs shorter than a few cells go to the fine planner directly.
+ */
+public class HierarchicalPlanner implements PathPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(HierarchicalPlanner.class);
+    static final int CELL_MOVES = 10;
+    /**
+     * Legs shorter than this many coarse cells are searched without a corridor.
+     * */
+    private static final int MIN_CELLS = 4;
+    private static final int CORRIDOR_WIDENING = 1;
+
+    private record Grid(ObstacleMap obstacles, CoarseGrid grid) {}
+
+    private final PathPlanner fine;
+    private final double stepSize;
+    private final AtomicReference<Grid> latest = new AtomicReference<>();
+
+    /**
+     * @param fine the full-resolution planner used within the corridor
+     */
+    public HierarchicalPlanner(PathPlanner fine, double stepSize) {
+        this.fine = fine;
+        this.stepSize = stepSize;
+    }
+
+    @Override
+    public List<Point> plan(Point start, Point goal, ObstacleMap obstacles) {
+        CoarseGrid grid = gridFor(obstacles);
+        double distance = Math.hypot(goal.getLng() - start.getLng(), goal.getLat() - start.getLat());
+        if (distance < MIN_CELLS * grid.cellSize()) {
+            return fine.plan(start, goal, obstacles);
+        }
+
+        List<long[]> route = grid.route(start.getLng(), start.getLat(), goal.getLng(), goal.getLat(), CORRIDOR_WIDENING + 1);
+        if (route != null) {
+            List<Point> path = fine.plan(start, goal, new Corridor(obstacles, grid, route));
+            if (!path.isEmpty()) {
+                return path;
+            }
+        }
+        logger.debug("No path within the coarse corridor from {} to {}, searching without it", start, goal);
+        return fine.plan(start, goal, obstacles);
+    }
+
+    private CoarseGrid gridFor(ObstacleMap obstacles) {
+        Grid grid = latest.get();
+        if (grid == null || grid.obstacles() != obstacles) {
+            grid = new Grid(obstacles, new CoarseGrid(obstacles, CELL_MOVES * stepSize, stepSize));
+            latest.set(grid);
+        }
+        return grid.grid();
+    }
+
+    /**
+     * The obstacle map, with every position outside the corridor of coarse cells blocked as well.
+     */
+    private static final class Corridor implements ObstacleMap {
+        private final ObstacleMap obstacles;
+        private final CoarseGrid grid;
+        /**
+         * The corridor's coarse cells, as a set: primitive keys, so the per-move lookup does not allocate.
+         * */
+        private final LongIntHashMap cells;
+
+        private Corridor(ObstacleMap obstacles, CoarseGrid grid, List<long[]> route) {
+            this.obstacles = obstacles;
+            this.grid = grid;
+            this.cells = new LongIntHashMap(route.size() * (2 * CORRIDOR_WIDENING + 1) * (2 * CORRIDOR_WIDENING + 1));
+            for (long[] cell : route) {
+                for (int dy = -CORRIDOR_WIDENING; dy <= CORRIDOR_WIDENING; dy++) {
+                    for (int dx = -CORRIDOR_WIDENING; dx <= CORRIDOR_WIDENING; dx++) {
+                        cells.put(key(cell[0] + dx, cell[1] + dy), 0);
+                    }
+                }
+            }
+        }
+
+        private static long key(long column, long row) {
+            return (column << 32) | (row & 0xFFFFFFFFL);
+        }
+
+        @Override
+        public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+            return cells.get(key(grid.column(toLng), grid.row(toLat))) == LongIntHashMap.MISSING
+                    || obstacles.moveBlocked(fromLng, fromLat, toLng, toLat);
+        }
+
+        @Override
+        public boolean contains(double lng, double lat) {
+            return obstacles.contains(lng, lat);
+        }
+
+        @Override
+        public Bounds bounds() {
+            return obstacles.bounds();
+        }
+
+        @Override
+        public ObstacleMap underlying() {
+            return obstacles.underlying();
+        }
+
+        @Override
+        public List<Region> regions() {
+            return obstacles.regions();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ilp_submission_2.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of node indices with in-place priority changes.
+ * <p>
+ * Each node is in the heap at most once; its position is tracked so its priority can be lowered,
+ * or raised, in place instead of inserting a duplicate. Ties on priority are broken in favour of the higher
+ * secondary key, which the planner uses to prefer nodes further from the start.
+ */
+final class IndexedMinHeap {
+    private int[] heap;
+    private int[] positions;
+    private double[] priorities;
+    private double[] tieBreaks;
+    private int size;
+
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        priorities = new double[capacity];
+        tieBreaks = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the lowest priority in the heap; only valid while it is not empty
+     */
+    double peekPriority() {
+        return priorities[heap[0]];
+    }
+
+    boolean contains(int node) {
+        return node < positions.length && positions[node] >= 0;
+    }
+
+    /**
+     * Inserts {@code node}, or moves it to its new place if it is already queued: up if its priority
+     * fell, down if it rose.
+     */
+    void offer(int node, double priority, double tieBreak) {
+        ensureNodeCapacity(node + 1);
+        if (positions[node] < 0) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            heap[size] = node;
+            positions[node] = size;
+            size++;
+        }
+        priorities[node] = priority;
+        tieBreaks[node] = tieBreak;
+        siftUp(positions[node]);
+        siftDown(positions[node]);
+    }
+
+    int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Empties the heap; only touches the slots that were in use.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void ensureNodeCapacity(int nodes) {
+        if (nodes <= positions.length) {
+            return;
+        }
+        int capacity = Math.max(nodes, positions.length * 2);
+        int old = positions.length;
+        positions = Arrays.copyOf(positions, capacity);
+        Arrays.fill(positions, old, capacity, -1);
+        priorities = Arrays.copyOf(priorities, capacity);
+        tieBreaks = Arrays.copyOf(tieBreaks, capacity);
+    }
+
+    private boolean less(int a, int b) {
+        if (priorities[a] != priorities[b]) {
+            return priorities[a] < priorities[b];
+        }
+        return tieBreaks[a] > tieBreaks[b];
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (!less(node, parent)) {
+                break;
+            }
+            heap[index] = parent;
+            positions[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = node;
+        positions[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!less(heap[child], node)) {
+                break;
+            }
+            heap[index] = heap[child];
+            positions[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        positions[node] = index;
+    }
+}
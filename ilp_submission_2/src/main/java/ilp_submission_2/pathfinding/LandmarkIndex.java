@@ -0,0 +1,76 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the {@link Landmarks} for the current restricted areas and rebuilds them in the background.
+ * <p>
+ * Searches ask for the landmarks of the obstacle map they run against. Until tables for that map are
+ * ready they get none and use the plain straight-line heuristic, so a change of restricted areas or
+ * service points never holds up a request.
+ */
+public class LandmarkIndex {
+    private static final Logger logger = LoggerFactory.getLogger(LandmarkIndex.class);
+
+    private record Request(OccupancyBitmap obstacles, List<Point> anchors) {}
+
+    private final double stepSize;
+    private final double margin;
+    private final Executor executor;
+    private final AtomicReference<Landmarks> current = new AtomicReference<>();
+    private final AtomicReference<Request> pending = new AtomicReference<>();
+
+    /**
+     * @param margin   how far the landmarks' region extends beyond the anchors and areas
+     * @param executor runs the rebuilds
+     */
+    public LandmarkIndex(double stepSize, double margin, Executor executor) {
+        this.stepSize = stepSize;
+        this.margin = margin;
+        this.executor = executor;
+    }
+
+    /**
+     * Makes sure landmarks for these restricted areas and anchors are ready or being built.
+     */
+    public void ensure(OccupancyBitmap obstacles, List<Point> anchors) {
+        Landmarks landmarks = current.get();
+        if (landmarks != null && landmarks.obstacles() == obstacles && landmarks.anchors().equals(anchors)) {
+            return;
+        }
+        Request request = new Request(obstacles, List.copyOf(anchors));
+        Request previous = pending.get();
+        if (request.equals(previous) || !pending.compareAndSet(previous, request)) {
+            return;
+        }
+        executor.execute(() -> {
+            long started = System.nanoTime();
+            try {
+                Landmarks built = Landmarks.build(request.obstacles(), request.anchors(), stepSize, margin);
+                if (pending.get() == request) {
+                    current.set(built);
+                    logger.info("Built distance tables for {} landmarks in {} ms",
+                            built.size(), (System.nanoTime() - started) / 1_000_000);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not build landmark distance tables", e);
+                pending.compareAndSet(request, null);
+            }
+        });
+    }
+
+    /**
+     * @return the landmarks built for {@code obstacles}, or for the map it adds restrictions to, which
+     * still bound its distances from below; {@code null} if there are none yet
+     */
+    public Landmarks landmarksFor(ObstacleMap obstacles) {
+        Landmarks landmarks = current.get();
+        return landmarks != null && landmarks.obstacles() == obstacles.underlying() ? landmarks : null;
+    }
+}
@@ -0,0 +1,230 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Obstacle-aware distances from a handful of landmarks, for an ALT (A*, landmarks, triangle inequality)
+ * heuristic.
+ * <p>
+ * The landmarks are the given anchors, normally the service points, plus the four corners of the region.
+ * For each landmark two distance fields are computed over a grid aligned with the {@link OccupancyBitmap}'s
+ * cells, both in moves:
+ * <ul>
+ *     <li>a lower bound, by Dijkstra's algorithm through every cell that is not entirely inside an area,
+ *     shrunk by the most an 8-connected grid path can exceed the straight line and by one cell diagonal
+ *     for rounding both ends to cell centres;</li>
+ *     <li>an upper bound, through free cells only and without cutting corners, so the grid path is a
+ *     flyable polyline; it is only defined for positions in free cells.</li>
+ * </ul>
+ * By the triangle inequality, the distance from a position to a goal is at least the landmark's lower
+ * bound to one of them less its upper bound to the other. The best of these over all landmarks is usually
+ * far tighter than the straight line behind large areas, and exact when the goal is a landmark.
+ * <p>
+ * Instances are immutable and safe to share between concurrent searches.
+ */
+public final class Landmarks {
+    private final ObstacleMap obstacles;
+    private final List<Point> anchors;
+    private final double stepSize;
+    private final CellGrid grid;
+    private final double[] landmarkLng;
+    private final double[] landmarkLat;
+    private final float[][] lower;
+    private final float[][] upper;
+
+    private Landmarks(ObstacleMap obstacles, List<Point> anchors, double stepSize, CellGrid grid,
+                      double[] landmarkLng, double[] landmarkLat) {
+        this.obstacles = obstacles;
+        this.anchors = anchors;
+        this.stepSize = stepSize;
+        this.grid = grid;
+        this.landmarkLng = landmarkLng;
+        this.landmarkLat = landmarkLat;
+        this.lower = new float[landmarkLng.length][];
+        this.upper = new float[landmarkLng.length][];
+        for (int i = 0; i < landmarkLng.length; i++) {
+            lower[i] = lowerField(i);
+            upper[i] = upperField(i);
+        }
+    }
+
+    /**
+     * @param obstacles the restricted areas
+     * @param anchors   landmarks besides the region's corners
+     * @param stepSize  length of one move
+     * @param margin    how far the region extends beyond the anchors and areas
+     */
+    public static Landmarks build(OccupancyBitmap obstacles, List<Point> anchors, double stepSize, double margin) {
+        Bounds region = obstacles.bounds();
+        for (Point anchor : anchors) {
+            region = Bounds.of(anchor.getLng(), anchor.getLat(), anchor.getLng(), anchor.getLat()).union(region);
+        }
+        CellGrid grid = CellGrid.over(obstacles, region == null ? null : region.expand(margin), stepSize);
+
+        List<double[]> landmarks = new ArrayList<>();
+        for (Point anchor : anchors) {
+            landmarks.add(new double[]{anchor.getLng(), anchor.getLat()});
+        }
+        if (grid.size() > 0) {
+            double inset = grid.cellSize() / 2;
+            double west = grid.originLng() + inset;
+            double south = grid.originLat() + inset;
+            double east = grid.originLng() + grid.columns() * grid.cellSize() - inset;
+            double north = grid.originLat() + grid.rows() * grid.cellSize() - inset;
+            double[][] corners = {{west, south}, {east, south}, {west, north}, {east, north}};
+            for (double[] corner : corners) {
+                if (!obstacles.contains(corner[0], corner[1])) {
+                    landmarks.add(corner);
+                }
+            }
+        } else {
+            landmarks.clear();
+        }
+        double[] landmarkLng = new double[landmarks.size()];
+        double[] landmarkLat = new double[landmarks.size()];
+        for (int i = 0; i < landmarks.size(); i++) {
+            landmarkLng[i] = landmarks.get(i)[0];
+            landmarkLat[i] = landmarks.get(i)[1];
+        }
+        return new Landmarks(obstacles, List.copyOf(anchors), stepSize, grid, landmarkLng, landmarkLat);
+    }
+
+    /**
+     * @return the obstacle map the distances were computed for
+     */
+    public ObstacleMap obstacles() {
+        return obstacles;
+    }
+
+    /**
+     * @return the anchors the landmarks were built from, without the region's corners
+     */
+    public List<Point> anchors() {
+        return anchors;
+    }
+
+    /**
+     * @return the number of landmarks, corners included
+     */
+    public int size() {
+        return landmarkLng.length;
+    }
+
+    /**
+     * @return the heuristic towards {@code (goalLng, goalLat)}, with the goal's distances looked up once
+     */
+    public Estimate towards(double goalLng, double goalLat) {
+        int n = landmarkLng.length;
+        double[] goalLower = new double[n];
+        double[] goalUpper = new double[n];
+        int cell = cell(goalLng, goalLat);
+        for (int i = 0; i < n; i++) {
+            goalLower[i] = cell < 0 ? Double.NaN : lowerAt(i, cell);
+            goalUpper[i] = cell < 0 ? Double.POSITIVE_INFINITY : upperAt(i, cell, goalLng, goalLat);
+            if (!obstacles.moveBlocked(landmarkLng[i], landmarkLat[i], goalLng, goalLat)) {
+                goalUpper[i] = Math.min(goalUpper[i], distance(landmarkLng[i], landmarkLat[i], goalLng, goalLat) / stepSize);
+            }
+        }
+        return new Estimate(goalLower, goalUpper);
+    }
+
+    /**
+     * Lower bound on the number of moves to within one move of one goal.
+     */
+    public final class Estimate {
+        private final double[] goalLower;
+        private final double[] goalUpper;
+
+        private Estimate(double[] goalLower, double[] goalUpper) {
+            this.goalLower = goalLower;
+            this.goalUpper = goalUpper;
+        }
+
+        /**
+         * @return at least how many moves it takes from {@code (lng, lat)} to within one move of the goal;
+         * zero where the landmarks do not tell
+         */
+        public double moves(double lng, double lat) {
+            int cell = cell(lng, lat);
+            if (cell < 0) {
+                return 0;
+            }
+            double distance = 0;
+            for (int i = 0; i < goalLower.length; i++) {
+                double positionLower = lowerAt(i, cell);
+                double positionUpper = upperAt(i, cell, lng, lat);
+                // NaN where a field is undefined, which Math.max would propagate
+                if (goalLower[i] - positionUpper > distance) {
+                    distance = goalLower[i] - positionUpper;
+                }
+                if (positionLower - goalUpper[i] > distance) {
+                    distance = positionLower - goalUpper[i];
+                }
+            }
+            return Math.max(0, distance - 1);
+        }
+    }
+
+    private int cell(double lng, double lat) {
+        return grid.cell(lng, lat);
+    }
+
+    private double lowerAt(int landmark, int cell) {
+        float moves = lower[landmark][cell];
+        if (moves == Float.POSITIVE_INFINITY) {
+            return Double.NaN;
+        }
+        return moves / CellGrid.OCTILE_STRETCH - Math.sqrt(2) * grid.cellSize() / stepSize;
+    }
+
+    private double upperAt(int landmark, int cell, double lng, double lat) {
+        if (!grid.free(cell)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return upper[landmark][cell] + distance(lng, lat, grid.centreLng(cell), grid.centreLat(cell)) / stepSize;
+    }
+
+    private float[] lowerField(int landmark) {
+        double[] field = grid.emptyField(1);
+        int cell = cell(landmarkLng[landmark], landmarkLat[landmark]);
+        IndexedMinHeap open = new IndexedMinHeap(1 << 12);
+        if (cell >= 0) {
+            field[cell] = 0;
+            open.offer(cell, 0, 0);
+        }
+        grid.relax(field, open, false, null);
+        return rounded(field, false);
+    }
+
+    private float[] upperField(int landmark) {
+        double[] field = grid.emptyField(1);
+        IndexedMinHeap open = new IndexedMinHeap(1 << 12);
+        grid.seedFree(field, open, 0, landmarkLng[landmark], landmarkLat[landmark]);
+        grid.relax(field, open, true, null);
+        return rounded(field, true);
+    }
+
+    /**
+     * @return the field as floats, upper bounds rounded up and lower bounds down
+     */
+    private static float[] rounded(double[] field, boolean up) {
+        float[] rounded = new float[field.length];
+        for (int i = 0; i < field.length; i++) {
+            float value = (float) field[i];
+            if (up ? value < field[i] : value > field[i]) {
+                value = up ? Math.nextUp(value) : Math.nextDown(value);
+            }
+            rounded[i] = value;
+        }
+        return rounded;
+    }
+
+    private static double distance(double lng, double lat, double toLng, double toLat) {
+        double dLng = toLng - lng;
+        double dLat = toLat - lat;
+        return Math.sqrt(dLng * dLng + dLat * dLat);
+    }
+}
@@ -0,0 +1,338 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A* over the lattice of positions reachable with the drone's 16 compass moves.
+ * <p>
+ * Every move has the same length, so the cost of a path is its number of moves and the heuristic
+ * is the straight-line distance to the goal in moves, or the {@link Landmarks} bound where that is
+ * higher, i.e. behind restricted areas. The goal counts as reached once a position is closer to it
+ * than one move.
+ * <p>
+ * The search keeps all per-node state in primitive arrays indexed by node number. Positions are
+ * identified by their coordinates quantized to {@value #KEY_RESOLUTION_DEGREES} degrees and packed
+ * into a {@code long}, looked up in an open-addressing map, and the open set is an indexed binary heap
+ * with decrease-key. Once the per-thread workspace has grown to the size of the search, the search
+ * loop allocates nothing; the only allocation is the returned path.
+ * <p>
+ * Searches are bounded, so an unreachable goal cannot exhaust the heap or pin a core: goals on or inside
+ * a restricted area are rejected before searching, positions outside the bounding box of start, goal and
+ * restricted areas (plus a margin) are never visited, and a search stops after a maximum number of
+ * expansions or a maximum time, whichever comes first. A search that stops is treated as unreachable.
+ */
+public class LatticeAStarPlanner implements PathPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(LatticeAStarPlanner.class);
+    static final double KEY_RESOLUTION_DEGREES = 1e-6;
+    private static final int DIRECTIONS = 16;
+    /**
+     * Expansions between two reads of the clock.
+     * */
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final double stepSize;
+    private final int maxExpansions;
+    private final long maxSearchNanos;
+    private final double boundsMargin;
+    private final double[] moveLng = new double[DIRECTIONS];
+    private final double[] moveLat = new double[DIRECTIONS];
+    private final LandmarkIndex landmarks;
+    private final ThreadLocal<SearchWorkspace> workspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    public LatticeAStarPlanner(double stepSize) {
+        this(stepSize, new PlannerProperties());
+    }
+
+    public LatticeAStarPlanner(double stepSize, PlannerProperties limits) {
+        this(stepSize, limits, null);
+    }
+
+    /**
+     * @param landmarks where to find landmark distances for the obstacle map searched; {@code null} for none
+     */
+    public LatticeAStarPlanner(double stepSize, PlannerProperties limits, LandmarkIndex landmarks) {
+        this.stepSize = stepSize;
+        this.landmarks = landmarks;
+        this.maxExpansions = limits.getMaxExpansions();
+        this.maxSearchNanos = limits.getMaxSearchMs() * 1_000_000L;
+        this.boundsMargin = limits.getBoundsMarginMoves() * stepSize;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            double radAngle = Math.toRadians(d * 22.5);
+            moveLng[d] = Math.cos(radAngle) * stepSize;
+            moveLat[d] = Math.sin(radAngle) * stepSize;
+        }
+    }
+
+    @Override
+    public List<Point> plan(Point start, Point goal, ObstacleMap obstacles) {
+        if (obstacles.contains(goal.getLng(), goal.getLat())) {
+            logger.debug("Goal ({}, {}) lies in a restricted area", goal.getLng(), goal.getLat());
+            return new ArrayList<>();
+        }
+
+        Bounds region = Bounds.of(start.getLng(), start.getLat(), goal.getLng(), goal.getLat())
+                .union(obstacles.bounds())
+                .expand(boundsMargin);
+        Landmarks tables = landmarks == null ? null : landmarks.landmarksFor(obstacles);
+        Landmarks.Estimate estimate = tables == null ? null : tables.towards(goal.getLng(), goal.getLat());
+        SearchWorkspace workspace = workspaces.get();
+        try {
+            return search(workspace, start.getLng(), start.getLat(), goal.getLng(), goal.getLat(), obstacles, region, estimate);
+        } finally {
+            if (workspace.oversized()) {
+                workspaces.remove();
+            } else {
+                workspace.reset();
+            }
+        }
+    }
+
+    private List<Point> search(SearchWorkspace w, double startLng, double startLat, double goalLng, double goalLat,
+                               ObstacleMap obstacles, Bounds region, Landmarks.Estimate estimate) {
+        long deadline = System.nanoTime() + maxSearchNanos;
+        int expansions = 0;
+        int startNode = w.addNode(startLng, startLat, -1, 0);
+        w.index.put(key(startLng, startLat), startNode);
+        w.open.offer(startNode, heuristic(startLng, startLat, goalLng, goalLat, estimate), 0);
+
+        while (!w.open.isEmpty()) {
+            int current = w.open.poll();
+            double lng = w.lngs[current];
+            double lat = w.lats[current];
+
+            if (distance(lng, lat, goalLng, goalLat) < stepSize) {
+                return w.path(current);
+            }
+            w.closed[current] = true;
+
+            expansions++;
+            if (expansions > maxExpansions
+                    || (expansions % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0)) {
+                logger.warn("Gave up searching from ({}, {}) to ({}, {}) after {} expansions",
+                        startLng, startLat, goalLng, goalLat, expansions - 1);
+                return new ArrayList<>();
+            }
+
+            int nextMoves = w.moves[current] + 1;
+            for (int d = 0; d < DIRECTIONS; d++) {
+                double nextLng = lng + moveLng[d];
+                double nextLat = lat + moveLat[d];
+                long key = key(nextLng, nextLat);
+
+                int neighbour = w.index.get(key);
+                if (neighbour != LongIntHashMap.MISSING && (w.closed[neighbour] || nextMoves >= w.moves[neighbour])) {
+                    continue;
+                }
+                if (!region.contains(nextLng, nextLat) || obstacles.moveBlocked(lng, lat, nextLng, nextLat)) {
+                    continue;
+                }
+
+                if (neighbour == LongIntHashMap.MISSING) {
+                    neighbour = w.addNode(nextLng, nextLat, current, nextMoves);
+                    w.index.put(key, neighbour);
+                } else {
+                    w.parents[neighbour] = current;
+                    w.moves[neighbour] = nextMoves;
+                }
+                double h = heuristic(w.lngs[neighbour], w.lats[neighbour], goalLng, goalLat, estimate);
+                w.open.offer(neighbour, nextMoves + h, nextMoves);
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Plans all goals in one search. The heuristic is the lowest over the goals not reached yet, and a
+     * goal's path is taken when the search first pops a position within one move of it. Reaching a goal
+     * can only raise the heuristic, so queued priorities stay underestimates; a popped position whose
+     * priority has gone up is queued again rather than expanded early, which keeps every path as short as
+     * a search for its goal alone would make it. If the search hits its limits, the goals not reached yet
+     * are searched for one at a time, so none gets less effort than it would on its own.
+     */
+    @Override
+    public List<List<Point>> planAll(Point start, List<Point> goals, ObstacleMap obstacles) {
+        List<List<Point>> paths = new ArrayList<>(goals.size());
+        Bounds region = Bounds.of(start.getLng(), start.getLat(), start.getLng(), start.getLat());
+        Landmarks tables = landmarks == null ? null : landmarks.landmarksFor(obstacles);
+        Targets targets = new Targets(goals.size());
+        for (int g = 0; g < goals.size(); g++) {
+            Point goal = goals.get(g);
+            paths.add(new ArrayList<>());
+            if (obstacles.contains(goal.getLng(), goal.getLat())) {
+                logger.debug("Goal ({}, {}) lies in a restricted area", goal.getLng(), goal.getLat());
+                continue;
+            }
+            targets.add(g, goal.getLng(), goal.getLat(), tables == null ? null : tables.towards(goal.getLng(), goal.getLat()));
+            region = region.union(Bounds.of(start.getLng(), start.getLat(), goal.getLng(), goal.getLat()));
+        }
+        if (targets.remaining == 0) {
+            return paths;
+        }
+        region = region.union(obstacles.bounds()).expand(boundsMargin);
+
+        SearchWorkspace workspace = workspaces.get();
+        boolean finished;
+        try {
+            finished = searchAll(workspace, start.getLng(), start.getLat(), targets, obstacles, region, paths);
+        } finally {
+            if (workspace.oversized()) {
+                workspaces.remove();
+            } else {
+                workspace.reset();
+            }
+        }
+        if (!finished) {
+            for (int t = 0; t < targets.remaining; t++) {
+                int g = targets.goals[t];
+                paths.set(g, plan(start, goals.get(g), obstacles));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * @return whether the search ended within its limits, i.e. the goals it did not reach are unreachable
+     */
+    private boolean searchAll(SearchWorkspace w, double startLng, double startLat, Targets targets,
+                              ObstacleMap obstacles, Bounds region, List<List<Point>> paths) {
+        long deadline = System.nanoTime() + maxSearchNanos;
+        int expansions = 0;
+        int startNode = w.addNode(startLng, startLat, -1, 0);
+        w.index.put(key(startLng, startLat), startNode);
+        w.open.offer(startNode, targets.heuristic(startLng, startLat, stepSize), 0);
+
+        while (!w.open.isEmpty()) {
+            double queued = w.open.peekPriority();
+            int current = w.open.poll();
+            double lng = w.lngs[current];
+            double lat = w.lats[current];
+
+            if (targets.reached > 0) {
+                double priority = w.moves[current] + targets.heuristic(lng, lat, stepSize);
+                if (priority > queued) {
+                    w.open.offer(current, priority, w.moves[current]);
+                    continue;
+                }
+            }
+            for (int t = targets.remaining - 1; t >= 0; t--) {
+                if (distance(lng, lat, targets.lngs[t], targets.lats[t]) < stepSize) {
+                    paths.set(targets.goals[t], w.path(current));
+                    targets.remove(t);
+                }
+            }
+            if (targets.remaining == 0) {
+                return true;
+            }
+            w.closed[current] = true;
+
+            expansions++;
+            if (expansions > maxExpansions
+                    || (expansions % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0)) {
+                logger.warn("Gave up searching from ({}, {}) to {} goals after {} expansions; searching for the rest one by one",
+                        startLng, startLat, targets.remaining, expansions - 1);
+                return false;
+            }
+
+            int nextMoves = w.moves[current] + 1;
+            for (int d = 0; d < DIRECTIONS; d++) {
+                double nextLng = lng + moveLng[d];
+                double nextLat = lat + moveLat[d];
+                long key = key(nextLng, nextLat);
+
+                int neighbour = w.index.get(key);
+                if (neighbour != LongIntHashMap.MISSING && (w.closed[neighbour] || nextMoves >= w.moves[neighbour])) {
+                    continue;
+                }
+                if (!region.contains(nextLng, nextLat) || obstacles.moveBlocked(lng, lat, nextLng, nextLat)) {
+                    continue;
+                }
+
+                if (neighbour == LongIntHashMap.MISSING) {
+                    neighbour = w.addNode(nextLng, nextLat, current, nextMoves);
+                    w.index.put(key, neighbour);
+                } else {
+                    w.parents[neighbour] = current;
+                    w.moves[neighbour] = nextMoves;
+                }
+                double h = targets.heuristic(w.lngs[neighbour], w.lats[neighbour], stepSize);
+                w.open.offer(neighbour, nextMoves + h, nextMoves);
+            }
+        }
+        return true;
+    }
+
+    private double heuristic(double lng, double lat, double goalLng, double goalLat, Landmarks.Estimate estimate) {
+        double straight = distance(lng, lat, goalLng, goalLat) / stepSize;
+        return estimate == null ? straight : Math.max(straight, estimate.moves(lng, lat));
+    }
+
+    private static double distance(double lng, double lat, double goalLng, double goalLat) {
+        double dLng = goalLng - lng;
+        double dLat = goalLat - lat;
+        return Math.sqrt(dLng * dLng + dLat * dLat);
+    }
+
+    /**
+     * Goals of a one-to-many search not reached yet, with the index of each in the caller's list.
+     */
+    private static final class Targets {
+        private final int[] goals;
+        private final double[] lngs;
+        private final double[] lats;
+        private final Landmarks.Estimate[] estimates;
+        private int remaining;
+        private int reached;
+
+        private Targets(int capacity) {
+            goals = new int[capacity];
+            lngs = new double[capacity];
+            lats = new double[capacity];
+            estimates = new Landmarks.Estimate[capacity];
+        }
+
+        private void add(int goal, double lng, double lat, Landmarks.Estimate estimate) {
+            goals[remaining] = goal;
+            lngs[remaining] = lng;
+            lats[remaining] = lat;
+            estimates[remaining] = estimate;
+            remaining++;
+        }
+
+        private void remove(int target) {
+            remaining--;
+            reached++;
+            goals[target] = goals[remaining];
+            lngs[target] = lngs[remaining];
+            lats[target] = lats[remaining];
+            estimates[target] = estimates[remaining];
+        }
+
+        /**
+         * @return the lowest of the single-goal heuristics over the remaining goals
+         */
+        private double heuristic(double lng, double lat, double stepSize) {
+            double lowest = Double.POSITIVE_INFINITY;
+            for (int t = 0; t < remaining; t++) {
+                double straight = distance(lng, lat, lngs[t], lats[t]) / stepSize;
+                double h = estimates[t] == null ? straight : Math.max(straight, estimates[t].moves(lng, lat));
+                lowest = Math.min(lowest, h);
+            }
+            return lowest;
+        }
+    }
+
+    /**
+     * Packs a position, quantized to {@link #KEY_RESOLUTION_DEGREES}, into one {@code long}:
+     * longitude in the high 32 bits, latitude in the low 32 bits.
+     */
+    static long key(double lng, double lat) {
+        long qLng = Math.round(lng / KEY_RESOLUTION_DEGREES);
+        long qLat = Math.round(lat / KEY_RESOLUTION_DEGREES);
+        return (qLng << 32) | (qLat & 0xFFFFFFFFL);
+    }
+}
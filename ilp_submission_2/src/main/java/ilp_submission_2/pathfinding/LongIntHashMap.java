@@ -0,0 +1,102 @@
+package ilp_submission_2.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} keys to non-negative {@code int} values.
+ * <p>
+ * Uses linear probing over parallel primitive arrays. {@link #clear()} is O(1): every slot carries
+ * the generation it was written in, and slots from older generations read as empty.
+ */
+final class LongIntHashMap {
+    static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int[] generations;
+    private int generation = 1;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        generations = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (generations[slot] != generation) {
+                return MISSING;
+            }
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if (size * 2 >= keys.length) {
+            grow();
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (generations[slot] != generation) {
+                keys[slot] = key;
+                values[slot] = value;
+                generations[slot] = generation;
+                size++;
+                return;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        size = 0;
+        generation++;
+        if (generation == 0) {
+            // wrapped around: stale stamps could now look current
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldGenerations = generations;
+        int oldGeneration = generation;
+
+        allocate(oldKeys.length * 2);
+        generation = 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldGenerations[i] == oldGeneration) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        // murmur3 finalizer, spreads the packed coordinates over the table
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
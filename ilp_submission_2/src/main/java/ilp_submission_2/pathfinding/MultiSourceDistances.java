@@ -0,0 +1,88 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+
+import java.util.List;
+
+/**
+ * Obstacle-aware move counts from several sources, normally service points, to several targets, found by
+ * one multi-source search.
+ * <p>
+ * All sources are queued in a single Dijkstra search over a {@link CellGrid} through free cells only,
+ * without cutting corners, so every distance is the length of a route that can actually be flown. A plain
+ * multi-source search only tells which source is nearest; here each cell is settled once per source, with
+ * the sources' fields side by side, so the distance from every source to every target comes out of the
+ * same pass. The search stops as soon as every target is settled for every source. Grid routes bend at
+ * cell centres, so the counts run a few percent above the planner's; they are meant for ranking sources,
+ * not for budgeting moves.
+ */
+public final class MultiSourceDistances {
+    private final double[][] moves;
+
+    private MultiSourceDistances(double[][] moves) {
+        this.moves = moves;
+    }
+
+    /**
+     * @param obstacles the restricted areas
+     * @param sources   where the routes start
+     * @param targets   where they end
+     * @param stepSize  length of one move
+     * @param margin    how far the searched region extends beyond the sources, targets and areas
+     */
+    public static MultiSourceDistances compute(OccupancyBitmap obstacles, List<Point> sources, List<Point> targets,
+                                               double stepSize, double margin) {
+        double[][] moves = new double[sources.size()][targets.size()];
+        if (sources.isEmpty() || targets.isEmpty()) {
+            return new MultiSourceDistances(moves);
+        }
+
+        Bounds region = obstacles.bounds();
+        for (Point point : sources) {
+            region = Bounds.of(point.getLng(), point.getLat(), point.getLng(), point.getLat()).union(region);
+        }
+        for (Point point : targets) {
+            region = Bounds.of(point.getLng(), point.getLat(), point.getLng(), point.getLat()).union(region);
+        }
+        CellGrid grid = CellGrid.over(obstacles, region.expand(margin), stepSize);
+
+        double[] field = grid.emptyField(sources.size());
+        IndexedMinHeap open = new IndexedMinHeap(1 << 12);
+        for (int s = 0; s < sources.size(); s++) {
+            grid.seedFree(field, open, s, sources.get(s).getLng(), sources.get(s).getLat());
+        }
+        int[][] targetCells = new int[targets.size()][];
+        boolean[] wanted = new boolean[field.length];
+        for (int t = 0; t < targets.size(); t++) {
+            targetCells[t] = grid.freeCellsNear(targets.get(t).getLng(), targets.get(t).getLat());
+            for (int s = 0; s < sources.size(); s++) {
+                for (int cell : targetCells[t]) {
+                    wanted[s * grid.size() + cell] = true;
+                }
+            }
+        }
+        grid.relax(field, open, true, wanted);
+
+        for (int s = 0; s < sources.size(); s++) {
+            Point source = sources.get(s);
+            for (int t = 0; t < targets.size(); t++) {
+                Point target = targets.get(t);
+                moves[s][t] = grid.movesVia(field, s, targetCells[t], target.getLng(), target.getLat());
+                if (!obstacles.moveBlocked(source.getLng(), source.getLat(), target.getLng(), target.getLat())) {
+                    double dLng = target.getLng() - source.getLng();
+                    double dLat = target.getLat() - source.getLat();
+                    moves[s][t] = Math.min(moves[s][t], Math.sqrt(dLng * dLng + dLat * dLat) / stepSize);
+                }
+            }
+        }
+        return new MultiSourceDistances(moves);
+    }
+
+    /**
+     * @return about how many moves it takes from source {@code source} to target {@code target};
+     * infinite if no route was found
+     */
+    public double moves(int source, int target) {
+        return moves[source][target];
+    }
+}
@@ -0,0 +1,67 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Region;
+
+import java.util.List;
+
+/**
+ * Answers whether a single drone move is allowed.
+ * <p>
+ * Coordinates are passed as primitives so the path planner can test candidate moves
+ * without creating a {@code Point} per candidate.
+ */
+public interface ObstacleMap {
+    /**
+     * An obstacle map with no restricted areas.
+     */
+    ObstacleMap NONE = (fromLng, fromLat, toLng, toLat) -> false;
+
+    /**
+     * @return true if the move from {@code (fromLng, fromLat)} to {@code (toLng, toLat)} ends on the
+     * boundary or inside a restricted area, or crosses one of its edges
+     */
+    boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat);
+
+    /**
+     * @return true if the point lies on the boundary or inside a restricted area, i.e. no move may end there
+     */
+    default boolean contains(double lng, double lat) {
+        return moveBlocked(lng, lat, lng, lat);
+    }
+
+    /**
+     * @return bounding box of all restricted areas, or {@code null} if there are none
+     */
+    default Bounds bounds() {
+        return null;
+    }
+
+    /**
+     * Maps that only block more than another map, such as a search corridor, return that map, so
+     * that lower bounds precomputed for it, like {@link Landmarks}, can still be found.
+     *
+     * @return the map this one adds restrictions to; the map itself by default
+     */
+    default ObstacleMap underlying() {
+        return this;
+    }
+
+    /**
+     * @return the restricted areas this map was built from
+     */
+    default List<Region> regions() {
+        return List.of();
+    }
+
+    /**
+     * Tests whether the corridor of width {@code 2 * radius} around a segment is clear of restricted areas.
+     * Implementations may compare against bounding boxes only, so the answer may be false for corridors
+     * that are in fact clear, but never true for one that is not.
+     *
+     * @return true if no restricted area comes within {@code radius} of the segment
+     */
+    default boolean corridorClear(double fromLng, double fromLat, double toLng, double toLat, double radius) {
+        Bounds bounds = bounds();
+        return bounds == null || !bounds.expand(radius).intersectsSegment(fromLng, fromLat, toLng, toLat);
+    }
+}
@@ -0,0 +1,241 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Region;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+/**
+ * {@link ObstacleMap} that answers most moves from a rasterized copy of the restricted areas.
+ * <p>
+ * The bounding box of the areas, plus one free cell on every side, is divided into square cells,
+ * normally one move ({@code stepSize}) wide. Every cell is classified once:
+ * <ul>
+ *     <li>{@link CellState#BOUNDARY}: an edge passes through the cell, or within the on-edge tolerance of it</li>
+ *     <li>{@link CellState#BLOCKED}: no edge touches the cell and it lies inside an area</li>
+ *     <li>{@link CellState#FREE}: no edge touches the cell and it lies outside every area</li>
+ * </ul>
+ * A move whose bounding box covers only free cells cannot end in or on an area nor cross an edge, and
+ * a move ending in a blocked cell always ends inside an area, so both are answered with a few bit
+ * lookups. Only moves touching a boundary cell are passed on to the exact {@link RestrictedAreaIndex},
+ * so answers are the same as the exact index's.
+ * <p>
+ * Instances are immutable and safe to share between concurrent searches.
+ */
+public class OccupancyBitmap implements ObstacleMap {
+    /**
+     * Bound on the number of cells; larger areas are rasterized with coarser cells.
+     * */
+    static final int MAX_CELLS = 1 << 24;
+    private static final double PAD = 1e-12;
+
+    public enum CellState { FREE, BLOCKED, BOUNDARY }
+
+    private final RestrictedAreaIndex exact;
+    private final double originX;
+    private final double originY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final long[] boundary;
+    private final long[] blocked;
+
+    /**
+     * @param exact    the restricted areas, also used for moves touching boundary cells
+     * @param cellSize preferred cell width, in degrees
+     */
+    public OccupancyBitmap(RestrictedAreaIndex exact, double cellSize) {
+        this.exact = exact;
+        int edges = exact.edgeCount();
+        double[] edge = new double[4];
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int e = 0; e < edges; e++) {
+            exact.edge(e, edge);
+            double margin = exact.onEdgeTolerance(e) + PAD;
+            minX = Math.min(minX, Math.min(edge[0], edge[2]) - margin);
+            minY = Math.min(minY, Math.min(edge[1], edge[3]) - margin);
+            maxX = Math.max(maxX, Math.max(edge[0], edge[2]) + margin);
+            maxY = Math.max(maxY, Math.max(edge[1], edge[3]) + margin);
+        }
+
+        if (edges == 0) {
+            this.originX = 0;
+            this.originY = 0;
+            this.cellSize = cellSize;
+            this.columns = 0;
+            this.rows = 0;
+            this.boundary = new long[0];
+            this.blocked = new long[0];
+            return;
+        }
+
+        double width = maxX - minX;
+        double height = maxY - minY;
+        double size = cellSize;
+        while ((Math.ceil(width / size) + 2) * (Math.ceil(height / size) + 2) > MAX_CELLS) {
+            size *= 2;
+        }
+        this.cellSize = size;
+        this.originX = minX - size;
+        this.originY = minY - size;
+        this.columns = (int) Math.ceil(width / size) + 2;
+        this.rows = (int) Math.ceil(height / size) + 2;
+        this.boundary = new long[(columns * rows + Long.SIZE - 1) / Long.SIZE];
+        this.blocked = new long[boundary.length];
+
+        // boundary cells: every cell an edge, widened by its tolerance, actually passes through
+        for (int e = 0; e < edges; e++) {
+            exact.edge(e, edge);
+            double margin = exact.onEdgeTolerance(e) + PAD;
+            int fromColumn = column(Math.min(edge[0], edge[2]) - margin);
+            int toColumn = column(Math.max(edge[0], edge[2]) + margin);
+            int fromRow = row(Math.min(edge[1], edge[3]) - margin);
+            int toRow = row(Math.max(edge[1], edge[3]) + margin);
+            for (int r = fromRow; r <= toRow; r++) {
+                for (int c = fromColumn; c <= toColumn; c++) {
+                    Rectangle2D.Double cell = new Rectangle2D.Double(
+                            originX + c * size - margin, originY + r * size - margin, size + 2 * margin, size + 2 * margin);
+                    if (cell.intersectsLine(edge[0], edge[1], edge[2], edge[3])) {
+                        set(boundary, r * columns + c);
+                    }
+                }
+            }
+        }
+
+        // the other cells: no edge separates horizontally adjacent non-boundary cells,
+        // so one inside test per run of them is enough
+        for (int r = 0; r < rows; r++) {
+            int c = 0;
+            while (c < columns) {
+                if (get(boundary, r * columns + c)) {
+                    c++;
+                    continue;
+                }
+                int runEnd = c;
+                while (runEnd < columns && !get(boundary, r * columns + runEnd)) {
+                    runEnd++;
+                }
+                if (exact.contains(originX + (c + 0.5) * size, originY + (r + 0.5) * size)) {
+                    for (int i = c; i < runEnd; i++) {
+                        set(blocked, r * columns + i);
+                    }
+                }
+                c = runEnd;
+            }
+        }
+    }
+
+    @Override
+    public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+        if (columns == 0) {
+            return false;
+        }
+
+        long fromColumn = (long) Math.floor((Math.min(fromLng, toLng) - originX) / cellSize);
+        long toColumn = (long) Math.floor((Math.max(fromLng, toLng) - originX) / cellSize);
+        long fromRow = (long) Math.floor((Math.min(fromLat, toLat) - originY) / cellSize);
+        long toRow = (long) Math.floor((Math.max(fromLat, toLat) - originY) / cellSize);
+        if (toColumn < 0 || fromColumn >= columns || toRow < 0 || fromRow >= rows) {
+            // entirely outside the rasterized box, so nowhere near an area
+            return false;
+        }
+
+        int endCell = row(toLat) * columns + column(toLng);
+        if (get(blocked, endCell)) {
+            return true;
+        }
+        for (int r = (int) Math.max(0, fromRow); r <= Math.min(rows - 1, toRow); r++) {
+            for (int c = (int) Math.max(0, fromColumn); c <= Math.min(columns - 1, toColumn); c++) {
+                int cell = r * columns + c;
+                if (get(boundary, cell) || get(blocked, cell)) {
+                    return exact.moveBlocked(fromLng, fromLat, toLng, toLat);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answered from the bitmap unless the point lies in a boundary cell.
+     */
+    @Override
+    public boolean contains(double lng, double lat) {
+        return switch (state(lng, lat)) {
+            case FREE -> false;
+            case BLOCKED -> true;
+            case BOUNDARY -> exact.contains(lng, lat);
+        };
+    }
+
+    @Override
+    public Bounds bounds() {
+        return exact.bounds();
+    }
+
+    @Override
+    public List<Region> regions() {
+        return exact.regions();
+    }
+
+    @Override
+    public boolean corridorClear(double fromLng, double fromLat, double toLng, double toLat, double radius) {
+        return exact.corridorClear(fromLng, fromLat, toLng, toLat, radius);
+    }
+
+    /**
+     * @return the classification of the cell containing the point; points outside the rasterized box are free
+     */
+    public CellState state(double lng, double lat) {
+        double x = (lng - originX) / cellSize;
+        double y = (lat - originY) / cellSize;
+        if (columns == 0 || x < 0 || y < 0 || x >= columns || y >= rows) {
+            return CellState.FREE;
+        }
+        int cell = (int) y * columns + (int) x;
+        if (get(boundary, cell)) {
+            return CellState.BOUNDARY;
+        }
+        return get(blocked, cell) ? CellState.BLOCKED : CellState.FREE;
+    }
+
+    /**
+     * @return longitude of the western edge of the first column; cells lie on a grid from here
+     */
+    double originLng() {
+        return originX;
+    }
+
+    /**
+     * @return latitude of the southern edge of the first row
+     */
+    double originLat() {
+        return originY;
+    }
+
+    /**
+     * @return the cell width actually used, coarser than requested only for very large areas
+     */
+    public double cellSize() {
+        return cellSize;
+    }
+
+    private int column(double x) {
+        return Math.clamp((long) Math.floor((x - originX) / cellSize), 0, columns - 1);
+    }
+
+    private int row(double y) {
+        return Math.clamp((long) Math.floor((y - originY) / cellSize), 0, rows - 1);
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -0,0 +1,34 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans a drone flight path between two points around restricted areas.
+ */
+public interface PathPlanner {
+    /**
+     * @param start     where the drone starts
+     * @param goal      where it has to get to; reached once within one move of it
+     * @param obstacles the restricted areas to avoid
+     * @return the positions visited from {@code start} to the last position reached, as a mutable list;
+     * empty if the goal cannot be reached, lies in a restricted area, or the search exceeded its limits
+     */
+    List<Point> plan(Point start, Point goal, ObstacleMap obstacles);
+
+    /**
+     * Plans paths from one start to several goals. Planners that can reach all goals in one search
+     * override this; by default each goal is planned on its own.
+     *
+     * @return one path per goal, in the order of {@code goals}, each as {@link #plan} would return it
+     */
+    default List<List<Point>> planAll(Point start, List<Point> goals, ObstacleMap obstacles) {
+        List<List<Point>> paths = new ArrayList<>(goals.size());
+        for (Point goal : goals) {
+            paths.add(plan(start, goal, obstacles));
+        }
+        return paths;
+    }
+}
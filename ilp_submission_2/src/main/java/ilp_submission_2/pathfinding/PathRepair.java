@@ -0,0 +1,106 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Brings a planned path up to date after the restricted areas changed, instead of planning it again
+ * from scratch.
+ * <p>
+ * A path that none of the new areas blocks can still be flown and is kept whole, unless it passes by an
+ * area that was lifted, where a shorter way may have opened up. A blocked path keeps its part up to a few
+ * moves before the first blocked move, which the change did not touch, and only the rest is planned again
+ * from there. The repaired path may be a little longer than a fresh plan, as it keeps the old part, but it
+ * never enters a restricted area.
+ */
+public final class PathRepair {
+    /**
+     * How many moves before the first blocked one planning starts again, so the new part can turn away early.
+     * */
+    static final int BACKOFF_MOVES = 8;
+
+    private PathRepair() {}
+
+    /**
+     * @param path      a path planned before the change, from its start to the last position reached
+     * @param goal      the goal it was planned to
+     * @param obstacles the restricted areas after the change
+     * @param lifted    bounds of the areas the change removed or reshaped, see {@link #lifted}
+     * @param planner   plans the part after the first blocked move again
+     * @param stepSize  length of one move
+     * @return the repaired path, which is {@code path} itself if it needed no repair; {@code null} if it has
+     * to be planned again from scratch
+     */
+    public static List<Point> repair(List<Point> path, Point goal, ObstacleMap obstacles, List<Bounds> lifted,
+                                     PathPlanner planner, double stepSize) {
+        if (path.isEmpty()) {
+            return null;
+        }
+        Bounds extent = null;
+        for (Point p : path) {
+            extent = Bounds.of(p.getLng(), p.getLat(), p.getLng(), p.getLat()).union(extent);
+        }
+        extent = extent.expand(stepSize);
+        for (Bounds area : lifted) {
+            if (area.intersects(extent)) {
+                return null;
+            }
+        }
+
+        Point start = path.getFirst();
+        if (obstacles.contains(start.getLng(), start.getLat())) {
+            return null;
+        }
+        int blocked = -1;
+        for (int i = 1; i < path.size() && blocked < 0; i++) {
+            Point from = path.get(i - 1);
+            Point to = path.get(i);
+            if (obstacles.moveBlocked(from.getLng(), from.getLat(), to.getLng(), to.getLat())) {
+                blocked = i - 1;
+            }
+        }
+        if (blocked < 0) {
+            return path;
+        }
+
+        int restart = Math.max(0, blocked - BACKOFF_MOVES);
+        List<Point> rest = planner.plan(path.get(restart), goal, obstacles);
+        if (rest.isEmpty()) {
+            return null;
+        }
+        // the replanned part starts where the kept part ends
+        List<Point> repaired = new ArrayList<>(restart + rest.size());
+        repaired.addAll(path.subList(0, restart));
+        repaired.addAll(rest);
+        return repaired;
+    }
+
+    /**
+     * @param before the restricted areas before a change
+     * @param after  the restricted areas after it
+     * @return the bounds of the areas in {@code before} that {@code after} no longer has in the same shape
+     */
+    public static List<Bounds> lifted(List<Region> before, List<Region> after) {
+        List<Bounds> lifted = new ArrayList<>();
+        for (Region region : before) {
+            boolean kept = after.stream().anyMatch(other -> sameArea(region, other));
+            if (!kept && region.getVertices() != null && !region.getVertices().isEmpty()) {
+                Bounds bounds = null;
+                for (Point vertex : region.getVertices()) {
+                    bounds = Bounds.of(vertex.getLng(), vertex.getLat(), vertex.getLng(), vertex.getLat()).union(bounds);
+                }
+                lifted.add(bounds);
+            }
+        }
+        return lifted;
+    }
+
+    private static boolean sameArea(Region region, Region other) {
+        return Objects.equals(region.getName(), other.getName())
+                && Objects.equals(region.getVertices(), other.getVertices());
+    }
+}
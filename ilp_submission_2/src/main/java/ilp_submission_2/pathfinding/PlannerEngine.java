@@ -0,0 +1,32 @@
+package ilp_submission_2.pathfinding;
+
+/**
+ * The path planners a delivery path can be computed with.
+ */
+public enum PlannerEngine {
+    /**
+     * A* over the 16-direction move lattice. Finds the fewest moves, but expands a frontier that
+     * grows with the length of the detour.
+     */
+    LATTICE,
+
+    /**
+     * Shortest route over a visibility graph of the restricted areas' corners, flown as compass
+     * moves. Planning time grows with the number of corners rather than the length of the flight.
+     */
+    VISIBILITY,
+
+    /**
+     * Route over a coarse grid first, then the lattice search confined to the corridor around that
+     * route. Search effort grows with the length of the leg rather than the area it spans.
+     */
+    HIERARCHICAL,
+
+    /**
+     * The lattice search run from both ends of the leg at once, meeting in the middle, expanding roughly
+     * half as many positions on long legs. Paths are as short as {@link #LATTICE}'s, except where the
+     * shortest one runs so close to an area that the backward search's shifted copy of it is blocked;
+     * the path found is then slightly longer, or there is none.
+     */
+    BIDIRECTIONAL
+}
@@ -0,0 +1,33 @@
+package ilp_submission_2.pathfinding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits on a single path search, bound from {@code ilp.planner.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ilp.planner")
+public class PlannerProperties {
+    /**
+     * Planner used unless a request asks for another one.
+     * */
+    private PlannerEngine engine = PlannerEngine.LATTICE;
+
+    /**
+     * Positions a search may expand before it gives up and reports the goal as unreachable.
+     * */
+    private int maxExpansions = 500_000;
+
+    /**
+     * Wall-clock time a search may take before it gives up and reports the goal as unreachable.
+     * */
+    private long maxSearchMs = 5000;
+
+    /**
+     * How far, in moves, a search may stray outside the bounding box of start, goal and restricted areas.
+     * */
+    private int boundsMarginMoves = 20;
+}
@@ -0,0 +1,123 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+
+import java.awt.geom.Line2D;
+import java.util.List;
+
+/**
+ * {@link ObstacleMap} over restricted areas given as closed polygons.
+ * <p>
+ * The vertices are copied into primitive arrays once, so testing a move allocates nothing.
+ * A move is blocked if its end point lies on an edge of a polygon, lies inside it
+ * (ray casting), or if the move segment intersects any edge.
+ */
+public class PolygonObstacleMap implements ObstacleMap {
+    private static final double ON_SEGMENT_EPSILON = 1e-9;
+    private static final double HORIZONTAL_EDGE_EPSILON = 1e-12;
+
+    private final double[][] lngs;
+    private final double[][] lats;
+    private final Bounds bounds;
+    private final List<Region> regions;
+
+    /**
+     * @param regions the restricted areas; each must be explicitly closed (first vertex equals last)
+     */
+    public PolygonObstacleMap(List<Region> regions) {
+        this.lngs = new double[regions.size()][];
+        this.lats = new double[regions.size()][];
+        for (int r = 0; r < regions.size(); r++) {
+            List<Point> vertices = regions.get(r).getVertices();
+            lngs[r] = new double[vertices.size()];
+            lats[r] = new double[vertices.size()];
+            for (int v = 0; v < vertices.size(); v++) {
+                lngs[r][v] = vertices.get(v).getLng();
+                lats[r][v] = vertices.get(v).getLat();
+            }
+        }
+        Bounds all = null;
+        for (int r = 0; r < lngs.length; r++) {
+            for (int v = 0; v < lngs[r].length; v++) {
+                all = Bounds.of(lngs[r][v], lats[r][v], lngs[r][v], lats[r][v]).union(all);
+            }
+        }
+        this.bounds = all;
+        this.regions = List.copyOf(regions);
+    }
+
+    @Override
+    public List<Region> regions() {
+        return regions;
+    }
+
+    @Override
+    public Bounds bounds() {
+        return bounds;
+    }
+
+    @Override
+    public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+        for (int r = 0; r < lngs.length; r++) {
+            if (blockedBy(lngs[r], lats[r], fromLng, fromLat, toLng, toLat)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean blockedBy(double[] xs, double[] ys, double fromX, double fromY, double toX, double toY) {
+        int edges = xs.length - 1;
+
+        // the boundary counts as inside
+        for (int i = 0; i < edges; i++) {
+            if (onSegment(toX, toY, xs[i], ys[i], xs[i + 1], ys[i + 1])) {
+                return true;
+            }
+        }
+
+        int crossings = 0;
+        for (int i = 0; i < edges; i++) {
+            double dy = ys[i + 1] - ys[i];
+            if (Math.abs(dy) < HORIZONTAL_EDGE_EPSILON) {
+                continue;
+            }
+            if ((toY <= ys[i]) != (toY <= ys[i + 1])) {
+                double xIntersect = xs[i] + (toY - ys[i]) * (xs[i + 1] - xs[i]) / dy;
+                if (xIntersect >= toX) {
+                    crossings++;
+                }
+            }
+        }
+        if (crossings % 2 == 1) {
+            return true;
+        }
+
+        for (int i = 0; i < edges; i++) {
+            if (Line2D.linesIntersect(fromX, fromY, toX, toY, xs[i], ys[i], xs[i + 1], ys[i + 1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean onSegment(double px, double py, double ax, double ay, double bx, double by) {
+        double abx = bx - ax;
+        double aby = by - ay;
+        double apx = px - ax;
+        double apy = py - ay;
+
+        double cross = abx * apy - aby * apx;
+        if (Math.abs(cross) > ON_SEGMENT_EPSILON) {
+            return false;
+        }
+        double dot = abx * apx + aby * apy;
+        double lengthSquared = abx * abx + aby * aby;
+        if (lengthSquared == 0) {
+            // a repeated vertex is a point, not an edge every point lies on
+            return apx == 0 && apy == 0;
+        }
+        return dot >= 0 && dot <= lengthSquared;
+    }
+}
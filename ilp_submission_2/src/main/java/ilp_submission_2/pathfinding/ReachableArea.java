@@ -0,0 +1,143 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where a drone can fly from its service point, deliver and fly back within a budget of moves.
+ * <p>
+ * A round trip is the way out, one hover and the way back, so a position is reachable within {@code maxMoves}
+ * if the way out takes at most {@code (maxMoves - 1) / 2} moves. Distances from the service point come
+ * from one flood-fill over a {@link CellGrid} through free cells only, without cutting corners, stopped
+ * at the largest budget the area was built for. Grid routes are a little longer than the planner's, so
+ * the area errs on the side of leaving out positions that are only just reachable, never the other way.
+ * <p>
+ * Instances are immutable and safe to share between concurrent requests.
+ */
+public final class ReachableArea {
+    private final CellGrid grid;
+    private final float[] moves;
+    private final int maxMoves;
+    private final double stepSize;
+
+    private ReachableArea(CellGrid grid, float[] moves, int maxMoves, double stepSize) {
+        this.grid = grid;
+        this.moves = moves;
+        this.maxMoves = maxMoves;
+        this.stepSize = stepSize;
+    }
+
+    /**
+     * @param obstacles the restricted areas
+     * @param base      the service point every round trip starts and ends at
+     * @param maxMoves  the largest budget the area will be asked about
+     * @param stepSize  length of one move
+     */
+    public static ReachableArea build(OccupancyBitmap obstacles, Point base, int maxMoves, double stepSize) {
+        double radius = (outbound(maxMoves) + 2) * stepSize;
+        Bounds region = Bounds.of(base.getLng() - radius, base.getLat() - radius, base.getLng() + radius, base.getLat() + radius);
+        CellGrid grid = CellGrid.over(obstacles, region, stepSize);
+
+        double[] field = grid.emptyField(1);
+        IndexedMinHeap open = new IndexedMinHeap(1 << 12);
+        grid.seedFree(field, open, 0, base.getLng(), base.getLat());
+        grid.relax(field, open, true, null, outbound(maxMoves));
+
+        float[] moves = new float[field.length];
+        for (int i = 0; i < field.length; i++) {
+            // rounded up, so positions are never reported closer than the grid route
+            float value = (float) field[i];
+            moves[i] = value < field[i] ? Math.nextUp(value) : value;
+        }
+        return new ReachableArea(grid, moves, maxMoves, stepSize);
+    }
+
+    /**
+     * @return the largest budget this area answers for
+     */
+    public int maxMoves() {
+        return maxMoves;
+    }
+
+    /**
+     * @param budget the drone's maximum moves; budgets above {@link #maxMoves()} are treated as that
+     * @return whether a round trip to {@code (lng, lat)} fits in {@code budget} moves
+     */
+    public boolean reachable(double lng, double lat, int budget) {
+        int cell = grid.cell(lng, lat);
+        if (cell < 0) {
+            return false;
+        }
+        double limit = outbound(Math.min(budget, maxMoves));
+        if (grid.free(cell)) {
+            return moves[cell] + distance(grid.centreLng(cell), grid.centreLat(cell), lng, lat) / stepSize <= limit;
+        }
+        // near an area, through any free cell it can be flown to straight from
+        for (int near : grid.freeCellsNear(lng, lat)) {
+            if (moves[near] + distance(grid.centreLng(near), grid.centreLat(near), lng, lat) / stepSize <= limit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Covers the free cells that are reachable throughout with rectangles: runs of cells along each row,
+     * merged with the runs directly above them that span the same columns.
+     *
+     * @param budget the drone's maximum moves; budgets above {@link #maxMoves()} are treated as that
+     * @return the rectangles, which do not overlap
+     */
+    public List<Bounds> rectangles(int budget) {
+        double limit = outbound(Math.min(budget, maxMoves)) - Math.sqrt(2) / 2 * grid.cellSize() / stepSize;
+        int columns = grid.columns();
+        double size = grid.cellSize();
+        List<Bounds> rectangles = new ArrayList<>();
+        // open rectangles by their first and last column, with the row they started in
+        Map<Long, Integer> open = new HashMap<>();
+        for (int r = 0; r <= grid.rows(); r++) {
+            Map<Long, Integer> next = new HashMap<>();
+            int c = 0;
+            while (r < grid.rows() && c < columns) {
+                if (!inside(r * columns + c, limit)) {
+                    c++;
+                    continue;
+                }
+                int first = c;
+                while (c < columns && inside(r * columns + c, limit)) {
+                    c++;
+                }
+                long run = ((long) first << 32) | (c - 1);
+                Integer startRow = open.remove(run);
+                next.put(run, startRow != null ? startRow : r);
+            }
+            for (Map.Entry<Long, Integer> ended : open.entrySet()) {
+                int first = (int) (ended.getKey() >>> 32);
+                int last = (int) (long) ended.getKey();
+                rectangles.add(new Bounds(
+                        grid.originLng() + first * size, grid.originLat() + ended.getValue() * size,
+                        grid.originLng() + (last + 1) * size, grid.originLat() + r * size));
+            }
+            open = next;
+        }
+        return rectangles;
+    }
+
+    private boolean inside(int cell, double limit) {
+        return grid.free(cell) && moves[cell] <= limit;
+    }
+
+    private static double outbound(int maxMoves) {
+        return (maxMoves - 1) / 2.0;
+    }
+
+    private static double distance(double lng, double lat, double toLng, double toLat) {
+        double dLng = toLng - lng;
+        double dLat = toLat - lat;
+        return Math.sqrt(dLng * dLng + dLat * dLat);
+    }
+}
@@ -0,0 +1,343 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+
+import java.awt.geom.Line2D;
+import java.util.List;
+
+/**
+ * {@link ObstacleMap} over restricted areas, backed by a uniform grid.
+ * <p>
+ * Gives the same answers as {@link PolygonObstacleMap}, but instead of testing every edge of every
+ * area, a move is only tested against the edges registered in the grid cells its segment overlaps,
+ * and only areas whose bounding box contains the end point are ray cast. Each edge is registered in
+ * every cell its bounding box, widened by the on-edge tolerance, overlaps. Edge coordinates are held
+ * in flat arrays and cell contents in compressed (offset plus index) arrays, so a lookup allocates
+ * nothing.
+ * <p>
+ * As moves are much shorter than a cell, a move touches one to four cells and its cost no longer
+ * grows with the total number of vertices.
+ */
+public class RestrictedAreaIndex implements ObstacleMap {
+    private static final double ON_SEGMENT_EPSILON = 1e-9;
+    private static final double HORIZONTAL_EDGE_EPSILON = 1e-12;
+    private static final int MAX_CELLS_PER_AXIS = 512;
+
+    private final List<Region> regions;
+
+    // edges, flattened across all areas
+    private final double[] x1;
+    private final double[] y1;
+    private final double[] x2;
+    private final double[] y2;
+
+    // per-area bounding boxes and edge ranges
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+    private final int[] firstEdge;
+
+    // grid
+    private final double gridMinX;
+    private final double gridMinY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellEdgeOffsets;
+    private final int[] cellEdges;
+    private final int[] cellAreaOffsets;
+    private final int[] cellAreas;
+
+    /**
+     * @param regions the restricted areas; each must be explicitly closed (first vertex equals last)
+     */
+    public RestrictedAreaIndex(List<Region> regions) {
+        this.regions = List.copyOf(regions);
+        int areas = regions.size();
+        int edges = 0;
+        for (Region region : regions) {
+            edges += Math.max(0, region.getVertices().size() - 1);
+        }
+
+        x1 = new double[edges];
+        y1 = new double[edges];
+        x2 = new double[edges];
+        y2 = new double[edges];
+        minX = new double[areas];
+        minY = new double[areas];
+        maxX = new double[areas];
+        maxY = new double[areas];
+        firstEdge = new int[areas + 1];
+
+        double boundsMinX = Double.POSITIVE_INFINITY;
+        double boundsMinY = Double.POSITIVE_INFINITY;
+        double boundsMaxX = Double.NEGATIVE_INFINITY;
+        double boundsMaxY = Double.NEGATIVE_INFINITY;
+
+        int edge = 0;
+        for (int a = 0; a < areas; a++) {
+            List<Point> vertices = regions.get(a).getVertices();
+            firstEdge[a] = edge;
+            minX[a] = Double.POSITIVE_INFINITY;
+            minY[a] = Double.POSITIVE_INFINITY;
+            maxX[a] = Double.NEGATIVE_INFINITY;
+            maxY[a] = Double.NEGATIVE_INFINITY;
+            for (int v = 0; v < vertices.size(); v++) {
+                double x = vertices.get(v).getLng();
+                double y = vertices.get(v).getLat();
+                minX[a] = Math.min(minX[a], x);
+                minY[a] = Math.min(minY[a], y);
+                maxX[a] = Math.max(maxX[a], x);
+                maxY[a] = Math.max(maxY[a], y);
+                if (v + 1 < vertices.size()) {
+                    x1[edge] = x;
+                    y1[edge] = y;
+                    x2[edge] = vertices.get(v + 1).getLng();
+                    y2[edge] = vertices.get(v + 1).getLat();
+                    edge++;
+                }
+            }
+            for (int e = firstEdge[a]; e < edge; e++) {
+                double margin = margin(e);
+                boundsMinX = Math.min(boundsMinX, Math.min(x1[e], x2[e]) - margin);
+                boundsMinY = Math.min(boundsMinY, Math.min(y1[e], y2[e]) - margin);
+                boundsMaxX = Math.max(boundsMaxX, Math.max(x1[e], x2[e]) + margin);
+                boundsMaxY = Math.max(boundsMaxY, Math.max(y1[e], y2[e]) + margin);
+            }
+        }
+        firstEdge[areas] = edge;
+
+        if (edges == 0) {
+            gridMinX = 0;
+            gridMinY = 0;
+            cellSize = 1;
+            columns = 1;
+            rows = 1;
+        } else {
+            double extent = Math.max(boundsMaxX - boundsMinX, boundsMaxY - boundsMinY);
+            int cellsPerAxis = (int) Math.min(MAX_CELLS_PER_AXIS, Math.max(1, Math.ceil(Math.sqrt(edges) * 4)));
+            gridMinX = boundsMinX;
+            gridMinY = boundsMinY;
+            cellSize = extent > 0 ? extent / cellsPerAxis : 1;
+            columns = Math.max(1, (int) Math.ceil((boundsMaxX - boundsMinX) / cellSize));
+            rows = Math.max(1, (int) Math.ceil((boundsMaxY - boundsMinY) / cellSize));
+        }
+
+        // edges per cell, compressed: count, prefix-sum, fill
+        cellEdgeOffsets = new int[columns * rows + 1];
+        for (int e = 0; e < edges; e++) {
+            forEachCell(edgeBox(e), cell -> cellEdgeOffsets[cell + 1]++);
+        }
+        prefixSum(cellEdgeOffsets);
+        cellEdges = new int[cellEdgeOffsets[columns * rows]];
+        int[] fill = cellEdgeOffsets.clone();
+        for (int e = 0; e < edges; e++) {
+            int current = e;
+            forEachCell(edgeBox(e), cell -> cellEdges[fill[cell]++] = current);
+        }
+
+        // areas per cell, by bounding box
+        cellAreaOffsets = new int[columns * rows + 1];
+        for (int a = 0; a < areas; a++) {
+            forEachCell(new double[]{minX[a], minY[a], maxX[a], maxY[a]}, cell -> cellAreaOffsets[cell + 1]++);
+        }
+        prefixSum(cellAreaOffsets);
+        cellAreas = new int[cellAreaOffsets[columns * rows]];
+        int[] areaFill = cellAreaOffsets.clone();
+        for (int a = 0; a < areas; a++) {
+            int current = a;
+            forEachCell(new double[]{minX[a], minY[a], maxX[a], maxY[a]}, cell -> cellAreas[areaFill[cell]++] = current);
+        }
+    }
+
+    /**
+     * How far from an edge a point can be and still count as on it: the on-edge test bounds the
+     * cross product, which is the distance scaled by the edge length.
+     */
+    private double margin(int e) {
+        double length = Math.sqrt((x2[e] - x1[e]) * (x2[e] - x1[e]) + (y2[e] - y1[e]) * (y2[e] - y1[e]));
+        return length > 0 ? ON_SEGMENT_EPSILON / length : 0;
+    }
+
+    private double[] edgeBox(int e) {
+        double margin = margin(e);
+        return new double[]{
+                Math.min(x1[e], x2[e]) - margin, Math.min(y1[e], y2[e]) - margin,
+                Math.max(x1[e], x2[e]) + margin, Math.max(y1[e], y2[e]) + margin};
+    }
+
+    private interface CellConsumer {
+        void accept(int cell);
+    }
+
+    private void forEachCell(double[] box, CellConsumer consumer) {
+        int fromColumn = column(box[0]);
+        int toColumn = column(box[2]);
+        int fromRow = row(box[1]);
+        int toRow = row(box[3]);
+        for (int r = fromRow; r <= toRow; r++) {
+            for (int c = fromColumn; c <= toColumn; c++) {
+                consumer.accept(r * columns + c);
+            }
+        }
+    }
+
+    private static void prefixSum(int[] offsets) {
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+    }
+
+    private int column(double x) {
+        return Math.clamp((long) Math.floor((x - gridMinX) / cellSize), 0, columns - 1);
+    }
+
+    private int row(double y) {
+        return Math.clamp((long) Math.floor((y - gridMinY) / cellSize), 0, rows - 1);
+    }
+
+    @Override
+    public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+        if (x1.length == 0) {
+            return false;
+        }
+
+        // end point on an edge, or inside an area
+        if (contains(toLng, toLat)) {
+            return true;
+        }
+
+        // move segment crossing an edge
+        int fromColumn = column(Math.min(fromLng, toLng));
+        int toColumn = column(Math.max(fromLng, toLng));
+        int fromRow = row(Math.min(fromLat, toLat));
+        int toRow = row(Math.max(fromLat, toLat));
+        for (int r = fromRow; r <= toRow; r++) {
+            for (int c = fromColumn; c <= toColumn; c++) {
+                int cell = r * columns + c;
+                for (int i = cellEdgeOffsets[cell]; i < cellEdgeOffsets[cell + 1]; i++) {
+                    int e = cellEdges[i];
+                    if (Line2D.linesIntersect(fromLng, fromLat, toLng, toLat, x1[e], y1[e], x2[e], y2[e])) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean onEdge(int e, double px, double py) {
+        double abx = x2[e] - x1[e];
+        double aby = y2[e] - y1[e];
+        double apx = px - x1[e];
+        double apy = py - y1[e];
+
+        double cross = abx * apy - aby * apx;
+        if (Math.abs(cross) > ON_SEGMENT_EPSILON) {
+            return false;
+        }
+        double dot = abx * apx + aby * apy;
+        double lengthSquared = abx * abx + aby * aby;
+        if (lengthSquared == 0) {
+            return apx == 0 && apy == 0;
+        }
+        return dot >= 0 && dot <= lengthSquared;
+    }
+
+    private boolean inside(int area, double px, double py) {
+        if (px < minX[area] || px > maxX[area] || py < minY[area] || py > maxY[area]) {
+            return false;
+        }
+
+        int crossings = 0;
+        for (int e = firstEdge[area]; e < firstEdge[area + 1]; e++) {
+            double dy = y2[e] - y1[e];
+            if (Math.abs(dy) < HORIZONTAL_EDGE_EPSILON) {
+                continue;
+            }
+            if ((py <= y1[e]) != (py <= y2[e])) {
+                double xIntersect = x1[e] + (py - y1[e]) * (x2[e] - x1[e]) / dy;
+                if (xIntersect >= px) {
+                    crossings++;
+                }
+            }
+        }
+        return crossings % 2 == 1;
+    }
+
+    @Override
+    public List<Region> regions() {
+        return regions;
+    }
+
+    @Override
+    public Bounds bounds() {
+        Bounds all = null;
+        for (int a = 0; a < minX.length; a++) {
+            if (firstEdge[a + 1] > firstEdge[a]) {
+                all = new Bounds(minX[a], minY[a], maxX[a], maxY[a]).union(all);
+            }
+        }
+        return all;
+    }
+
+    /**
+     * Compares the corridor against the bounding box of each area.
+     */
+    @Override
+    public boolean corridorClear(double fromLng, double fromLat, double toLng, double toLat, double radius) {
+        for (int a = 0; a < minX.length; a++) {
+            if (firstEdge[a + 1] > firstEdge[a]
+                    && new Bounds(minX[a], minY[a], maxX[a], maxY[a]).expand(radius)
+                    .intersectsSegment(fromLng, fromLat, toLng, toLat)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(double lng, double lat) {
+        if (x1.length == 0) {
+            return false;
+        }
+        int cell = row(lat) * columns + column(lng);
+        for (int i = cellEdgeOffsets[cell]; i < cellEdgeOffsets[cell + 1]; i++) {
+            if (onEdge(cellEdges[i], lng, lat)) {
+                return true;
+            }
+        }
+        for (int i = cellAreaOffsets[cell]; i < cellAreaOffsets[cell + 1]; i++) {
+            if (inside(cellAreas[i], lng, lat)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of edges indexed
+     */
+    public int edgeCount() {
+        return x1.length;
+    }
+
+    /**
+     * Copies edge {@code e} as {@code {x1, y1, x2, y2}}, for building derived structures.
+     */
+    void edge(int e, double[] into) {
+        into[0] = x1[e];
+        into[1] = y1[e];
+        into[2] = x2[e];
+        into[3] = y2[e];
+    }
+
+    /**
+     * @return how far from edge {@code e} a point still counts as lying on it
+     */
+    double onEdgeTolerance(int e) {
+        return margin(e);
+    }
+}
@@ -0,0 +1,73 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Search state of one lattice search, kept per thread and reused across searches.
+ * <p>
+ * Nodes are numbered in the order they are added; their position, move count, parent and closed flag
+ * live in parallel arrays indexed by that number.
+ */
+final class SearchWorkspace {
+    private static final int INITIAL_NODES = 1 << 12;
+    /**
+     * Workspaces grown beyond this many nodes are dropped after the search rather than kept per thread.
+     * */
+    private static final int RETAINED_NODES = 1 << 20;
+
+    final LongIntHashMap index = new LongIntHashMap(INITIAL_NODES);
+    final IndexedMinHeap open = new IndexedMinHeap(INITIAL_NODES);
+    double[] lngs = new double[INITIAL_NODES];
+    double[] lats = new double[INITIAL_NODES];
+    int[] moves = new int[INITIAL_NODES];
+    int[] parents = new int[INITIAL_NODES];
+    boolean[] closed = new boolean[INITIAL_NODES];
+    int count;
+
+    int addNode(double lng, double lat, int parent, int moveCount) {
+        if (count == lngs.length) {
+            int capacity = count * 2;
+            lngs = Arrays.copyOf(lngs, capacity);
+            lats = Arrays.copyOf(lats, capacity);
+            moves = Arrays.copyOf(moves, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            closed = Arrays.copyOf(closed, capacity);
+        }
+        lngs[count] = lng;
+        lats[count] = lat;
+        parents[count] = parent;
+        moves[count] = moveCount;
+        return count++;
+    }
+
+    /**
+     * @return the positions from the search's first node to {@code end}
+     */
+    List<Point> path(int end) {
+        List<Point> path = new ArrayList<>(moves[end] + 2);
+        for (int node = end; node >= 0; node = parents[node]) {
+            path.add(Point.builder().lng(lngs[node]).lat(lats[node]).build());
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return whether this workspace has grown too large to keep for the next search
+     */
+    boolean oversized() {
+        return lngs.length > RETAINED_NODES;
+    }
+
+    void reset() {
+        Arrays.fill(closed, 0, count, false);
+        count = 0;
+        index.clear();
+        open.clear();
+    }
+}
@@ -0,0 +1,154 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link PathPlanner} that flies legs with nothing in the way without searching.
+ * <p>
+ * If no restricted area comes near the straight line from start to goal, the shortest move sequence is
+ * built directly: only the two compass directions either side of the bearing to the goal are used, the
+ * fewest moves whose end lies within one move of the goal are found by trying the possible splits between
+ * them, and the two directions are interleaved so the path never strays more than a move from the line.
+ * Everything else, and any leg the construction cannot finish, is passed to the fallback planner.
+ */
+public class StraightLinePlanner implements PathPlanner {
+    private static final int DIRECTIONS = 16;
+    private static final double SECTOR_DEGREES = 360.0 / DIRECTIONS;
+    /**
+     * How far from the straight line, in moves, restricted areas must stay for the fast path to apply.
+     * */
+    private static final double CORRIDOR_MOVES = 2;
+
+    private final PathPlanner fallback;
+    private final double stepSize;
+    private final double[] moveLng = new double[DIRECTIONS];
+    private final double[] moveLat = new double[DIRECTIONS];
+
+    public StraightLinePlanner(PathPlanner fallback, double stepSize) {
+        this.fallback = fallback;
+        this.stepSize = stepSize;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            double radAngle = Math.toRadians(d * SECTOR_DEGREES);
+            moveLng[d] = Math.cos(radAngle) * stepSize;
+            moveLat[d] = Math.sin(radAngle) * stepSize;
+        }
+    }
+
+    @Override
+    public List<Point> plan(Point start, Point goal, ObstacleMap obstacles) {
+        if (obstacles.corridorClear(start.getLng(), start.getLat(), goal.getLng(), goal.getLat(), CORRIDOR_MOVES * stepSize)) {
+            List<Point> path = straightPath(start.getLng(), start.getLat(), goal.getLng(), goal.getLat());
+            if (path != null) {
+                return path;
+            }
+        }
+        return fallback.plan(start, goal, obstacles);
+    }
+
+    /**
+     * Builds the legs with nothing in the way directly and passes all the others to the fallback together.
+     */
+    @Override
+    public List<List<Point>> planAll(Point start, List<Point> goals, ObstacleMap obstacles) {
+        List<List<Point>> paths = new ArrayList<>(goals.size());
+        List<Point> searched = new ArrayList<>();
+        for (Point goal : goals) {
+            List<Point> path = null;
+            if (obstacles.corridorClear(start.getLng(), start.getLat(), goal.getLng(), goal.getLat(), CORRIDOR_MOVES * stepSize)) {
+                path = straightPath(start.getLng(), start.getLat(), goal.getLng(), goal.getLat());
+            }
+            if (path == null) {
+                searched.add(goal);
+            }
+            paths.add(path);
+        }
+        if (searched.isEmpty()) {
+            return paths;
+        }
+
+        List<List<Point>> found = fallback.planAll(start, searched, obstacles);
+        for (int g = 0, next = 0; g < paths.size(); g++) {
+            if (paths.get(g) == null) {
+                paths.set(g, found.get(next++));
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * @return the shortest path using the two directions bracketing the bearing to the goal, or {@code null}
+     * if none reaching the goal was found
+     */
+    List<Point> straightPath(double startLng, double startLat, double goalLng, double goalLat) {
+        double dLng = goalLng - startLng;
+        double dLat = goalLat - startLat;
+        double distance = distance(startLng, startLat, goalLng, goalLat);
+        if (distance < stepSize) {
+            List<Point> path = new ArrayList<>(1);
+            path.add(point(startLng, startLat));
+            return path;
+        }
+
+        double bearing = Math.toDegrees(Math.atan2(dLat, dLng));
+        int first = Math.floorMod((int) Math.floor(bearing / SECTOR_DEGREES), DIRECTIONS);
+        int second = (first + 1) % DIRECTIONS;
+
+        // moves along the bracketing directions cover at least cos(half a sector) of a move each towards the goal
+        double moves = distance / stepSize;
+        int fewest = Math.max(1, (int) Math.floor(moves - 1));
+        int most = (int) Math.ceil(moves / Math.cos(Math.toRadians(SECTOR_DEGREES / 2))) + 1;
+        for (int n = fewest; n <= most; n++) {
+            int bestFirst = -1;
+            double bestDistance = stepSize;
+            for (int k = 0; k <= n; k++) {
+                double endLng = startLng + k * moveLng[first] + (n - k) * moveLng[second];
+                double endLat = startLat + k * moveLat[first] + (n - k) * moveLat[second];
+                double remaining = distance(endLng, endLat, goalLng, goalLat);
+                if (remaining < bestDistance) {
+                    bestDistance = remaining;
+                    bestFirst = k;
+                }
+            }
+            if (bestFirst >= 0) {
+                return interleave(startLng, startLat, goalLng, goalLat, first, bestFirst, second, n - bestFirst);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lays out the moves Bresenham-style, so after {@code i} moves roughly {@code i * firstMoves / n}
+     * of them went along {@code first}. Positions are accumulated move by move, as the search does.
+     */
+    private List<Point> interleave(double lng, double lat, double goalLng, double goalLat,
+                                   int first, int firstMoves, int second, int secondMoves) {
+        int n = firstMoves + secondMoves;
+        List<Point> path = new ArrayList<>(n + 2);
+        path.add(point(lng, lat));
+        int usedFirst = 0;
+        for (int i = 1; i <= n; i++) {
+            int d = usedFirst < Math.round((double) i * firstMoves / n) ? first : second;
+            if (d == first) {
+                usedFirst++;
+            }
+            lng += moveLng[d];
+            lat += moveLat[d];
+            path.add(point(lng, lat));
+        }
+        // accumulated rounding could in principle leave the end a hair outside the goal
+        return distance(lng, lat, goalLng, goalLat) < stepSize ? path : null;
+    }
+
+    private static double distance(double lng, double lat, double goalLng, double goalLat) {
+        double dLng = goalLng - lng;
+        double dLat = goalLat - lat;
+        return Math.sqrt(dLng * dLng + dLat * dLat);
+    }
+
+    private static Point point(double lng, double lat) {
+        return Point.builder().lng(lng).lat(lat).build();
+    }
+}
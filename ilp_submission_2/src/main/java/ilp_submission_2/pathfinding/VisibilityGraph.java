@@ -0,0 +1,213 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Visibility graph over the corners of the restricted areas.
+ * <p>
+ * Shortest routes around polygons only ever bend at their convex corners, so each convex corner
+ * contributes one waypoint, pushed outwards by {@code clearance} so a route can pass it without
+ * touching the boundary. Two waypoints are connected if the straight segment between them is not
+ * blocked by the obstacle map. Start and goal are connected per query.
+ */
+final class VisibilityGraph {
+    /**
+     * Bound on how far a waypoint is pushed out from a very sharp corner, in multiples of the clearance.
+     * */
+    private static final double MAX_OFFSET_CLEARANCES = 4;
+
+    private final double[] xs;
+    private final double[] ys;
+    // pairwise segment lengths between visible waypoints, infinite otherwise
+    private final double[] lengths;
+
+    VisibilityGraph(ObstacleMap obstacles, double clearance) {
+        List<double[]> waypoints = new ArrayList<>();
+        for (Region region : obstacles.regions()) {
+            addCorners(region.getVertices(), clearance, obstacles, waypoints);
+        }
+
+        int n = waypoints.size();
+        xs = new double[n];
+        ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = waypoints.get(i)[0];
+            ys[i] = waypoints.get(i)[1];
+        }
+
+        lengths = new double[n * n];
+        Arrays.fill(lengths, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            lengths[i * n + i] = 0;
+            for (int j = i + 1; j < n; j++) {
+                if (!obstacles.moveBlocked(xs[i], ys[i], xs[j], ys[j])) {
+                    double length = distance(xs[i], ys[i], xs[j], ys[j]);
+                    lengths[i * n + j] = length;
+                    lengths[j * n + i] = length;
+                }
+            }
+        }
+    }
+
+    private static void addCorners(List<Point> vertices, double clearance, ObstacleMap obstacles, List<double[]> waypoints) {
+        // distinct vertices, dropping the closing one and any repeats
+        List<Point> ring = new ArrayList<>();
+        for (Point vertex : vertices) {
+            if (ring.isEmpty() || !samePosition(ring.getLast(), vertex)) {
+                ring.add(vertex);
+            }
+        }
+        if (ring.size() > 1 && samePosition(ring.getFirst(), ring.getLast())) {
+            ring.removeLast();
+        }
+        int m = ring.size();
+        if (m < 3) {
+            return;
+        }
+
+        double signedArea = 0;
+        for (int i = 0; i < m; i++) {
+            Point a = ring.get(i);
+            Point b = ring.get((i + 1) % m);
+            signedArea += a.getLng() * b.getLat() - b.getLng() * a.getLat();
+        }
+        double orientation = Math.signum(signedArea);
+        if (orientation == 0) {
+            return;
+        }
+
+        for (int i = 0; i < m; i++) {
+            Point prev = ring.get((i + m - 1) % m);
+            Point vertex = ring.get(i);
+            Point next = ring.get((i + 1) % m);
+            double e1x = vertex.getLng() - prev.getLng();
+            double e1y = vertex.getLat() - prev.getLat();
+            double e2x = next.getLng() - vertex.getLng();
+            double e2y = next.getLat() - vertex.getLat();
+
+            // reflex corners are never on a shortest route
+            if ((e1x * e2y - e1y * e2x) * orientation <= 0) {
+                continue;
+            }
+
+            // outward normals of both edges; the outside is on the right of a counter-clockwise edge
+            double l1 = Math.hypot(e1x, e1y);
+            double l2 = Math.hypot(e2x, e2y);
+            double nx = (e1y / l1 + e2y / l2) * orientation;
+            double ny = (-e1x / l1 - e2x / l2) * orientation;
+            double length = Math.hypot(nx, ny);
+            if (length < 1e-9) {
+                continue;
+            }
+            // this offset keeps the waypoint exactly clearance away from both edges' lines
+            double offset = Math.min(2 * clearance / length, MAX_OFFSET_CLEARANCES * clearance);
+            double x = vertex.getLng() + nx / length * offset;
+            double y = vertex.getLat() + ny / length * offset;
+            if (!obstacles.contains(x, y)) {
+                waypoints.add(new double[]{x, y});
+            }
+        }
+    }
+
+    private static boolean samePosition(Point a, Point b) {
+        // the coordinates are boxed, so compare their values rather than the references
+        return a.getLng().doubleValue() == b.getLng().doubleValue() && a.getLat().doubleValue() == b.getLat().doubleValue();
+    }
+
+    int size() {
+        return xs.length;
+    }
+
+    /**
+     * Finds the shortest route from start to goal through visible waypoints, with Dijkstra's
+     * algorithm over the dense graph.
+     *
+     * @return the route's positions as {@code {lng, lat}} pairs, from start to goal; {@code null} if there is none
+     */
+    List<double[]> route(double startLng, double startLat, double goalLng, double goalLat, ObstacleMap obstacles) {
+        int n = xs.length;
+        int start = n;
+        int goal = n + 1;
+        double[] startLengths = new double[n + 2];
+        double[] goalLengths = new double[n + 2];
+        Arrays.fill(startLengths, Double.POSITIVE_INFINITY);
+        Arrays.fill(goalLengths, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            if (!obstacles.moveBlocked(startLng, startLat, xs[i], ys[i])) {
+                startLengths[i] = distance(startLng, startLat, xs[i], ys[i]);
+            }
+            if (!obstacles.moveBlocked(xs[i], ys[i], goalLng, goalLat)) {
+                goalLengths[i] = distance(xs[i], ys[i], goalLng, goalLat);
+            }
+        }
+        if (!obstacles.moveBlocked(startLng, startLat, goalLng, goalLat)) {
+            startLengths[goal] = distance(startLng, startLat, goalLng, goalLat);
+        }
+
+        double[] best = new double[n + 2];
+        int[] previous = new int[n + 2];
+        boolean[] done = new boolean[n + 2];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+        best[start] = 0;
+
+        while (true) {
+            int current = -1;
+            for (int i = 0; i < n + 2; i++) {
+                if (!done[i] && best[i] < Double.POSITIVE_INFINITY && (current < 0 || best[i] < best[current])) {
+                    current = i;
+                }
+            }
+            if (current < 0) {
+                return null;
+            }
+            if (current == goal) {
+                break;
+            }
+            done[current] = true;
+
+            for (int next = 0; next < n + 2; next++) {
+                if (done[next]) {
+                    continue;
+                }
+                double length;
+                if (current == start) {
+                    length = startLengths[next];
+                } else if (next == goal) {
+                    length = goalLengths[current];
+                } else if (next == start) {
+                    continue;
+                } else {
+                    length = lengths[current * n + next];
+                }
+                if (best[current] + length < best[next]) {
+                    best[next] = best[current] + length;
+                    previous[next] = current;
+                }
+            }
+        }
+
+        List<double[]> route = new ArrayList<>();
+        for (int node = goal; node >= 0; node = previous[node]) {
+            if (node == start) {
+                route.add(new double[]{startLng, startLat});
+            } else if (node == goal) {
+                route.add(new double[]{goalLng, goalLat});
+            } else {
+                route.add(new double[]{xs[node], ys[node]});
+            }
+        }
+        return route.reversed();
+    }
+
+    private static double distance(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
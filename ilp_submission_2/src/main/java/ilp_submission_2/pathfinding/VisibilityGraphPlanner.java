@@ -0,0 +1,117 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link PathPlanner} that routes over a {@link VisibilityGraph} of the restricted areas' corners and
+ * then flies each straight segment of the route as compass moves.
+ * <p>
+ * The graph is built once per obstacle map, i.e. once per restricted-areas version, and shared by all
+ * searches. Each segment is turned into moves with the same construction as {@link StraightLinePlanner},
+ * starting from wherever the previous segment's moves ended, and flown straight to the furthest later
+ * waypoint it can reach without touching an area. As snapping to compass directions lets the flown path
+ * stray slightly from the route, every move is checked against the obstacle map afterwards; if any is
+ * blocked, or no route exists, the leg is handed to the fallback planner.
+ * <p>
+ * Routes are shortest in distance, and where the areas are at least two clearances apart the flown path
+ * takes at most three moves more than the fewest the lattice search would find. Gaps narrower than that
+ * have no waypoints and are routed around, so paths through them can be considerably longer.
+ */
+public class VisibilityGraphPlanner implements PathPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(VisibilityGraphPlanner.class);
+    /**
+     * How far, in moves, waypoints are kept from the corners they go around.
+     * */
+    private static final double CLEARANCE_MOVES = 1;
+
+    private record Graph(ObstacleMap obstacles, VisibilityGraph graph) {}
+
+    private final PathPlanner fallback;
+    private final StraightLinePlanner segments;
+    private final double clearance;
+    private final AtomicReference<Graph> latest = new AtomicReference<>();
+
+    public VisibilityGraphPlanner(PathPlanner fallback, double stepSize) {
+        this.fallback = fallback;
+        this.segments = new StraightLinePlanner(fallback, stepSize);
+        this.clearance = CLEARANCE_MOVES * stepSize;
+    }
+
+    @Override
+    public List<Point> plan(Point start, Point goal, ObstacleMap obstacles) {
+        if (obstacles.contains(goal.getLng(), goal.getLat())) {
+            return new ArrayList<>();
+        }
+
+        List<double[]> route = graphFor(obstacles).route(start.getLng(), start.getLat(), goal.getLng(), goal.getLat(), obstacles);
+        if (route != null) {
+            List<Point> path = fly(route, obstacles);
+            if (path != null && clear(path, obstacles)) {
+                return path;
+            }
+        }
+        logger.debug("No flyable visibility route from {} to {}, searching the lattice", start, goal);
+        return fallback.plan(start, goal, obstacles);
+    }
+
+    private VisibilityGraph graphFor(ObstacleMap obstacles) {
+        Graph graph = latest.get();
+        if (graph == null || graph.obstacles() != obstacles) {
+            graph = new Graph(obstacles, new VisibilityGraph(obstacles, clearance));
+            latest.set(graph);
+        }
+        return graph.graph();
+    }
+
+    /**
+     * Flies the route from each position reached to the furthest later waypoint that can be flown to
+     * straight, so corners the snapped moves have already cleared are skipped.
+     *
+     * @return the moves along the route, or {@code null} if a segment could not be built
+     */
+    private List<Point> fly(List<double[]> route, ObstacleMap obstacles) {
+        List<Point> path = new ArrayList<>();
+        double[] first = route.getFirst();
+        path.add(Point.builder().lng(first[0]).lat(first[1]).build());
+        int next = 1;
+        while (next < route.size()) {
+            Point from = path.getLast();
+            List<Point> segment = null;
+            int reached = next;
+            for (int k = route.size() - 1; k > next && segment == null; k--) {
+                List<Point> shortcut = segments.straightPath(from.getLng(), from.getLat(), route.get(k)[0], route.get(k)[1]);
+                if (shortcut != null && clear(shortcut, obstacles)) {
+                    segment = shortcut;
+                    reached = k;
+                }
+            }
+            if (segment == null) {
+                // the next segment as routed; whether its moves are clear is checked afterwards
+                segment = segments.straightPath(from.getLng(), from.getLat(), route.get(next)[0], route.get(next)[1]);
+                if (segment == null) {
+                    return null;
+                }
+            }
+            path.addAll(segment.subList(1, segment.size()));
+            next = reached + 1;
+        }
+        return path;
+    }
+
+    private static boolean clear(List<Point> path, ObstacleMap obstacles) {
+        for (int i = 1; i < path.size(); i++) {
+            Point from = path.get(i - 1);
+            Point to = path.get(i);
+            if (obstacles.moveBlocked(from.getLng(), from.getLat(), to.getLng(), to.getLat())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package ilp_submission_2.referencedata;
+
+/**
+ * Result of a conditional fetch of one reference collection.
+ *
+ * @param modified  false if the collection is unchanged since the validator passed in
+ * @param values    the deserialized collection if it was modified, otherwise {@code null}
+ * @param validator the validator to pass in on the next fetch
+ */
+public record CollectionFetch(boolean modified, Object[] values, CollectionValidator validator) {
+    public static CollectionFetch modified(Object[] values, CollectionValidator validator) {
+        return new CollectionFetch(true, values, validator);
+    }
+
+    public static CollectionFetch unchanged(CollectionValidator validator) {
+        return new CollectionFetch(false, null, validator);
+    }
+}
@@ -0,0 +1,20 @@
+package ilp_submission_2.referencedata;
+
+/**
+ * What is known about the last fetched version of a reference collection, used to tell whether it changed.
+ *
+ * @param etag         the {@code ETag} the upstream sent, {@code null} if none
+ * @param lastModified the {@code Last-Modified} the upstream sent, {@code null} if none
+ * @param contentHash  hash of the raw body, compared when the upstream does not support conditional requests
+ * @param fileStamp    modification time and size of the file a local source read, {@code null} for upstream collections
+ */
+public record CollectionValidator(String etag, String lastModified, String contentHash, String fileStamp) {
+    private static final CollectionValidator NONE = new CollectionValidator(null, null, null, null);
+
+    /**
+     * @return the validator of a collection that has never been fetched
+     */
+    public static CollectionValidator none() {
+        return NONE;
+    }
+}
@@ -0,0 +1,218 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.upstream.SingleFlight;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A bounded LRU cache of values computed from reference data.
+ * <p>
+ * Every cache declares the {@link ReferenceCollection}s its values are derived from. Each entry is
+ * stamped with the latest version in which any of those collections changed; when a new snapshot
+ * changes one of them the cache is purged, while snapshots that only change other collections
+ * leave it untouched. A lookup against a snapshot whose stamp differs from the entry's is a miss,
+ * so a request can never be answered from data it did not start with.
+ * <p>
+ * Concurrent misses for the same key and stamp share one computation, so every snapshot gets exactly
+ * one value per key, and consumers that recognise values by identity see the same instance.
+ * <p>
+ * Repairable caches keep their entries across such changes instead, for lookups that can bring a
+ * value from an older snapshot up to date more cheaply than computing it afresh; see
+ * {@link #get(Object, ReferenceDataSnapshot, Function, Predicate, Repair)}. Without a repair those
+ * entries are misses like any other.
+ *
+ * @param <K> the key type
+ * @param <V> the value type; values are shared between callers and must not be modified
+ */
+public class DerivedCache<K, V> {
+    /**
+     * @param snapshot the snapshot the value was computed from, kept by repairable caches only so that
+     *                 the others do not hold on to old snapshots
+     */
+    private record Entry<V>(long stamp, ReferenceDataSnapshot snapshot, V value) {}
+
+    private record Load<K>(K key, long stamp) {}
+
+    /**
+     * Brings a value computed from an older snapshot up to date.
+     *
+     * @param <V> the value type
+     */
+    @FunctionalInterface
+    public interface Repair<V> {
+        /**
+         * @param stale        the value computed from {@code computedFrom}; must not be modified
+         * @param computedFrom the snapshot {@code stale} was computed from
+         * @return the value as of the snapshot being looked up, or {@code null} to compute it afresh
+         */
+        V repair(V stale, ReferenceDataSnapshot computedFrom);
+    }
+
+    private final String name;
+    private final Set<ReferenceCollection> dependencies;
+    private final boolean repairable;
+    private final Map<K, Entry<V>> entries;
+    private final SingleFlight<Load<K>, V> loads = new SingleFlight<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder repairs = new LongAdder();
+
+    DerivedCache(String name, Set<ReferenceCollection> dependencies, int maxEntries) {
+        this(name, dependencies, maxEntries, false);
+    }
+
+    /**
+     * @param repairable whether entries outlive changes to their dependencies, until evicted or repaired
+     */
+    DerivedCache(String name, Set<ReferenceCollection> dependencies, int maxEntries, boolean repairable) {
+        this.name = name;
+        this.dependencies = Collections.unmodifiableSet(EnumSet.copyOf(dependencies));
+        this.repairable = repairable;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for {@code key} as of {@code snapshot}, computing it if absent.
+     *
+     * @param key      the key
+     * @param snapshot the snapshot the caller is working against
+     * @param loader   computes the value on a miss; must only read the given snapshot
+     * @return the cached or computed value
+     */
+    public V get(K key, ReferenceDataSnapshot snapshot, Function<K, V> loader) {
+        return get(key, snapshot, loader, value -> true);
+    }
+
+    /**
+     * Like {@link #get(Object, ReferenceDataSnapshot, Function)}, but only keeps computed values that
+     * pass {@code retain}, e.g. to avoid caching results that may have been cut short.
+     */
+    public V get(K key, ReferenceDataSnapshot snapshot, Function<K, V> loader, Predicate<? super V> retain) {
+        return get(key, snapshot, loader, retain, null);
+    }
+
+    /**
+     * Like {@link #get(Object, ReferenceDataSnapshot, Function, Predicate)}, but an entry computed from an
+     * older snapshot is first handed to {@code repair}; only if that gives up is {@code loader} called.
+     * Repaired values are kept if they pass {@code retain}, like computed ones.
+     *
+     * @param repair brings an older entry up to date; {@code null} to always compute on a miss
+     */
+    public V get(K key, ReferenceDataSnapshot snapshot, Function<K, V> loader, Predicate<? super V> retain, Repair<V> repair) {
+        long stamp = stampOf(snapshot);
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.stamp() == stamp) {
+                hits.increment();
+                return entry.value();
+            }
+        }
+
+        boolean[] computed = new boolean[1];
+        V value = loads.execute(new Load<>(key, stamp), () -> {
+            computed[0] = true;
+            return load(key, stamp, snapshot, loader, retain, repair);
+        });
+        if (!computed[0]) {
+            // shared another caller's computation
+            hits.increment();
+        }
+        return value;
+    }
+
+    private V load(K key, long stamp, ReferenceDataSnapshot snapshot, Function<K, V> loader,
+                   Predicate<? super V> retain, Repair<V> repair) {
+        Entry<V> stale = null;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            // a computation for this stamp may have finished since the caller looked
+            if (entry != null && entry.stamp() == stamp) {
+                hits.increment();
+                return entry.value();
+            }
+            if (entry != null && entry.stamp() < stamp && entry.snapshot() != null) {
+                stale = entry;
+            }
+        }
+
+        V value = null;
+        if (stale != null && repair != null) {
+            value = repair.repair(stale.value(), stale.snapshot());
+        }
+        if (value != null) {
+            repairs.increment();
+        } else {
+            misses.increment();
+            value = loader.apply(key);
+        }
+        if (!retain.test(value)) {
+            return value;
+        }
+        synchronized (entries) {
+            Entry<V> existing = entries.get(key);
+            // never let a request still working on an older snapshot overwrite a newer entry
+            if (existing != null && existing.stamp() == stamp) {
+                return existing.value();
+            }
+            if (existing == null || existing.stamp() < stamp) {
+                entries.put(key, new Entry<>(stamp, repairable ? snapshot : null, value));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops every entry derived from collections that changed between the two snapshots; repairable
+     * caches keep them for repair and only count them.
+     */
+    void onSnapshotChanged(ReferenceDataSnapshot previous, ReferenceDataSnapshot next) {
+        long stamp = stampOf(next);
+        if (stamp == stampOf(previous)) {
+            return;
+        }
+
+        synchronized (entries) {
+            if (repairable) {
+                // entries left over from earlier changes were counted then
+                long previousStamp = stampOf(previous);
+                invalidations.add(entries.values().stream()
+                        .filter(entry -> entry.stamp() >= previousStamp && entry.stamp() < stamp)
+                        .count());
+                return;
+            }
+            int before = entries.size();
+            entries.values().removeIf(entry -> entry.stamp() < stamp);
+            invalidations.add(before - entries.size());
+        }
+    }
+
+    private long stampOf(ReferenceDataSnapshot snapshot) {
+        long stamp = 0;
+        for (ReferenceCollection collection : dependencies) {
+            stamp = Math.max(stamp, snapshot.collectionVersion(collection));
+        }
+        return stamp;
+    }
+
+    /**
+     * @return hit, miss, invalidation and repair counters of this cache
+     */
+    public DerivedCacheStatistics statistics() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new DerivedCacheStatistics(name, dependencies, size, hits.sum(), misses.sum(), invalidations.sum(),
+                repairs.sum());
+    }
+}
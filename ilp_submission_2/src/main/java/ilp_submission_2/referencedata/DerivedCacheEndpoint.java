@@ -0,0 +1,23 @@
+package ilp_submission_2.referencedata;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint exposing the statistics of every {@link DerivedCache} at {@code /actuator/derivedcaches}.
+ */
+@Endpoint(id = "derivedcaches")
+public class DerivedCacheEndpoint {
+    private final ReferenceDataService referenceData;
+
+    public DerivedCacheEndpoint(ReferenceDataService referenceData) {
+        this.referenceData = referenceData;
+    }
+
+    @ReadOperation
+    public List<DerivedCacheStatistics> statistics() {
+        return referenceData.derivedCacheStatistics();
+    }
+}
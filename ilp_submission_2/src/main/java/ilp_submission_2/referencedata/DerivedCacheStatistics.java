@@ -0,0 +1,24 @@
+package ilp_submission_2.referencedata;
+
+import java.util.Set;
+
+/**
+ * Point-in-time counters of a {@link DerivedCache}.
+ *
+ * @param name          the cache name
+ * @param dependencies  the collections the cache is derived from
+ * @param size          entries currently held
+ * @param hits          lookups answered from the cache
+ * @param misses        lookups that had to compute their value
+ * @param invalidations entries dropped, or left for repair, because a collection they depend on changed
+ * @param repairs       lookups answered by repairing an entry computed from an older snapshot
+ */
+public record DerivedCacheStatistics(
+        String name,
+        Set<ReferenceCollection> dependencies,
+        int size,
+        long hits,
+        long misses,
+        long invalidations,
+        long repairs
+) {}
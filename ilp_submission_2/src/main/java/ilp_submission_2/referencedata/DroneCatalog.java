@@ -0,0 +1,148 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.*;
+
+import java.util.*;
+
+/**
+ * Hash indexes over one snapshot's drones and service points.
+ * <p>
+ * Built once per reference data load so that availability checks and path planning
+ * can look drones and service points up in O(1) instead of scanning the raw collections.
+ * Drone capabilities are also laid out in {@link DroneColumns} for the query endpoints.
+ */
+public final class DroneCatalog {
+    private static final DroneCatalog EMPTY = new DroneCatalog(Map.of(), Map.of(), Map.of(), Map.of(), DroneColumns.empty());
+
+    private final Map<String, Drone> dronesById;
+    private final Map<String, List<Integer>> servicePointIdsByDrone;
+    private final Map<Integer, Point> servicePointLocations;
+    private final Map<Integer, Integer> maxMovesByServicePoint;
+    private final DroneColumns columns;
+
+    private DroneCatalog(Map<String, Drone> dronesById,
+                         Map<String, List<Integer>> servicePointIdsByDrone,
+                         Map<Integer, Point> servicePointLocations,
+                         Map<Integer, Integer> maxMovesByServicePoint,
+                         DroneColumns columns) {
+        this.dronesById = dronesById;
+        this.servicePointIdsByDrone = servicePointIdsByDrone;
+        this.servicePointLocations = servicePointLocations;
+        this.maxMovesByServicePoint = maxMovesByServicePoint;
+        this.columns = columns;
+    }
+
+    public static DroneCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the indexes. If the same drone id appears twice, the first occurrence wins,
+     * which matches the previous linear-scan lookup.
+     */
+    public static DroneCatalog build(List<Drone> drones,
+                                     List<DroneServicePoint> servicePoints,
+                                     List<DroneForServicePoint> dronesForServicePoints) {
+        Map<String, Drone> dronesById = new HashMap<>();
+        for (Drone drone : drones) {
+            dronesById.putIfAbsent(drone.getId(), drone);
+        }
+
+        Map<Integer, Point> servicePointLocations = new HashMap<>();
+        for (DroneServicePoint servicePoint : servicePoints) {
+            LngLatAlt location = servicePoint.getLocation();
+            if (location == null) {
+                continue;
+            }
+            servicePointLocations.putIfAbsent(servicePoint.getId(),
+                    Point.builder().lng(location.getLng()).lat(location.getLat()).build());
+        }
+
+        Map<String, List<Integer>> servicePointIdsByDrone = new HashMap<>();
+        Map<Integer, Integer> maxMovesByServicePoint = new TreeMap<>();
+        for (DroneForServicePoint droneForServicePoint : dronesForServicePoints) {
+            if (droneForServicePoint.getDrones() == null) {
+                continue;
+            }
+            for (DronesAvailability dronesAvailability : droneForServicePoint.getDrones()) {
+                servicePointIdsByDrone
+                        .computeIfAbsent(dronesAvailability.getId(), k -> new ArrayList<>())
+                        .add(droneForServicePoint.getServicePointId());
+                Drone drone = dronesById.get(dronesAvailability.getId());
+                if (droneForServicePoint.getServicePointId() != null && drone != null
+                        && drone.getCapability() != null && drone.getCapability().getMaxMoves() != null) {
+                    maxMovesByServicePoint.merge(droneForServicePoint.getServicePointId(),
+                            drone.getCapability().getMaxMoves(), Math::max);
+                }
+            }
+        }
+        servicePointIdsByDrone.replaceAll((id, ids) -> List.copyOf(ids));
+
+        return new DroneCatalog(
+                Collections.unmodifiableMap(dronesById),
+                Collections.unmodifiableMap(servicePointIdsByDrone),
+                Collections.unmodifiableMap(servicePointLocations),
+                Collections.unmodifiableMap(maxMovesByServicePoint),
+                DroneColumns.build(drones));
+    }
+
+    /**
+     * @param id the drone ID
+     * @return the drone, or {@code null} if no drone has this ID
+     */
+    public Drone getDrone(String id) {
+        return dronesById.get(id);
+    }
+
+    /**
+     * @param droneId the drone ID
+     * @return IDs of the service points the drone is stationed at, in upstream order
+     */
+    public List<Integer> getServicePointIds(String droneId) {
+        return servicePointIdsByDrone.getOrDefault(droneId, List.of());
+    }
+
+    /**
+     * @param servicePointId the service point ID
+     * @return the service point's location, or {@code null} if it is unknown or has no location
+     */
+    public Point getServicePointLocation(int servicePointId) {
+        return servicePointLocations.get(servicePointId);
+    }
+
+    /**
+     * @return the locations of all service points with one, ordered by service point ID
+     */
+    public List<Point> getServicePointLocations() {
+        return new TreeMap<>(servicePointLocations).values().stream().toList();
+    }
+
+    /**
+     * @param servicePointId the service point ID
+     * @return the largest maximum moves among the drones stationed there, or 0 if it has none
+     */
+    public int getMaxMoves(int servicePointId) {
+        return maxMovesByServicePoint.getOrDefault(servicePointId, 0);
+    }
+
+    /**
+     * @return IDs of the service points with at least one drone of known maximum moves, in ascending order
+     */
+    public Set<Integer> getServicePointIdsWithDrones() {
+        return maxMovesByServicePoint.keySet();
+    }
+
+    /**
+     * @return the drones' capabilities in columnar form
+     */
+    public DroneColumns columns() {
+        return columns;
+    }
+
+    /**
+     * @return number of distinct drones in the catalog
+     */
+    public int size() {
+        return dronesById.size();
+    }
+}
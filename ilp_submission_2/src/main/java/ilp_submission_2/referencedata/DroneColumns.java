@@ -0,0 +1,226 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.Capabilities;
+import ilp_submission_2.dtos.Drone;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of one snapshot's drone capabilities.
+ * <p>
+ * Each numeric capability is held in a primitive array with a {@link BitSet} marking which drones
+ * have a value at all, and cooling and heating are plain bitsets. Queries scan one column with a
+ * primitive loop and produce a bitset of matching drone positions; conditions are combined by
+ * intersecting those bitsets. Large fleets are scanned in parallel over disjoint ranges of bitset
+ * words, so no two tasks ever write the same word.
+ * <p>
+ * Drone positions follow the order of {@code /drones}, so results list drones in the same order
+ * the previous stream-based scans did.
+ */
+public final class DroneColumns {
+    /**
+     * Fleets at least this large are scanned in parallel.
+     * */
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final int WORDS_PER_TASK = PARALLEL_THRESHOLD / Long.SIZE;
+
+    private static final DroneColumns EMPTY = build(List.of());
+
+    /**
+     * The numeric capabilities, by their JSON attribute name.
+     */
+    public enum NumericAttribute {
+        CAPACITY("capacity"),
+        MAX_MOVES("maxMoves"),
+        COST_PER_MOVE("costPerMove"),
+        COST_INITIAL("costInitial"),
+        COST_FINAL("costFinal");
+
+        private final String attributeName;
+
+        NumericAttribute(String attributeName) {
+            this.attributeName = attributeName;
+        }
+
+        /**
+         * @return the attribute with this name, or {@code null} if the name is not a numeric capability
+         */
+        public static NumericAttribute byName(String attributeName) {
+            for (NumericAttribute attribute : values()) {
+                if (attribute.attributeName.equals(attributeName)) {
+                    return attribute;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final int size;
+    private final String[] ids;
+    private final double[][] numeric;
+    private final BitSet[] present;
+    private final BitSet cooling;
+    private final BitSet heating;
+
+    private DroneColumns(String[] ids, double[][] numeric, BitSet[] present, BitSet cooling, BitSet heating) {
+        this.size = ids.length;
+        this.ids = ids;
+        this.numeric = numeric;
+        this.present = present;
+        this.cooling = cooling;
+        this.heating = heating;
+    }
+
+    public static DroneColumns empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the columns. Drones without a capability object are treated as having none of the capabilities.
+     */
+    public static DroneColumns build(List<Drone> drones) {
+        int size = drones.size();
+        int attributes = NumericAttribute.values().length;
+        String[] ids = new String[size];
+        double[][] numeric = new double[attributes][size];
+        BitSet[] present = new BitSet[attributes];
+        for (int a = 0; a < attributes; a++) {
+            present[a] = new BitSet(size);
+        }
+        BitSet cooling = new BitSet(size);
+        BitSet heating = new BitSet(size);
+
+        for (int i = 0; i < size; i++) {
+            Drone drone = drones.get(i);
+            ids[i] = drone.getId();
+            Capabilities capability = drone.getCapability();
+            if (capability == null) {
+                continue;
+            }
+
+            cooling.set(i, Boolean.TRUE.equals(capability.getCooling()));
+            heating.set(i, Boolean.TRUE.equals(capability.getHeating()));
+            set(numeric, present, NumericAttribute.CAPACITY, i, capability.getCapacity());
+            set(numeric, present, NumericAttribute.MAX_MOVES, i, capability.getMaxMoves());
+            set(numeric, present, NumericAttribute.COST_PER_MOVE, i, capability.getCostPerMove());
+            set(numeric, present, NumericAttribute.COST_INITIAL, i, capability.getCostInitial());
+            set(numeric, present, NumericAttribute.COST_FINAL, i, capability.getCostFinal());
+        }
+        return new DroneColumns(ids, numeric, present, cooling, heating);
+    }
+
+    private static void set(double[][] numeric, BitSet[] present, NumericAttribute attribute, int i, Number value) {
+        if (value != null) {
+            numeric[attribute.ordinal()][i] = value.doubleValue();
+            present[attribute.ordinal()].set(i);
+        }
+    }
+
+    /**
+     * @return number of drones, counting duplicates
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a bitset with every drone position set
+     */
+    public BitSet all() {
+        BitSet all = new BitSet(size);
+        all.set(0, size);
+        return all;
+    }
+
+    /**
+     * @return positions of the drones whose cooling flag equals {@code expected}; a missing flag counts as false
+     */
+    public BitSet withCooling(boolean expected) {
+        return flag(cooling, expected);
+    }
+
+    /**
+     * @return positions of the drones whose heating flag equals {@code expected}; a missing flag counts as false
+     */
+    public BitSet withHeating(boolean expected) {
+        return flag(heating, expected);
+    }
+
+    private BitSet flag(BitSet column, boolean expected) {
+        BitSet result = (BitSet) column.clone();
+        if (!expected) {
+            result.flip(0, size);
+        }
+        return result;
+    }
+
+    /**
+     * Scans a numeric column.
+     *
+     * @param attribute the column
+     * @param operator  one of {@code = != < > <= >=}; any other operator matches nothing
+     * @param value     the value to compare against
+     * @return positions of the drones that have the attribute and satisfy the comparison
+     */
+    public BitSet compare(NumericAttribute attribute, String operator, double value) {
+        double[] column = numeric[attribute.ordinal()];
+        IntPredicate test = switch (operator) {
+            case "=" -> i -> column[i] == value;
+            case "!=" -> i -> column[i] != value;
+            case "<" -> i -> column[i] < value;
+            case ">" -> i -> column[i] > value;
+            case ">=" -> i -> column[i] >= value;
+            case "<=" -> i -> column[i] <= value;
+            case null, default -> null;
+        };
+        if (test == null) {
+            return new BitSet();
+        }
+
+        BitSet result = scan(test);
+        result.and(present[attribute.ordinal()]);
+        return result;
+    }
+
+    private BitSet scan(IntPredicate test) {
+        long[] words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        if (size < PARALLEL_THRESHOLD) {
+            scanWords(test, words, 0, words.length);
+        } else {
+            int tasks = (words.length + WORDS_PER_TASK - 1) / WORDS_PER_TASK;
+            IntStream.range(0, tasks).parallel().forEach(task -> scanWords(test, words,
+                    task * WORDS_PER_TASK, Math.min(words.length, (task + 1) * WORDS_PER_TASK)));
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private void scanWords(IntPredicate test, long[] words, int fromWord, int toWord) {
+        for (int w = fromWord; w < toWord; w++) {
+            long word = 0;
+            int base = w * Long.SIZE;
+            int end = Math.min(size, base + Long.SIZE);
+            for (int i = base; i < end; i++) {
+                if (test.test(i)) {
+                    word |= 1L << (i - base);
+                }
+            }
+            words[w] = word;
+        }
+    }
+
+    /**
+     * @return the IDs of the drones at the set positions, in position order
+     */
+    public List<String> ids(BitSet positions) {
+        List<String> result = new ArrayList<>(positions.cardinality());
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            result.add(ids[i]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,118 @@
+package ilp_submission_2.referencedata;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads reference collections from a local snapshot directory instead of the ILP service.
+ * <p>
+ * The directory holds one file per collection, named as in {@link ReferenceCollection#getFileName()}.
+ * Files are parsed with Jackson's streaming parser one element at a time, so no intermediate tree
+ * is built; files larger than {@link #MAP_THRESHOLD_BYTES} are memory-mapped rather than read
+ * through a stream. A file whose modification time and size are unchanged since the last
+ * fetch is not parsed again.
+ */
+public class FileReferenceDataSource implements ReferenceDataSource {
+    static final long MAP_THRESHOLD_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public FileReferenceDataSource(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the snapshot directory being read
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] fetch(ReferenceCollection collection) {
+        Path file = directory.resolve(collection.getFileName());
+        Class<?> elementType = collection.getArrayType().getComponentType();
+
+        try (InputStream in = open(file); JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalStateException(file + " does not contain a JSON array");
+            }
+
+            List<Object> elements = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                elements.add(parser.readValueAs(elementType));
+            }
+            return elements.toArray((T[]) Array.newInstance(elementType, elements.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read reference data from " + file, e);
+        }
+    }
+
+    @Override
+    public CollectionFetch fetchIfChanged(ReferenceCollection collection, CollectionValidator previous) {
+        Path file = directory.resolve(collection.getFileName());
+        String stamp;
+        try {
+            stamp = Files.getLastModifiedTime(file).toMillis() + "/" + Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read reference data from " + file, e);
+        }
+
+        CollectionValidator validator = new CollectionValidator(null, null, null, stamp);
+        if (stamp.equals(previous.fileStamp())) {
+            return CollectionFetch.unchanged(validator);
+        }
+        return CollectionFetch.modified(fetch(collection), validator);
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        if (Files.size(file) < MAP_THRESHOLD_BYTES) {
+            return new BufferedInputStream(Files.newInputStream(file));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.Drone;
+import ilp_submission_2.dtos.DroneForServicePoint;
+import ilp_submission_2.dtos.DroneServicePoint;
+import ilp_submission_2.dtos.RestrictedArea;
+
+/**
+ * The reference collections published by the ILP service.
+ * <p>
+ * Each collection knows the upstream path it is served from and the array type it deserializes into.
+ */
+public enum ReferenceCollection {
+    DRONES("/drones", Drone[].class),
+    SERVICE_POINTS("/service-points", DroneServicePoint[].class),
+    DRONES_FOR_SERVICE_POINTS("/drones-for-service-points", DroneForServicePoint[].class),
+    RESTRICTED_AREAS("/restricted-areas", RestrictedArea[].class);
+
+    private final String path;
+    private final Class<?> arrayType;
+
+    ReferenceCollection(String path, Class<?> arrayType) {
+        this.path = path;
+        this.arrayType = arrayType;
+    }
+
+    /**
+     * @return the path of this collection relative to the ILP endpoint, e.g. {@code /drones}
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the file this collection is stored in inside a snapshot directory, e.g. {@code drones.json}
+     */
+    public String getFileName() {
+        return path.substring(1) + ".json";
+    }
+
+    /**
+     * @return the array type the upstream payload is deserialized into
+     */
+    public Class<?> getArrayType() {
+        return arrayType;
+    }
+}
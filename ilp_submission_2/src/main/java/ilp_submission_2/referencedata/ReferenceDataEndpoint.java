@@ -0,0 +1,46 @@
+package ilp_submission_2.referencedata;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint at {@code /actuator/referencedata}.
+ * <p>
+ * A read returns the state of the snapshot being served; a write (POST) exports that snapshot
+ * to {@code ilp.reference_data.export_dir}, from where it can be served offline by pointing
+ * {@code ilp.reference_data.snapshot_dir} at it.
+ */
+@Endpoint(id = "referencedata")
+public class ReferenceDataEndpoint {
+    private final ReferenceDataService referenceData;
+    private final ReferenceDataSnapshotWriter writer;
+    private final Path exportDirectory;
+
+    public ReferenceDataEndpoint(ReferenceDataService referenceData, ReferenceDataSnapshotWriter writer, Path exportDirectory) {
+        this.referenceData = referenceData;
+        this.writer = writer;
+        this.exportDirectory = exportDirectory;
+    }
+
+    @ReadOperation
+    public ReferenceDataStatus status() {
+        return referenceData.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> export() {
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        List<Path> files = writer.write(snapshot, exportDirectory);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("version", snapshot.version());
+        result.put("files", files.stream().map(Path::toString).toList());
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.upstream.CircuitBreaker;
+import ilp_submission_2.upstream.IlpUpstreamClient;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Reports the reference data snapshot under {@code /actuator/health}.
+ * <p>
+ * {@code UP} while the snapshot is fresh and the upstream circuit is closed, {@code DEGRADED}
+ * while a stale snapshot is being served because the upstream is failing, and {@code DOWN}
+ * if no snapshot was ever loaded, in which case requests needing reference data are rejected.
+ */
+public class ReferenceDataHealthIndicator implements HealthIndicator {
+    public static final Status DEGRADED = new Status("DEGRADED", "Serving stale reference data");
+
+    private final ReferenceDataService referenceData;
+    private final IlpUpstreamClient client;
+
+    public ReferenceDataHealthIndicator(ReferenceDataService referenceData, IlpUpstreamClient client) {
+        this.referenceData = referenceData;
+        this.client = client;
+    }
+
+    @Override
+    public Health health() {
+        ReferenceDataStatus status = referenceData.status();
+        CircuitBreaker.State circuit = client.circuitState();
+
+        Health.Builder health;
+        if (!status.isAvailable()) {
+            health = Health.down();
+        } else if (status.isDegraded() || circuit != CircuitBreaker.State.CLOSED) {
+            health = Health.status(DEGRADED);
+        } else {
+            health = Health.up();
+        }
+
+        health.withDetail("snapshotVersion", status.snapshotVersion())
+                .withDetail("circuit", circuit.name())
+                .withDetail("consecutiveFailures", status.consecutiveFailures());
+        if (status.loadedAt() != null) {
+            health.withDetail("snapshotAgeSeconds", Duration.between(status.loadedAt(), Instant.now()).toSeconds());
+        }
+        if (status.lastError() != null) {
+            health.withDetail("lastFailureAt", status.lastFailureAt().toString())
+                    .withDetail("lastError", status.lastError());
+        }
+        return health.build();
+    }
+}
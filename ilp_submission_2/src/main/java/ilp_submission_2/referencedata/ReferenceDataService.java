@@ -0,0 +1,232 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.upstream.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link ReferenceDataSnapshot} and replaces it on a schedule.
+ * <p>
+ * Readers always get a complete snapshot: a refresh builds the new snapshot off to the side
+ * and swaps it in atomically, so a request never sees a mix of old and new collections.
+ * The collections are fetched in parallel, and if a refresh fails the previous snapshot stays in place.
+ * Concurrent refreshes, e.g. many requests arriving before the first load has finished, share a
+ * single load instead of each going upstream.
+ * <p>
+ * Refreshes are conditional: collections the source reports as unchanged are neither deserialized
+ * nor re-indexed, and if nothing changed at all the current snapshot, and its version, are kept.
+ * <p>
+ * {@link DerivedCache}s created here are told about every new snapshot and purge only what
+ * was derived from the collections that actually changed.
+ * <p>
+ * While the upstream is failing the last good snapshot keeps being served and the service reports
+ * itself as degraded; a recovery probe retries on a shorter interval than the regular refresh until
+ * a load succeeds again. Only when no snapshot was ever loaded do reads fail, with a
+ * {@link ReferenceDataUnavailableException}.
+ */
+public class ReferenceDataService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataService.class);
+    private static final String REFRESH = "refresh";
+
+    private final UpstreamFetchOrchestrator orchestrator;
+    private final AtomicReference<ReferenceDataSnapshot> current = new AtomicReference<>(ReferenceDataSnapshot.empty());
+    private final SingleFlight<String, ReferenceDataSnapshot> refreshes = new SingleFlight<>();
+    private final List<DerivedCache<?, ?>> derivedCaches = new CopyOnWriteArrayList<>();
+
+    private volatile Map<ReferenceCollection, CollectionValidator> validators = initialValidators();
+    private volatile int consecutiveFailures;
+    private volatile Instant lastFailureAt;
+    private volatile String lastError;
+
+    public ReferenceDataService(ReferenceDataSource source) {
+        this.orchestrator = new UpstreamFetchOrchestrator(source);
+    }
+
+    /**
+     * @param source          where the collections are fetched from
+     * @param refreshDeadline upper bound on one complete refresh; slower refreshes are abandoned
+     */
+    public ReferenceDataService(ReferenceDataSource source, Duration refreshDeadline) {
+        this.orchestrator = new UpstreamFetchOrchestrator(source, refreshDeadline);
+    }
+
+    /**
+     * Returns the current snapshot.
+     * <p>
+     * If nothing has been loaded yet, the caller loads the first snapshot synchronously.
+     *
+     * @return the current snapshot
+     * @throws ReferenceDataUnavailableException if no snapshot was ever loaded and loading one fails
+     */
+    public ReferenceDataSnapshot current() {
+        ReferenceDataSnapshot snapshot = current.get();
+        if (snapshot.isLoaded()) {
+            return snapshot;
+        }
+
+        try {
+            return refreshes.execute(REFRESH, () -> {
+                // another thread may have finished the first load since we looked
+                ReferenceDataSnapshot latest = current.get();
+                return latest.isLoaded() ? latest : load();
+            });
+        } catch (RuntimeException e) {
+            throw new ReferenceDataUnavailableException("No reference data available: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetches every reference collection that changed and swaps in a new snapshot.
+     * If a refresh is already running, waits for it and returns its result instead.
+     *
+     * @return the new snapshot, or the current one if nothing changed
+     * @throws RuntimeException if any collection could not be fetched; the previous snapshot is kept
+     */
+    public ReferenceDataSnapshot refresh() {
+        return refreshes.execute(REFRESH, this::load);
+    }
+
+    private ReferenceDataSnapshot load() {
+        Map<ReferenceCollection, CollectionFetch> fetched;
+        try {
+            fetched = orchestrator.fetchAllIfChanged(validators);
+        } catch (RuntimeException e) {
+            consecutiveFailures++;
+            lastFailureAt = Instant.now();
+            lastError = e.getMessage();
+            throw e;
+        }
+
+        Map<ReferenceCollection, CollectionValidator> nextValidators = new EnumMap<>(ReferenceCollection.class);
+        Map<ReferenceCollection, Object[]> changed = new EnumMap<>(ReferenceCollection.class);
+        fetched.forEach((collection, fetch) -> {
+            nextValidators.put(collection, fetch.validator());
+            if (fetch.modified()) {
+                changed.put(collection, fetch.values());
+            }
+        });
+
+        ReferenceDataSnapshot previous = current.get();
+        ReferenceDataSnapshot next = previous;
+        if (!previous.isLoaded() || !changed.isEmpty()) {
+            next = previous.withChanges(previous.version() + 1, changed);
+            current.set(next);
+            for (DerivedCache<?, ?> cache : derivedCaches) {
+                cache.onSnapshotChanged(previous, next);
+            }
+        }
+        validators = nextValidators;
+        if (consecutiveFailures > 0) {
+            logger.info("Reference data recovered after '{}' failed refreshes", consecutiveFailures);
+        }
+        consecutiveFailures = 0;
+
+        if (next == previous) {
+            logger.debug("Reference data unchanged, keeping snapshot version '{}'", next.version());
+        } else {
+            logger.info("Loaded reference data snapshot version '{}', changed: {}", next.version(), changed.keySet());
+        }
+        return next;
+    }
+
+    /**
+     * Background refresh, driven by {@code ilp.reference_data.refresh_interval_ms}.
+     * Failures are logged and the previous snapshot keeps being served.
+     */
+    @Scheduled(
+            initialDelayString = "${ilp.reference_data.initial_delay_ms:0}",
+            fixedDelayString = "${ilp.reference_data.refresh_interval_ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            logger.warn("Reference data refresh failed, keeping snapshot version '{}': {}",
+                    current.get().version(), e.getMessage());
+        }
+    }
+
+    /**
+     * Recovery probe, driven by {@code ilp.reference_data.recovery_probe_interval_ms}.
+     * Only goes upstream while the service is degraded or has never loaded a snapshot,
+     * so a healthy service is refreshed on the regular schedule alone.
+     */
+    @Scheduled(
+            initialDelayString = "${ilp.reference_data.recovery_probe_interval_ms:15000}",
+            fixedDelayString = "${ilp.reference_data.recovery_probe_interval_ms:15000}")
+    public void probeRecovery() {
+        ReferenceDataStatus status = status();
+        if (!status.isAvailable() || status.isDegraded()) {
+            scheduledRefresh();
+        }
+    }
+
+    /**
+     * Creates a cache of values derived from reference data, invalidated whenever one of
+     * {@code dependencies} changes.
+     *
+     * @param name         identifies the cache in statistics
+     * @param dependencies the collections the cached values are computed from
+     * @param maxEntries   bound on the number of entries, least recently used entries are evicted first
+     * @return the new cache
+     */
+    public <K, V> DerivedCache<K, V> createDerivedCache(String name, Set<ReferenceCollection> dependencies, int maxEntries) {
+        DerivedCache<K, V> cache = new DerivedCache<>(name, dependencies, maxEntries);
+        derivedCaches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Like {@link #createDerivedCache(String, Set, int)}, but entries outlive changes to
+     * {@code dependencies} so that lookups can repair them, see {@link DerivedCache.Repair}.
+     */
+    public <K, V> DerivedCache<K, V> createRepairableDerivedCache(String name, Set<ReferenceCollection> dependencies, int maxEntries) {
+        DerivedCache<K, V> cache = new DerivedCache<>(name, dependencies, maxEntries, true);
+        derivedCaches.add(cache);
+        return cache;
+    }
+
+    /**
+     * @return the statistics of every cache created through {@link #createDerivedCache(String, Set, int)}
+     * or {@link #createRepairableDerivedCache(String, Set, int)}
+     */
+    public List<DerivedCacheStatistics> derivedCacheStatistics() {
+        return derivedCaches.stream().map(DerivedCache::statistics).toList();
+    }
+
+    /**
+     * @return the current snapshot version, refresh failure state and how many refreshes were coalesced
+     */
+    public ReferenceDataStatus status() {
+        ReferenceDataSnapshot snapshot = current.get();
+        return new ReferenceDataStatus(
+                snapshot.version(),
+                snapshot.isLoaded() ? snapshot.loadedAt() : null,
+                consecutiveFailures,
+                lastFailureAt,
+                lastError,
+                refreshes.coalesced());
+    }
+
+    private static Map<ReferenceCollection, CollectionValidator> initialValidators() {
+        Map<ReferenceCollection, CollectionValidator> validators = new EnumMap<>(ReferenceCollection.class);
+        for (ReferenceCollection collection : ReferenceCollection.values()) {
+            validators.put(collection, CollectionValidator.none());
+        }
+        return validators;
+    }
+
+    @Override
+    public void close() {
+        orchestrator.close();
+    }
+}
@@ -0,0 +1,166 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.*;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Immutable, versioned view of all ILP reference data.
+ * <p>
+ * A snapshot is built once per load and never modified afterwards, so it can be shared freely
+ * between request threads. Restricted areas are additionally converted into {@link Region}s
+ * once, as that is the shape the path planner works with, and drones and service points
+ * are indexed in a {@link DroneCatalog}.
+ * <p>
+ * Each collection also records the snapshot version in which it last changed, so caches derived
+ * from a single collection can tell whether a new snapshot actually affects them.
+ *
+ * @param version                monotonically increasing version, {@code 0} means nothing has been loaded yet
+ * @param loadedAt               when the snapshot was built
+ * @param drones                 contents of {@code /drones}
+ * @param servicePoints          contents of {@code /service-points}
+ * @param dronesForServicePoints contents of {@code /drones-for-service-points}
+ * @param restrictedAreas        contents of {@code /restricted-areas}
+ * @param restrictedRegions      restricted areas converted into regions
+ * @param catalog                id indexes over drones and service points
+ * @param collectionVersions     the snapshot version in which each collection last changed
+ */
+public record ReferenceDataSnapshot(
+        long version,
+        Instant loadedAt,
+        List<Drone> drones,
+        List<DroneServicePoint> servicePoints,
+        List<DroneForServicePoint> dronesForServicePoints,
+        List<RestrictedArea> restrictedAreas,
+        List<Region> restrictedRegions,
+        DroneCatalog catalog,
+        Map<ReferenceCollection, Long> collectionVersions
+) {
+    private static final ReferenceDataSnapshot EMPTY = new ReferenceDataSnapshot(
+            0, Instant.EPOCH, List.of(), List.of(), List.of(), List.of(), List.of(), DroneCatalog.empty(), versionsOf(0));
+
+    /**
+     * @return the placeholder snapshot used before the first successful load
+     */
+    public static ReferenceDataSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a snapshot from the raw upstream arrays. A {@code null} array is treated as an empty collection.
+     */
+    public static ReferenceDataSnapshot of(long version,
+                                           Drone[] drones,
+                                           DroneServicePoint[] servicePoints,
+                                           DroneForServicePoint[] dronesForServicePoints,
+                                           RestrictedArea[] restrictedAreas) {
+        List<Drone> droneList = freeze(drones);
+        List<DroneServicePoint> servicePointList = freeze(servicePoints);
+        List<DroneForServicePoint> dronesForServicePointList = freeze(dronesForServicePoints);
+        List<RestrictedArea> areas = freeze(restrictedAreas);
+        return new ReferenceDataSnapshot(
+                version,
+                Instant.now(),
+                droneList,
+                servicePointList,
+                dronesForServicePointList,
+                areas,
+                toRegions(areas),
+                DroneCatalog.build(droneList, servicePointList, dronesForServicePointList),
+                versionsOf(version));
+    }
+
+    /**
+     * Builds the next snapshot from this one, replacing only the collections in {@code changed}.
+     * <p>
+     * Unchanged collections, and anything derived solely from them, are carried over as-is:
+     * the catalog is only rebuilt if drones or service points changed, and the restricted regions
+     * only if the restricted areas changed.
+     *
+     * @param version the version of the new snapshot
+     * @param changed the new arrays of the collections that changed; a {@code null} array is treated as empty
+     * @return the new snapshot
+     */
+    public ReferenceDataSnapshot withChanges(long version, Map<ReferenceCollection, Object[]> changed) {
+        List<Drone> droneList = changed.containsKey(ReferenceCollection.DRONES)
+                ? freeze((Drone[]) changed.get(ReferenceCollection.DRONES)) : drones;
+        List<DroneServicePoint> servicePointList = changed.containsKey(ReferenceCollection.SERVICE_POINTS)
+                ? freeze((DroneServicePoint[]) changed.get(ReferenceCollection.SERVICE_POINTS)) : servicePoints;
+        List<DroneForServicePoint> dronesForServicePointList = changed.containsKey(ReferenceCollection.DRONES_FOR_SERVICE_POINTS)
+                ? freeze((DroneForServicePoint[]) changed.get(ReferenceCollection.DRONES_FOR_SERVICE_POINTS)) : dronesForServicePoints;
+
+        List<RestrictedArea> areas = restrictedAreas;
+        List<Region> regions = restrictedRegions;
+        if (changed.containsKey(ReferenceCollection.RESTRICTED_AREAS)) {
+            areas = freeze((RestrictedArea[]) changed.get(ReferenceCollection.RESTRICTED_AREAS));
+            regions = toRegions(areas);
+        }
+
+        boolean catalogChanged = changed.containsKey(ReferenceCollection.DRONES)
+                || changed.containsKey(ReferenceCollection.SERVICE_POINTS)
+                || changed.containsKey(ReferenceCollection.DRONES_FOR_SERVICE_POINTS);
+
+        EnumMap<ReferenceCollection, Long> versions = new EnumMap<>(collectionVersions);
+        changed.keySet().forEach(collection -> versions.put(collection, version));
+
+        return new ReferenceDataSnapshot(
+                version,
+                Instant.now(),
+                droneList,
+                servicePointList,
+                dronesForServicePointList,
+                areas,
+                regions,
+                catalogChanged ? DroneCatalog.build(droneList, servicePointList, dronesForServicePointList) : catalog,
+                Collections.unmodifiableMap(versions));
+    }
+
+    /**
+     * @return the snapshot version in which {@code collection} last changed
+     */
+    public long collectionVersion(ReferenceCollection collection) {
+        return collectionVersions.getOrDefault(collection, 0L);
+    }
+
+    /**
+     * @return true once this snapshot holds data loaded from the upstream
+     */
+    public boolean isLoaded() {
+        return version > 0;
+    }
+
+    private static Map<ReferenceCollection, Long> versionsOf(long version) {
+        EnumMap<ReferenceCollection, Long> versions = new EnumMap<>(ReferenceCollection.class);
+        for (ReferenceCollection collection : ReferenceCollection.values()) {
+            versions.put(collection, version);
+        }
+        return Collections.unmodifiableMap(versions);
+    }
+
+    private static <T> List<T> freeze(T[] values) {
+        if (values == null) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(values)));
+    }
+
+    private static List<Region> toRegions(List<RestrictedArea> restrictedAreas) {
+        List<Region> regions = new ArrayList<>();
+
+        for (RestrictedArea area : restrictedAreas) {
+            List<Point> regionVertices = area.getVertices().stream()
+                    .map(v -> Point.builder()
+                            .lng(v.getLng())
+                            .lat(v.getLat())
+                            .build())
+                    .toList();
+
+            regions.add(Region.builder()
+                    .name(area.getName())
+                    .vertices(regionVertices)
+                    .build());
+        }
+        return Collections.unmodifiableList(regions);
+    }
+}
@@ -0,0 +1,65 @@
+package ilp_submission_2.referencedata;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a {@link ReferenceDataSnapshot} to a directory in the layout read by {@link FileReferenceDataSource}.
+ * <p>
+ * Each file is written to a temporary name first and then moved into place, so a directory being
+ * read by another process never contains a half-written collection.
+ */
+public class ReferenceDataSnapshotWriter {
+    private final ObjectMapper objectMapper;
+
+    public ReferenceDataSnapshotWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param snapshot  the snapshot to write
+     * @param directory the target directory, created if missing
+     * @return the files written
+     */
+    public List<Path> write(ReferenceDataSnapshot snapshot, Path directory) {
+        List<Path> written = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            for (ReferenceCollection collection : ReferenceCollection.values()) {
+                Path target = directory.resolve(collection.getFileName());
+                Path temporary = directory.resolve(collection.getFileName() + ".tmp");
+
+                try (JsonGenerator generator = objectMapper.createGenerator(temporary.toFile(), JsonEncoding.UTF8)) {
+                    generator.writeStartArray();
+                    for (Object element : elements(snapshot, collection)) {
+                        generator.writeObject(element);
+                    }
+                    generator.writeEndArray();
+                }
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                written.add(target);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write reference data snapshot to " + directory, e);
+        }
+        return written;
+    }
+
+    private static List<?> elements(ReferenceDataSnapshot snapshot, ReferenceCollection collection) {
+        return switch (collection) {
+            case DRONES -> snapshot.drones();
+            case SERVICE_POINTS -> snapshot.servicePoints();
+            case DRONES_FOR_SERVICE_POINTS -> snapshot.dronesForServicePoints();
+            case RESTRICTED_AREAS -> snapshot.restrictedAreas();
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package ilp_submission_2.referencedata;
+
+/**
+ * Somewhere reference collections can be fetched from.
+ */
+public interface ReferenceDataSource {
+    /**
+     * Fetches one reference collection.
+     *
+     * @param collection the collection to fetch
+     * @param <T>        the element type of the collection
+     * @return the deserialized array, or {@code null} if the source returned no body
+     * @throws RuntimeException if the collection could not be fetched
+     */
+    <T> T[] fetch(ReferenceCollection collection);
+
+    /**
+     * Fetches one reference collection unless it is unchanged since {@code previous}.
+     * <p>
+     * Sources that cannot tell whether a collection changed always report it as modified.
+     *
+     * @param collection the collection to fetch
+     * @param previous   the validator returned by the previous fetch of this collection
+     * @return the collection, or an unchanged marker carrying the validator for the next fetch
+     * @throws RuntimeException if the collection could not be fetched
+     */
+    default CollectionFetch fetchIfChanged(ReferenceCollection collection, CollectionValidator previous) {
+        return CollectionFetch.modified(fetch(collection), CollectionValidator.none());
+    }
+}
@@ -0,0 +1,36 @@
+package ilp_submission_2.referencedata;
+
+import java.time.Instant;
+
+/**
+ * Health of the reference data snapshot as seen by {@link ReferenceDataService}.
+ *
+ * @param snapshotVersion     version of the snapshot being served, 0 if none was ever loaded
+ * @param loadedAt            when the served snapshot was loaded, {@code null} if none was ever loaded
+ * @param consecutiveFailures refreshes that failed since the last successful one
+ * @param lastFailureAt       when the last refresh failed, {@code null} if none has
+ * @param lastError           message of the last refresh failure, {@code null} if none has failed
+ * @param coalescedRefreshes  refreshes that joined one already running instead of fetching on their own
+ */
+public record ReferenceDataStatus(
+        long snapshotVersion,
+        Instant loadedAt,
+        int consecutiveFailures,
+        Instant lastFailureAt,
+        String lastError,
+        long coalescedRefreshes
+) {
+    /**
+     * @return true if a snapshot has been loaded at all
+     */
+    public boolean isAvailable() {
+        return snapshotVersion > 0;
+    }
+
+    /**
+     * @return true if the served snapshot is stale because the latest refresh failed
+     */
+    public boolean isDegraded() {
+        return consecutiveFailures > 0;
+    }
+}
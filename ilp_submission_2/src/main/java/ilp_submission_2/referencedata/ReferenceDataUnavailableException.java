@@ -0,0 +1,13 @@
+package ilp_submission_2.referencedata;
+
+/**
+ * Thrown when no reference data snapshot has ever been loaded and the upstream cannot provide one.
+ * <p>
+ * Callers must not fall back to empty collections in that case: planning with no restricted areas
+ * would route drones straight through no-fly zones.
+ */
+public class ReferenceDataUnavailableException extends RuntimeException {
+    public ReferenceDataUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
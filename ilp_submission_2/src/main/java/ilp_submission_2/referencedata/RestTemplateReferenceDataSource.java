@@ -0,0 +1,22 @@
+package ilp_submission_2.referencedata;
+
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Fetches reference collections from the ILP REST service using a {@link RestTemplate}.
+ */
+public class RestTemplateReferenceDataSource implements ReferenceDataSource {
+    private final RestTemplate restTemplate;
+    private final String ilpEndPoint;
+
+    public RestTemplateReferenceDataSource(RestTemplate restTemplate, String ilpEndPoint) {
+        this.restTemplate = restTemplate;
+        this.ilpEndPoint = ilpEndPoint;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] fetch(ReferenceCollection collection) {
+        return (T[]) restTemplate.getForObject(ilpEndPoint + collection.getPath(), collection.getArrayType());
+    }
+}
@@ -0,0 +1,87 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.upstream.UpstreamException;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Fetches several reference collections concurrently.
+ * <p>
+ * Each fetch runs on its own virtual thread, so the time to load a set of collections is the
+ * slowest upstream call rather than the sum of all of them. As soon as one fetch fails the
+ * others are cancelled (their threads are interrupted, which aborts the HTTP exchange) and the
+ * failure is rethrown to the caller. The whole fan-out is also bounded by a deadline, after which
+ * any fetch still running is cancelled the same way.
+ */
+public class UpstreamFetchOrchestrator implements AutoCloseable {
+    private final ReferenceDataSource source;
+    private final Duration deadline;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public UpstreamFetchOrchestrator(ReferenceDataSource source) {
+        this(source, Duration.ofSeconds(30));
+    }
+
+    public UpstreamFetchOrchestrator(ReferenceDataSource source, Duration deadline) {
+        this.source = source;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Conditionally fetches all collections in {@code previous} in parallel, see
+     * {@link ReferenceDataSource#fetchIfChanged(ReferenceCollection, CollectionValidator)}.
+     *
+     * @param previous the validator of each collection to fetch
+     * @return the fetch result by collection
+     * @throws RuntimeException the first failure of any fetch, after the remaining fetches were cancelled
+     * @throws UpstreamException if the fetches did not all complete within the deadline
+     */
+    public Map<ReferenceCollection, CollectionFetch> fetchAllIfChanged(Map<ReferenceCollection, CollectionValidator> previous) {
+        CompletionService<Map.Entry<ReferenceCollection, CollectionFetch>> completion = new ExecutorCompletionService<>(executor);
+        Map<ReferenceCollection, Future<Map.Entry<ReferenceCollection, CollectionFetch>>> pending = new EnumMap<>(ReferenceCollection.class);
+
+        previous.forEach((collection, validator) -> pending.put(collection, completion.submit(() -> {
+            CollectionFetch fetch = source.fetchIfChanged(collection, validator);
+            return new AbstractMap.SimpleImmutableEntry<>(collection, fetch);
+        })));
+
+        Map<ReferenceCollection, CollectionFetch> results = new EnumMap<>(ReferenceCollection.class);
+        long deadlineAt = System.nanoTime() + deadline.toNanos();
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                Future<Map.Entry<ReferenceCollection, CollectionFetch>> done =
+                        completion.poll(deadlineAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    cancel(pending);
+                    throw new UpstreamException("Reference data fetch exceeded its deadline of " + deadline.toMillis() + " ms");
+                }
+                Map.Entry<ReferenceCollection, CollectionFetch> result = done.get();
+                results.put(result.getKey(), result.getValue());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            cancel(pending);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Reference data fetch failed", e.getCause());
+        } catch (InterruptedException e) {
+            cancel(pending);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching reference data", e);
+        }
+    }
+
+    private static void cancel(Map<ReferenceCollection, ? extends Future<?>> pending) {
+        pending.values().forEach(future -> future.cancel(true));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
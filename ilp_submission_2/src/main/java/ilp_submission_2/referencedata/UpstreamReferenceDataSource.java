@@ -0,0 +1,55 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.upstream.IlpUpstreamClient;
+import ilp_submission_2.upstream.UpstreamResponse;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Fetches reference collections through the pooled {@link IlpUpstreamClient}.
+ * <p>
+ * Conditional fetches send the {@code ETag}/{@code Last-Modified} of the previous response and
+ * skip the collection on {@code 304 Not Modified}. Where the upstream does not support that, the
+ * SHA-256 of the raw body is compared with the previous one, and an identical body is not
+ * deserialized again.
+ */
+public class UpstreamReferenceDataSource implements ReferenceDataSource {
+    private final IlpUpstreamClient client;
+
+    public UpstreamReferenceDataSource(IlpUpstreamClient client) {
+        this.client = client;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] fetch(ReferenceCollection collection) {
+        return (T[]) client.getForObject(collection.getPath(), collection.getArrayType());
+    }
+
+    @Override
+    public CollectionFetch fetchIfChanged(ReferenceCollection collection, CollectionValidator previous) {
+        UpstreamResponse response = client.getConditional(collection.getPath(), previous.etag(), previous.lastModified());
+        if (response.notModified()) {
+            return CollectionFetch.unchanged(previous);
+        }
+
+        String hash = sha256(response.body());
+        CollectionValidator validator = new CollectionValidator(response.etag(), response.lastModified(), hash, null);
+        if (hash.equals(previous.contentHash())) {
+            return CollectionFetch.unchanged(validator);
+        }
+        return CollectionFetch.modified(
+                (Object[]) client.parse(collection.getPath(), response.body(), collection.getArrayType()),
+                validator);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
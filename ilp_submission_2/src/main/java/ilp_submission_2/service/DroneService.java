@@ -2,6 +2,7 @@ package ilp_submission_2.service;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import ilp_submission_2.dtos.*;
+import ilp_submission_2.pathfinding.PlannerEngine;
 
 import java.util.List;
 
@@ -48,7 +49,39 @@ public interface DroneService {
     List<String> getQueryAttributesDrones(List<QueryAttributes> queryAttributes);
     CalcDeliveryPathResult calcDeliveryPath(List<Medicine> medDispatchRec);
     ObjectNode calcDeliveryPathAsGeoJson(List<Medicine> medDispatchRec);
+
+    /**
+     * Like {@link #calcDeliveryPath(List)}, but plans the legs with the given planner.
+     * Implementations without a choice of planners ignore it.
+     */
+    default CalcDeliveryPathResult calcDeliveryPath(List<Medicine> medDispatchRec, PlannerEngine engine) {
+        return calcDeliveryPath(medDispatchRec);
+    }
+
+    /**
+     * Like {@link #calcDeliveryPathAsGeoJson(List)}, but plans the legs with the given planner.
+     * Implementations without a choice of planners ignore it.
+     */
+    default ObjectNode calcDeliveryPathAsGeoJson(List<Medicine> medDispatchRec, PlannerEngine engine) {
+        return calcDeliveryPathAsGeoJson(medDispatchRec);
+    }
+
     OrderResponse tryPlacingOrder(Medicine medicine);
     ObjectNode showFlightPath(FlightPathInputMCP flightPathInputMCP);
+    /**
+     * @return whether the point lies outside every restricted area and some drone can fly there from its
+     * service point and back within its maximum moves
+     */
     boolean deliveryLocationAccessible(Point point);
+
+    /**
+     * Computes where a drone, or any drone at a service point, can deliver to and return from within its
+     * maximum moves.
+     *
+     * @param droneId        the drone, or {@code null} for the drones at {@code servicePointId}
+     * @param servicePointId the service point, or {@code null} for every service point of {@code droneId}
+     * @return a GeoJSON FeatureCollection with one MultiPolygon per service point, or {@code null} if
+     * nothing matches
+     */
+    ObjectNode getReachableAreaAsGeoJson(String droneId, Integer servicePointId);
 }
@@ -5,6 +5,32 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import ilp_submission_2.dtos.*;
 import ilp_submission_2.entity.Order;
+import ilp_submission_2.pathfinding.Bounds;
+import ilp_submission_2.pathfinding.DistanceField;
+import ilp_submission_2.pathfinding.FlightLeg;
+import ilp_submission_2.pathfinding.BidirectionalAStarPlanner;
+import ilp_submission_2.pathfinding.HierarchicalPlanner;
+import ilp_submission_2.pathfinding.LandmarkIndex;
+import ilp_submission_2.pathfinding.LatticeAStarPlanner;
+import ilp_submission_2.pathfinding.MultiSourceDistances;
+import ilp_submission_2.pathfinding.ObstacleMap;
+import ilp_submission_2.pathfinding.OccupancyBitmap;
+import ilp_submission_2.pathfinding.PathPlanner;
+import ilp_submission_2.pathfinding.PathRepair;
+import ilp_submission_2.pathfinding.PlannerEngine;
+import ilp_submission_2.pathfinding.PlannerProperties;
+import ilp_submission_2.pathfinding.PolygonObstacleMap;
+import ilp_submission_2.pathfinding.ReachableArea;
+import ilp_submission_2.pathfinding.RestrictedAreaIndex;
+import ilp_submission_2.pathfinding.StraightLinePlanner;
+import ilp_submission_2.pathfinding.VisibilityGraphPlanner;
+import ilp_submission_2.referencedata.DerivedCache;
+import ilp_submission_2.referencedata.DroneCatalog;
+import ilp_submission_2.referencedata.DroneColumns;
+import ilp_submission_2.referencedata.ReferenceCollection;
+import ilp_submission_2.referencedata.ReferenceDataService;
+import ilp_submission_2.referencedata.ReferenceDataSnapshot;
+import ilp_submission_2.referencedata.RestTemplateReferenceDataSource;
 import ilp_submission_2.repository.OrderRepository;
 import ilp_submission_2.service.DroneService;
 import org.slf4j.Logger;
@@ -13,8 +39,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.awt.geom.Line2D;
-import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.util.*;
 import java.time.LocalTime;
@@ -36,23 +60,107 @@ public class DroneServiceImpl implements DroneService {
      * Fixed step size used for movement calculations.
      * */
     private final double stepSize = 0.00015;
-    private final RestTemplate restTemplate;
-    private final String ilpEndPoint;
+    private final ReferenceDataService referenceData;
     private final OrderRepository orderRepository;
+    /**
+     * Answers of the drone query endpoints, keyed by a description of the query. Only depends on
+     * {@code /drones}, so changes to restricted areas or service points leave it intact.
+     * */
+    private final DerivedCache<String, List<String>> droneQueries;
+    /**
+     * Restricted areas compiled for the path planner, rebuilt only when {@code /restricted-areas} changes.
+     * */
+    private final DerivedCache<String, OccupancyBitmap> obstacleMaps;
+    /**
+     * Landmark distances for the lattice search's heuristic, rebuilt in the background whenever the
+     * restricted areas or service points change.
+     * */
+    private final LandmarkIndex landmarks;
+    /**
+     * Planned legs shared across requests, keyed by quantized start and goal. Only depends on
+     * {@code /restricted-areas}, and legs planned before a change are repaired rather than planned
+     * again; the cached paths are immutable and exclude the hover move.
+     * */
+    private final DerivedCache<FlightLeg, List<Point>> flightPaths;
+    /**
+     * Moves from each service point to anywhere in the operating area, for availability costing. Depends on
+     * {@code /restricted-areas} and on {@code /service-points}, which span the area.
+     * */
+    private final DerivedCache<Integer, DistanceField> distanceFields;
+    /**
+     * Round trips possible from each service point, flooded to the largest budget of its drones. Keyed by
+     * that budget too, so they only depend on {@code /restricted-areas} and {@code /service-points}.
+     * */
+    private final DerivedCache<ReachableAreaKey, ReachableArea> reachableAreas;
+    private final Map<PlannerEngine, PathPlanner> pathPlanners = new EnumMap<>(PlannerEngine.class);
+    private final PlannerEngine defaultPlannerEngine;
+    /**
+     * How far grid searches over the operating area extend beyond the points and areas involved.
+     * */
+    private final double searchMargin;
     private Map<String, Integer> mapDroneToService;         // map drone ID to service point ID
     private Map<Integer, Point> mapServiceIdToServicePoint; // map service point ID to service point
     private static final Logger logger = LoggerFactory.getLogger(DroneServiceImpl.class);
 
-    private record AvailabilityContext(
+    /**
+     * Request-scoped view of the reference data: the snapshot a request started against, so every
+     * lookup during the request is consistent even if a refresh swaps snapshots mid-way, together
+     * with the drones found available for the request's medicines.
+     */
+    private record RequestContext(
+            ReferenceDataSnapshot snapshot,
             List<String> availableDroneIds,
-            Map<String, Integer> droneToService,
-            Map<Integer, Point> serviceIdToPoint
-    ) {}
+            Map<String, Integer> droneToService
+    ) {
+        DroneCatalog catalog() {
+            return snapshot.catalog();
+        }
 
-    public DroneServiceImpl(RestTemplate getRestTemplate, String getIlpEndpoint, OrderRepository orderRepository) {
-        this.restTemplate = getRestTemplate;
-        this.ilpEndPoint = getIlpEndpoint;
+        Point servicePoint(int servicePointId) {
+            return snapshot.catalog().getServicePointLocation(servicePointId);
+        }
+    }
+
+    /**
+     * A service point and the largest budget among its drones, which its reachable area is flooded to.
+     */
+    private record ReachableAreaKey(int servicePointId, int maxMoves) {}
+
+    public DroneServiceImpl(ReferenceDataService referenceData, OrderRepository orderRepository) {
+        this(referenceData, orderRepository, new PlannerProperties());
+    }
+
+    /**
+     * @param plannerLimits bounds on each path search, see {@link PlannerProperties}
+     */
+    @Autowired
+    public DroneServiceImpl(ReferenceDataService referenceData, OrderRepository orderRepository, PlannerProperties plannerLimits) {
+        this.referenceData = referenceData;
         this.orderRepository = orderRepository;
+        this.searchMargin = plannerLimits.getBoundsMarginMoves() * stepSize;
+        this.landmarks = new LandmarkIndex(stepSize, searchMargin,
+                command -> Thread.ofVirtual().name("landmark-tables").start(command));
+        PathPlanner lattice = new LatticeAStarPlanner(stepSize, plannerLimits, landmarks);
+        this.pathPlanners.put(PlannerEngine.LATTICE, new StraightLinePlanner(lattice, stepSize));
+        this.pathPlanners.put(PlannerEngine.VISIBILITY, new StraightLinePlanner(new VisibilityGraphPlanner(lattice, stepSize), stepSize));
+        this.pathPlanners.put(PlannerEngine.BIDIRECTIONAL, new StraightLinePlanner(new BidirectionalAStarPlanner(stepSize, plannerLimits), stepSize));
+        this.pathPlanners.put(PlannerEngine.HIERARCHICAL, new StraightLinePlanner(new HierarchicalPlanner(lattice, stepSize), stepSize));
+        this.defaultPlannerEngine = plannerLimits.getEngine();
+        this.droneQueries = referenceData.createDerivedCache("droneQueries", EnumSet.of(ReferenceCollection.DRONES), 1024);
+        this.obstacleMaps = referenceData.createDerivedCache("obstacleMaps", EnumSet.of(ReferenceCollection.RESTRICTED_AREAS), 1);
+        this.flightPaths = referenceData.createRepairableDerivedCache("flightPaths", EnumSet.of(ReferenceCollection.RESTRICTED_AREAS), 4096);
+        this.distanceFields = referenceData.createDerivedCache("distanceFields",
+                EnumSet.of(ReferenceCollection.RESTRICTED_AREAS, ReferenceCollection.SERVICE_POINTS), 64);
+        this.reachableAreas = referenceData.createDerivedCache("reachableAreas",
+                EnumSet.of(ReferenceCollection.RESTRICTED_AREAS, ReferenceCollection.SERVICE_POINTS), 64);
+    }
+
+    /**
+     * Convenience constructor which reads reference data straight from the ILP endpoint,
+     * without a background refresh.
+     */
+    public DroneServiceImpl(RestTemplate getRestTemplate, String getIlpEndpoint, OrderRepository orderRepository) {
+        this(new ReferenceDataService(new RestTemplateReferenceDataSource(getRestTemplate, getIlpEndpoint)), orderRepository);
     }
 
     /**
@@ -146,33 +254,18 @@ public class DroneServiceImpl implements DroneService {
 
     @Override
     public List<String> getDronesWithCooling(boolean state) {
-        Drone[] drones = restTemplate.getForObject(ilpEndPoint + "/drones", Drone[].class);
-
-        if  (drones == null) {
-            return List.of();
-        }
-
-        return Arrays.stream(drones)
-                .filter(drone -> {
-                    Boolean cooling = drone.getCapability().getCooling();
-                    return Boolean.TRUE.equals(cooling) == state;
-                })
-                .map(Drone::getId).
-                toList();
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        DroneColumns columns = snapshot.catalog().columns();
+        return droneQueries.get("cooling:" + state, snapshot, key -> columns.ids(columns.withCooling(state)));
     }
 
     @Override
     public Drone getDroneDetails(String id) {
-        Drone[] drones = restTemplate.getForObject(ilpEndPoint + "/drones", Drone[].class);
-
-        if (drones == null) {
-            return null;
-        }
+        return getDroneDetails(referenceData.current(), id);
+    }
 
-        return Arrays.stream(drones)
-                .filter(drone -> Objects.equals(drone.getId(), id))
-                .findFirst().
-                orElse(null);
+    private Drone getDroneDetails(ReferenceDataSnapshot snapshot, String id) {
+        return snapshot.catalog().getDrone(id);
     }
 
 
@@ -231,53 +324,31 @@ public class DroneServiceImpl implements DroneService {
         return true;
     }
 
-    private Point getServicePoint(int id, DroneServicePoint[] servicePoints) {
-        if (servicePoints == null) {
-            return null;
-        }
-
-        DroneServicePoint matchedPoint = Arrays.stream(servicePoints)
-                .filter(servicePoint -> Objects.equals(servicePoint.getId(), id))
-                .findFirst()
-                .orElse(null);
-
-        if (matchedPoint == null || matchedPoint.getLocation() == null) {
-            return null;
-        }
-
-        LngLatAlt location = matchedPoint.getLocation();
-        return Point.builder().lng(location.getLng()).lat(location.getLat()).build();
-    }
-
-    private int estTotalMovesFromServiceToAllDeliveries(Point servicePoint, List<Medicine> medDispatchRec) {
-        int totalMoves = 0;
+    private int estTotalMovesFromServiceToAllDeliveries(DistanceField fromService, List<Medicine> medDispatchRec) {
+        long totalMoves = 0;
         for (Medicine medicine : medDispatchRec) {
             Point deliveryPoint = medicine.getDelivery();
             // inputs guaranteed to have delivery so this is a harmless if condition
             if (deliveryPoint == null) {
                 continue;
             }
-            PointRequest points = PointRequest.builder().position1(servicePoint).position2(deliveryPoint).build();
-            totalMoves += (int) Math.round(getDistance(points) / stepSize);
+            totalMoves += Math.round(Math.min(fromService.movesTo(deliveryPoint.getLng(), deliveryPoint.getLat()), Integer.MAX_VALUE));
         }
-        return totalMoves;
+        return (int) Math.min(totalMoves, Integer.MAX_VALUE);
     }
 
     @Override
     public List<String> getAvailableDrones(List<Medicine> medDispatchRec) {
-        AvailabilityContext result = getAvailableDronesLogic(medDispatchRec);
+        RequestContext result = getAvailableDronesLogic(referenceData.current(), medDispatchRec);
         return result.availableDroneIds();
     }
 
-    private AvailabilityContext getAvailableDronesLogic(List<Medicine> medDispatchRec) {
-        DroneForServicePoint[] dronesForServicePoint =
-                restTemplate.getForObject(ilpEndPoint + "/drones-for-service-points", DroneForServicePoint[].class);
-
-        if (dronesForServicePoint == null) {
-            return new AvailabilityContext(List.of(), Map.of(), Map.of());
-        }
+    private RequestContext getAvailableDronesLogic(ReferenceDataSnapshot snapshot, List<Medicine> medDispatchRec) {
+        DroneCatalog catalog = snapshot.catalog();
+        List<DroneForServicePoint> dronesForServicePoint = snapshot.dronesForServicePoints();
 
         List<String> availableDrones = new ArrayList<>();	// list of possible drone IDs
+        Set<String> acceptedDrones = new HashSet<>();       // same drones as availableDrones, for O(1) lookups
         int numberOfMedDispatch = medDispatchRec.size();	// no. of prescriptions to be delivered
 
         double totalCapacityRequired = medDispatchRec.stream()	// needed as a single drone must have enough capacity for all deliveries
@@ -285,23 +356,14 @@ public class DroneServiceImpl implements DroneService {
                 .sum();
 
         // mapDroneToService = new HashMap<>();			    // just maps the drone ID to a service point ID to indicate that the drone can be found at that specific service point
-        // mapServiceIdToServicePoint = new HashMap<>();		// using a map to maintain the location of each service point for O(1) lookup while calculating delivery paths
 
         // fix for concurrent stuff
         Map<String, Integer> droneToService =  new HashMap<>();
-        Map<Integer, Point> serviceIdToPoint = new HashMap<>();
-
-        DroneServicePoint[] servicePoints = restTemplate.getForObject(ilpEndPoint + "/service-points", DroneServicePoint[].class);	// calling this endpoint only once to get the locations of all the service points
 
         for (DroneForServicePoint droneForServicePoint : dronesForServicePoint) {
             int servicePointID = droneForServicePoint.getServicePointId();
-            Point service = getServicePoint(servicePointID, servicePoints);
-            // mapServiceIdToServicePoint.put(servicePointID, service);
 
-            // fix for concurrent stuff
-            serviceIdToPoint.put(servicePointID, service);
-
-            int estTotalMoves = estTotalMovesFromServiceToAllDeliveries(service, medDispatchRec);
+            int estTotalMoves = estTotalMovesFromServiceToAllDeliveries(distanceField(snapshot, servicePointID), medDispatchRec);
             // logger.info("Service point '{}' being considered", servicePointID);
 
             for (DronesAvailability dronesAvailability : droneForServicePoint.getDrones()) {
@@ -309,13 +371,13 @@ public class DroneServiceImpl implements DroneService {
                 // drone may be available at another service
                 // point and so may have been already checked before
                 // edit: might be unnecessary honestly but leaving it here is harmless
-                if (availableDrones.contains(droneId)) {
+                if (acceptedDrones.contains(droneId)) {
                     continue;
                 }
 
                 // unnecessary check because droneDetails will be populated
                 // but again, having this here is harmless
-                Drone droneDetails = getDroneDetails(droneId);
+                Drone droneDetails = catalog.getDrone(droneId);
                 if (droneDetails == null) {
                     continue;
                 }
@@ -351,6 +413,7 @@ public class DroneServiceImpl implements DroneService {
 
                 if (droneAvailableForAllMeds) {
                     availableDrones.add(droneId);
+                    acceptedDrones.add(droneId);
                     // mapDroneToService.put(droneId, servicePointID);
                     // fix for concurrent stuff
                     droneToService.put(droneId, servicePointID);
@@ -358,407 +421,235 @@ public class DroneServiceImpl implements DroneService {
                 }
             }
         }
-        return new AvailabilityContext(availableDrones, droneToService, serviceIdToPoint);
+        return new RequestContext(snapshot, availableDrones, droneToService);
     }
 
 
 
 
 
-    private boolean hasMatchingAttribute(Drone drone, String attributeName, String attributeValue) {
-        try {
-            Field field = drone.getCapability().getClass().getDeclaredField(attributeName);
-            field.setAccessible(true);
-            Object fieldValue = field.get(drone.getCapability());
-
-            if (attributeName.equals("heating") || attributeName.equals("cooling")) {
-                boolean actual = fieldValue != null && (Boolean) fieldValue;
-                boolean expected = Boolean.parseBoolean(attributeValue);
-                return actual == expected;
-            } else {
-
-                if (fieldValue == null) {
-                    return false;
-                }
+    /**
+     * Positions of the drones whose capability {@code attributeName} equals {@code attributeValue}.
+     * Unknown attributes match no drone.
+     */
+    private BitSet matchingAttribute(DroneColumns columns, String attributeName, String attributeValue) {
+        if (attributeName.equals("heating")) {
+            return columns.withHeating(Boolean.parseBoolean(attributeValue));
+        }
+        if (attributeName.equals("cooling")) {
+            return columns.withCooling(Boolean.parseBoolean(attributeValue));
+        }
 
-                double actualValue = Double.parseDouble(fieldValue.toString());
-                double expectedValue = Double.parseDouble(attributeValue);
-                return expectedValue == actualValue;
-            }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            return false;
+        DroneColumns.NumericAttribute attribute = DroneColumns.NumericAttribute.byName(attributeName);
+        if (attribute == null) {
+            return new BitSet();
         }
+        return columns.compare(attribute, "=", Double.parseDouble(attributeValue));
     }
 
 
     @Override
     public List<String> getDronesWithAttribute(String attributeName, String attributeValue) {
-        Drone[] drones = restTemplate.getForObject(ilpEndPoint + "/drones", Drone[].class);
-
-        if  (drones == null) {
-            return List.of();
-        }
-
-        return Arrays.stream(drones)
-                .filter(drone -> hasMatchingAttribute(drone, attributeName, attributeValue))
-                .map(Drone::getId).
-                toList();
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        DroneColumns columns = snapshot.catalog().columns();
+        return droneQueries.get("attribute:" + attributeName + "=" + attributeValue, snapshot,
+                key -> columns.ids(matchingAttribute(columns, attributeName, attributeValue)));
     }
 
-    private boolean performOperation(double fieldValue, double value, String operator) {
-        return switch (operator) {
-            case "=" -> fieldValue == value;
-            case "!=" -> fieldValue != value;
-            case "<" -> fieldValue < value;
-            case ">" -> fieldValue > value;
-            case ">=" -> fieldValue >= value;
-            case "<=" -> fieldValue <= value;
-            case null, default -> false;
-        };
-    }
-
-    private boolean hasQueryAttributes(Drone drone, List<QueryAttributes> queryAttributes) {
-        boolean result;
+    /**
+     * Positions of the drones meeting every query condition: heating and cooling are compared
+     * as booleans regardless of the operator, numeric capabilities with the given operator.
+     * A drone lacking a numeric capability, or a condition on an unknown attribute, matches nothing.
+     */
+    private BitSet matchingQuery(DroneColumns columns, List<QueryAttributes> queryAttributes) {
+        BitSet result = columns.all();
         for (QueryAttributes queryAttribute : queryAttributes) {
             String attributeName = queryAttribute.getAttribute();
             String attributeValue = queryAttribute.getValue();
-            String attributeOperator =  queryAttribute.getOperator();
-            try {
-                Field field = drone.getCapability().getClass().getDeclaredField(attributeName);
-                field.setAccessible(true);
-                Object fieldValue = field.get(drone.getCapability());
-
-                if (attributeName.equals("cooling") || attributeName.equals("heating")) {
-                    boolean actual = fieldValue != null && (Boolean) fieldValue;
-                    boolean expected = Boolean.parseBoolean(attributeValue);
-                    result = actual == expected;
-                } else {
-                    if (fieldValue == null) {
-                        return false;
-                    }
 
-                    double actualValue = Double.parseDouble(fieldValue.toString());
-                    double expectedValue = Double.parseDouble(attributeValue);
-                    result = performOperation(actualValue, expectedValue, attributeOperator);
-                }
-            } catch (NoSuchFieldException | IllegalAccessException e) {
-                return false;
+            BitSet matches;
+            if (attributeName.equals("cooling")) {
+                matches = columns.withCooling(Boolean.parseBoolean(attributeValue));
+            } else if (attributeName.equals("heating")) {
+                matches = columns.withHeating(Boolean.parseBoolean(attributeValue));
+            } else {
+                DroneColumns.NumericAttribute attribute = DroneColumns.NumericAttribute.byName(attributeName);
+                matches = attribute == null
+                        ? new BitSet()
+                        : columns.compare(attribute, queryAttribute.getOperator(), Double.parseDouble(attributeValue));
             }
 
-            if (!result) {
-                return false;
+            result.and(matches);
+            if (result.isEmpty()) {
+                break;
             }
         }
-        return true;
+        return result;
     }
 
     @Override
     public List<String> getQueryAttributesDrones(List<QueryAttributes> queryAttributes) {
-        Drone[] drones = restTemplate.getForObject(ilpEndPoint + "/drones", Drone[].class);
-
-        if (drones == null) {
-            return List.of();
-        }
-
-        return Arrays.stream(drones)
-                .filter(drone -> hasQueryAttributes(drone, queryAttributes))
-                .map(Drone::getId).
-                toList();
-    }
-
-
-    // used to check if a path under consideration is not crossing over a no-fly region
-    private boolean segmentsIntersect(Point p1, Point p2, Point q1, Point q2) {
-        return Line2D.linesIntersect(
-                p1.getLng(), p1.getLat(),
-                p2.getLng(), p2.getLat(),
-                q1.getLng(), q1.getLat(),
-                q2.getLng(), q2.getLat()
-        );
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        DroneColumns columns = snapshot.catalog().columns();
+        return droneQueries.get(queryKey(queryAttributes), snapshot,
+                key -> columns.ids(matchingQuery(columns, queryAttributes)));
     }
 
-    // used to check if a candidate point lies on the edge or boundary of a no-fly region
-    private boolean pointOnSegment(Point p, Point a, Point b) {
-        double epsilon = 1e-9;
-        // Vector AB
-        double abx = b.getLng() - a.getLng();
-        double aby = b.getLat() - a.getLat();
-
-        // Vector AP
-        double apx = p.getLng() - a.getLng();
-        double apy = p.getLat() - a.getLat();
-
-        // check collinearity using cross product
-        double cross = abx * apy - aby * apx;
-        if (Math.abs(cross) > epsilon) {
-            return false;   // Not collinear → cannot be on segment
-        }
-
-        // dot product to check if P lies between A and B
-        double dot = abx * apx + aby * apy;
-        if (dot < 0) {
-            return false;   // P is behind A
-        }
-
-        double lenSq = abx * abx + aby * aby;
-
-        if (dot > lenSq) {
-            return false;   // P is beyond B
+    private static String queryKey(List<QueryAttributes> queryAttributes) {
+        StringBuilder key = new StringBuilder("query:");
+        for (QueryAttributes queryAttribute : queryAttributes) {
+            key.append(queryAttribute.getAttribute()).append('\u0000')
+                    .append(queryAttribute.getOperator()).append('\u0000')
+                    .append(queryAttribute.getValue()).append('\u0001');
         }
-
-        // otherwise, P is on the segment (including endpoints)
-        return true;
+        return key.toString();
     }
 
-    private boolean pointOnEdge(Point p, List<Point> vertices) {
-        for (int i = 0; i < vertices.size() - 1; i++) {
-            Point a = vertices.get(i);
-            Point b = vertices.get(i + 1);
-
-            if (pointOnSegment(p, a, b)) {
-                return true;   // boundary considered inside
-            }
-        }
-        return false;
-    }
 
+    /**
+     * Checks whether moving from {@code current} to the request's position is blocked by the request's region:
+     * the position lies on its boundary or inside it, or the move crosses one of its edges.
+     */
     public boolean positionInRegionCheckForAStar(Point current, RegionRequest pointRegion) {
-        Region region = pointRegion.getRegion();
-        List<Point> vertices = region.getVertices();
-
         Point candidate = pointRegion.getPosition();
-
-        // checking if candidate lies on a boundary or edge
-        if (pointOnEdge(candidate, vertices)) {
-            return true;
-        }
-
-        // ray-casting algorithm to check if candidate is in the rectangle
-        double xp = candidate.getLng();
-        double yp = candidate.getLat();
-
-        int count = 0;
-
-        for (int i = 0; i < vertices.size() - 1; i++) {
-            double x1 = vertices.get(i).getLng();
-            double y1 = vertices.get(i).getLat();
-            double x2 = vertices.get(i + 1).getLng();
-            double y2 = vertices.get(i + 1).getLat();
-
-            double dy = y2 - y1;
-            if (Math.abs(dy) < 1e-12) continue;
-
-            boolean cond = (yp <= y1) != (yp <= y2);
-            if (cond) {
-                double xIntersect = x1 + (yp - y1) * (x2 - x1) / dy;
-                if (xIntersect >= xp) count++;
-            }
-        }
-
-        if (count % 2 == 1) {
-            return true;
-        }
-
-        // check if path between current and candidate does not intersect rectangle edges
-        for (int i = 0; i < vertices.size() - 1; i++) {
-            Point a = vertices.get(i);
-            Point b = vertices.get(i + 1);
-
-            if (segmentsIntersect(current, candidate, a, b)) {
-                return true;
-            }
-        }
-
-        return false;
+        return new PolygonObstacleMap(List.of(pointRegion.getRegion()))
+                .moveBlocked(current.getLng(), current.getLat(), candidate.getLng(), candidate.getLat());
     }
 
-    private List<Point> getNeighbours(Point current, List<Region> restrictedAreas) {
-        List<Point> neighbours = new ArrayList<>();
-        for (double direction = 0.0; direction < 360.0; direction += 22.5) {
-            NextPointRequest nextPointRequest = NextPointRequest.builder().start(current).angle(direction).build();
-            Point candidate = getnextPoint(nextPointRequest);
-
-            boolean safe = true;
-
-            for (Region area : restrictedAreas) {
-                RegionRequest regionRequest = RegionRequest.builder()
-                        .position(candidate)
-                        .region(area)
-                        .build();
-
-                if (positionInRegionCheckForAStar(current, regionRequest)) {
-                    safe = false;
-                    break;
-                }
-            }
+    private OccupancyBitmap obstacleMap(ReferenceDataSnapshot snapshot) {
+        OccupancyBitmap obstacles = obstacleMaps.get("restrictedAreas", snapshot,
+                key -> new OccupancyBitmap(new RestrictedAreaIndex(snapshot.restrictedRegions()), stepSize));
+        landmarks.ensure(obstacles, snapshot.catalog().getServicePointLocations());
+        return obstacles;
+    }
 
-            if (safe) {
-                neighbours.add(candidate);
+    /**
+     * @return the move counts from the service point to its operating area, built on first use for each
+     * snapshot of the restricted areas and service points
+     */
+    private DistanceField distanceField(ReferenceDataSnapshot snapshot, int servicePointId) {
+        return distanceFields.get(servicePointId, snapshot, id -> {
+            OccupancyBitmap obstacles = obstacleMap(snapshot);
+            Bounds area = obstacles.bounds();
+            for (Point servicePoint : snapshot.catalog().getServicePointLocations()) {
+                area = Bounds.of(servicePoint.getLng(), servicePoint.getLat(), servicePoint.getLng(), servicePoint.getLat()).union(area);
             }
-
-        }
-        return neighbours;
+            return DistanceField.build(obstacles, area.expand(searchMargin), snapshot.catalog().getServicePointLocation(id), stepSize);
+        });
     }
 
-    private List<Point> reconstructPath(AStarNode end) {
-        List<Point> path = new ArrayList<>();
-        AStarNode current = end;
-
-        while (current != null) {
-            path.add(current.getPoint());
-            current = current.getParent();
+    /**
+     * @return the round trips the drones at the service point can fly, flooded once per snapshot of the
+     * restricted areas and service points to the largest budget among them; {@code null} if the service
+     * point has no location or no drones
+     */
+    private ReachableArea reachableArea(ReferenceDataSnapshot snapshot, int servicePointId) {
+        Point location = snapshot.catalog().getServicePointLocation(servicePointId);
+        int maxMoves = snapshot.catalog().getMaxMoves(servicePointId);
+        if (location == null || maxMoves == 0) {
+            return null;
         }
-
-        Collections.reverse(path);
-        return path;
+        return reachableAreas.get(new ReachableAreaKey(servicePointId, maxMoves), snapshot,
+                key -> ReachableArea.build(obstacleMap(snapshot), location, key.maxMoves(), stepSize));
     }
 
-    private double heuristic(Point from, Point to) {
-        PointRequest req = PointRequest.builder()
-                .position1(from)
-                .position2(to)
-                .build();
-        return getDistance(req) / stepSize;
+    /**
+     * Plans the leg from {@code from} to {@code to}, or takes it from the flight path cache.
+     * Unreachable legs are not cached, as a search may also come back empty because it hit its limits.
+     *
+     * @return the immutable path, without the hover move; empty if the leg cannot be flown
+     */
+    private List<Point> flightPath(ReferenceDataSnapshot snapshot, ObstacleMap obstacles, PlannerEngine engine, Point from, Point to) {
+        return flightPaths.get(FlightLeg.of(from, to, engine), snapshot,
+                leg -> List.copyOf(pathPlanners.get(engine).plan(from, to, obstacles)),
+                path -> !path.isEmpty(),
+                flightPathRepair(snapshot, obstacles, engine, to));
     }
 
-    private boolean isGoal(Point p, Point goal) {
-        PointRequest req = PointRequest.builder()
-                .position1(p)
-                .position2(goal)
-                .build();
-        return getDistance(req) < stepSize;
+    /**
+     * @return repairs a leg to {@code to} cached before the restricted areas last changed, so that only
+     * legs near the changed areas are searched again, see {@link PathRepair}
+     */
+    private DerivedCache.Repair<List<Point>> flightPathRepair(ReferenceDataSnapshot snapshot, ObstacleMap obstacles,
+                                                             PlannerEngine engine, Point to) {
+        return (stale, computedFrom) -> {
+            List<Point> repaired = PathRepair.repair(stale, to, obstacles,
+                    PathRepair.lifted(computedFrom.restrictedRegions(), snapshot.restrictedRegions()),
+                    pathPlanners.get(engine), stepSize);
+            return repaired == null ? null : List.copyOf(repaired);
+        };
     }
 
-
-    private List<Point> aStar(Point start, Point goal, List<Region> restrictedAreas) {
-        PriorityQueue<AStarNode> openList = new PriorityQueue<>(); // uses compareTo(f-cost)
-        Set<Point> closedList = new HashSet<>();
-
-        Map<Point, AStarNode> allNodes = new HashMap<>();
-
-        AStarNode startNode = new AStarNode(start);
-        startNode.setGCost(0.0);                         // start.g = 0
-        startNode.setHCost(heuristic(start, goal));      // start.h = heuristic(start, goal)
-        startNode.setParent(null);                       // start.parent = null
-
-        openList.add(startNode);
-        allNodes.put(start, startNode);
-
-        // while openList is not empty:
-        while (!openList.isEmpty()) {
-            // current = node in openList with lowest f value
-            AStarNode current = openList.poll();
-            Point currentPoint = current.getPoint();
-
-            // if current = goal: return reconstruct_path(current)
-            if (isGoal(currentPoint, goal)) {
-                return reconstructPath(current);  // your existing helper
-            }
-
-            // Move current from open to closed
-            closedList.add(currentPoint);
-
-            // for each neighbor of current:
-            for (Point neighborPoint : getNeighbours(currentPoint, restrictedAreas)) {
-                // if neighbor in closedList: continue
-                if (closedList.contains(neighborPoint)) {
-                    continue;
-                }
-
-                // tentative_g = current.g + distance(current, neighbor)
-                double tentativeG =
-                        current.getGCost() + 1;
-
-                // Lookup or create neighbor node
-                AStarNode neighbor = allNodes.get(neighborPoint);
-
-                if (neighbor == null) {
-                    // neighbor not in openList
-                    neighbor = new AStarNode(neighborPoint);
-                    allNodes.put(neighborPoint, neighbor);
-                    // We will add it to openList after we set costs below
-
-                } else if (tentativeG >= neighbor.getGCost()) {
-                    // else if tentative_g >= neighbor.g: continue
-                    // This path is not better
-                    continue;
+    /**
+     * Like {@link #flightPath}, for a leg from service point {@code base} to one of {@code deliveries}. The
+     * first such leg from {@code base} that is not cached plans the legs to all of {@code deliveries} in one
+     * search and keeps them in {@code planned}, so later misses from the same base need no search.
+     */
+    private List<Point> flightPathFromBase(ReferenceDataSnapshot snapshot, ObstacleMap obstacles, PlannerEngine engine,
+                                           Point base, Point to, List<Point> deliveries, Map<FlightLeg, List<Point>> planned) {
+        return flightPaths.get(FlightLeg.of(base, to, engine), snapshot, leg -> {
+            if (!planned.containsKey(leg)) {
+                List<List<Point>> paths = pathPlanners.get(engine).planAll(base, deliveries, obstacles);
+                for (int k = 0; k < deliveries.size(); k++) {
+                    planned.putIfAbsent(FlightLeg.of(base, deliveries.get(k), engine), List.copyOf(paths.get(k)));
                 }
-
-                // This path is the best so far:
-                // neighbor.parent = current
-                neighbor.setParent(current);
-                // neighbor.g = tentative_g
-                neighbor.setGCost(tentativeG);
-                // neighbor.h = heuristic(neighbor, goal)
-                neighbor.setHCost(heuristic(neighborPoint, goal));
-                // neighbor.f = neighbor.g + neighbor.h  (implicit via getFCost/compareTo)
-
-                // If neighbor not in openList, or if we improved it, ensure it's in openList
-                openList.add(neighbor);
             }
-        }
-        // return failure because no path exists
-        return Collections.emptyList();
+            return planned.computeIfAbsent(leg, missing -> List.copyOf(pathPlanners.get(engine).plan(base, to, obstacles)));
+        }, path -> !path.isEmpty(), flightPathRepair(snapshot, obstacles, engine, to));
     }
 
-    public List<Region> getRestrictedAreas() {
-        RestrictedArea[] restrictedAreas = restTemplate.getForObject(ilpEndPoint + "/restricted-areas", RestrictedArea[].class);
-
-        if (restrictedAreas == null) {
-            return List.of();
-        }
-
-        List<Region> regions = new ArrayList<>();
-
-        for (RestrictedArea area : restrictedAreas) {
-            List<Point> regionVertices = area.getVertices().stream()
-                    .map(v -> Point.builder()
-                            .lng(v.getLng())
-                            .lat(v.getLat())
-                            .build())
-                    .collect(Collectors.toList());
-
-            Region region = Region.builder()
-                    .name(area.getName())
-                    .vertices(regionVertices)
-                    .build();
+    /**
+     * @return a copy of {@code path} ending with a hover, i.e. with its last position repeated
+     */
+    private static List<Point> withHover(List<Point> path) {
+        List<Point> hovering = new ArrayList<>(path.size() + 1);
+        hovering.addAll(path);
+        hovering.add(path.getLast());
+        return hovering;
+    }
 
-            regions.add(region);
-        }
-        return regions;
+    public List<Region> getRestrictedAreas() {
+        return referenceData.current().restrictedRegions();
     }
 
 
     private Map<Medicine, List<DroneServicePair>> getClosestServicePointsToDeliveries(
-            AvailabilityContext availabilityContext,
+            RequestContext requestContext,
             List<Medicine> medicines
     ) {
         Map<Medicine, List<DroneServicePair>> result = new HashMap<>();
 
-        for (Medicine medicine : medicines) {
+        // one search from all candidate service points at once to every delivery
+        Map<Integer, Integer> sourceIndex = new LinkedHashMap<>();
+        List<Point> sources = new ArrayList<>();
+        for (String droneId : requestContext.availableDroneIds()) {
+            int servicePointId = requestContext.droneToService().get(droneId);
+            if (sourceIndex.putIfAbsent(servicePointId, sources.size()) == null) {
+                sources.add(requestContext.servicePoint(servicePointId));
+            }
+        }
+        List<Point> targets = medicines.stream().map(Medicine::getDelivery).toList();
+        MultiSourceDistances distances = MultiSourceDistances.compute(
+                obstacleMap(requestContext.snapshot()), sources, targets, stepSize, searchMargin);
 
-            Point deliveryPoint = medicine.getDelivery();
+        for (int target = 0; target < medicines.size(); target++) {
+
+            Medicine medicine = medicines.get(target);
             List<DroneServicePair> rankedList = new ArrayList<>();
 
             // Build list of all (droneId, servicePointId) pairs
-            for (String droneIdStr : availabilityContext.availableDroneIds()) {
+            for (String droneIdStr : requestContext.availableDroneIds()) {
 
                 int droneId = Integer.parseInt(droneIdStr);
-                int servicePointId = availabilityContext.droneToService().get(droneIdStr);
+                int servicePointId = requestContext.droneToService().get(droneIdStr);
 
                 rankedList.add(DroneServicePair.builder().droneId(droneId).servicePointId(servicePointId).build());
             }
 
-            // Sort by distance from service point → delivery point
-            rankedList.sort(Comparator.comparingDouble(pair -> {
-                Point sp = availabilityContext.serviceIdToPoint().get(pair.getServicePointId());
-                return getDistance(
-                        PointRequest.builder()
-                                .position1(sp)
-                                .position2(deliveryPoint)
-                                .build()
-                );
-            }));
+            // Sort by moves around restricted areas from service point → delivery point
+            int deliveryIndex = target;
+            rankedList.sort(Comparator.comparingDouble(pair ->
+                    distances.moves(sourceIndex.get(pair.getServicePointId()), deliveryIndex)));
 
             result.put(medicine, rankedList);
         }
@@ -767,7 +658,12 @@ public class DroneServiceImpl implements DroneService {
 
     @Override
     public ObjectNode calcDeliveryPathAsGeoJson(List<Medicine> medDispatchRec) {
-        CalcDeliveryPathResult path = calcDeliveryPathSingleFlight(new ArrayList<>(medDispatchRec));
+        return calcDeliveryPathAsGeoJson(medDispatchRec, defaultPlannerEngine);
+    }
+
+    @Override
+    public ObjectNode calcDeliveryPathAsGeoJson(List<Medicine> medDispatchRec, PlannerEngine engine) {
+        CalcDeliveryPathResult path = calcDeliveryPathSingleFlight(new ArrayList<>(medDispatchRec), engine);
         List<DronePath> dronePaths = path.getDronePaths();
 
         if (dronePaths.isEmpty()) {
@@ -802,6 +698,41 @@ public class DroneServiceImpl implements DroneService {
         return featureCollection;
     }
 
+    private static ObjectNode getReachableAreaFeature(ObjectMapper mapper, List<Bounds> rectangles,
+                                                      String droneID, int servicePointID, int maxMoves) {
+        ObjectNode feature = mapper.createObjectNode();
+        feature.put("type", "Feature");
+
+        ObjectNode props = mapper.createObjectNode();
+        props.put("droneID", droneID);
+        props.put("servicePointID", servicePointID);
+        props.put("maxMoves", maxMoves);
+        feature.set("properties", props);
+
+        ObjectNode geometry = mapper.createObjectNode();
+        geometry.put("type", "MultiPolygon");
+
+        ArrayNode polygons = mapper.createArrayNode();
+        for (Bounds rectangle : rectangles) {
+            ArrayNode ring = mapper.createArrayNode();
+            double[][] corners = {
+                    {rectangle.minLng(), rectangle.minLat()}, {rectangle.maxLng(), rectangle.minLat()},
+                    {rectangle.maxLng(), rectangle.maxLat()}, {rectangle.minLng(), rectangle.maxLat()},
+                    {rectangle.minLng(), rectangle.minLat()}};
+            for (double[] corner : corners) {
+                ArrayNode coordinate = mapper.createArrayNode();
+                coordinate.add(corner[0]);
+                coordinate.add(corner[1]);
+                ring.add(coordinate);
+            }
+            polygons.add(mapper.createArrayNode().add(ring));
+        }
+
+        geometry.set("coordinates", polygons);
+        feature.set("geometry", geometry);
+        return feature;
+    }
+
     private static ObjectNode getGeoJsonNode(List<Point> route, String droneID, int totalMoves, double totalCost) {
         ObjectMapper mapper = new ObjectMapper();
 
@@ -852,11 +783,12 @@ public class DroneServiceImpl implements DroneService {
         return true;
     }
 
-    private CalcDeliveryPathResult calcDeliveryPathSingleFlight(List<Medicine> medDispatchRec) {
+    private CalcDeliveryPathResult calcDeliveryPathSingleFlight(List<Medicine> medDispatchRec, PlannerEngine engine) {
         // List<String> availableDroneIDs = getAvailableDrones(medDispatchRec);
-        AvailabilityContext availabilityContext = getAvailableDronesLogic(medDispatchRec);
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        RequestContext requestContext = getAvailableDronesLogic(snapshot, medDispatchRec);
 
-        if (availabilityContext.availableDroneIds().isEmpty()) {
+        if (requestContext.availableDroneIds().isEmpty()) {
             logger.info("No drone can do these deliveries in one flight sequence");
             return CalcDeliveryPathResult.builder().build();
         }
@@ -866,22 +798,22 @@ public class DroneServiceImpl implements DroneService {
                         Comparator.nullsLast(Comparator.naturalOrder())));
 
         Map<Integer, List<Delivery>> pathFromServicePoint = new HashMap<>();
-        List<Region> restrictedRegions = getRestrictedAreas();
+        ObstacleMap obstacles = obstacleMap(snapshot);
         double totalCapacityRequired = medDispatchRec.stream()
                 .mapToDouble(med -> med.getRequirements().getCapacity())
                 .sum();
 
-        for (String droneID: availabilityContext.availableDroneIds()) {
+        for (String droneID: requestContext.availableDroneIds()) {
             logger.info("Trying drone '{}' for completing all deliveries in one go.", droneID);
-            Drone drone = getDroneDetails(droneID);
+            Drone drone = requestContext.catalog().getDrone(droneID);
             Capabilities droneCap = drone.getCapability();
 
             if (totalCapacityRequired > droneCap.getCapacity()) {
                 continue;
             }
 
-            int servicePointID = availabilityContext.droneToService().get(droneID);
-            Point servicePoint = availabilityContext.serviceIdToPoint().get(servicePointID);
+            int servicePointID = requestContext.droneToService().get(droneID);
+            Point servicePoint = requestContext.servicePoint(servicePointID);
 
             if (pathFromServicePoint.containsKey(servicePointID)) {
                 List<Delivery> deliveries = pathFromServicePoint.get(servicePointID);
@@ -902,15 +834,15 @@ public class DroneServiceImpl implements DroneService {
                 boolean atLeastOneMedNotDelivered = false;
                 for (Medicine medicine : medDispatchRec) {
                     to = medicine.getDelivery();
-                    List<Point> path = aStar(from, to, restrictedRegions);
+                    List<Point> leg = flightPath(snapshot, obstacles, engine, from, to);
 
-                    if (path.isEmpty()) {
+                    if (leg.isEmpty()) {
                         logger.info("Medicine '{}' can't be delivered", medicine.getId());
                         atLeastOneMedNotDelivered = true;
                         break;
                     }
 
-                    path.add(path.getLast());
+                    List<Point> path = withHover(leg);
                     totalMoves += path.size() - 1;
                     Delivery delivery = Delivery.builder().deliveryId(medicine.getId()).flightPath(path).build();
                     deliveriesByDrone.add(delivery);
@@ -922,7 +854,7 @@ public class DroneServiceImpl implements DroneService {
                 }
 
                 to = servicePoint;
-                List<Point> returnPath = aStar(from, to, restrictedRegions);
+                List<Point> returnPath = flightPath(snapshot, obstacles, engine, from, to);
                 if (returnPath.isEmpty()) {
                     logger.info("No return path exists from the last delivery. Checking new drone.");
                     continue;
@@ -972,12 +904,12 @@ public class DroneServiceImpl implements DroneService {
         return medsGroupedByTime;
     }
 
-    private Map<Medicine, List<DroneServicePair>> availableDronesRankedForEachMed(List<Medicine> medicines) {
+    private Map<Medicine, List<DroneServicePair>> availableDronesRankedForEachMed(ReferenceDataSnapshot snapshot, List<Medicine> medicines) {
         Map<Medicine, List<DroneServicePair>> rankedDroneMap = new HashMap<>();
         for (Medicine medicine : medicines) {
             // List<String> availableDroneIDs = getAvailableDrones(List.of(medicine));
-            AvailabilityContext availabilityContext = getAvailableDronesLogic(List.of(medicine));
-            Map<Medicine, List<DroneServicePair>> rankedDronesForMed = getClosestServicePointsToDeliveries(availabilityContext, List.of(medicine));
+            RequestContext requestContext = getAvailableDronesLogic(snapshot, List.of(medicine));
+            Map<Medicine, List<DroneServicePair>> rankedDronesForMed = getClosestServicePointsToDeliveries(requestContext, List.of(medicine));
             rankedDroneMap.put(medicine, rankedDronesForMed.get(medicine));
         }
         return rankedDroneMap;
@@ -985,12 +917,18 @@ public class DroneServiceImpl implements DroneService {
 
     @Override
     public CalcDeliveryPathResult calcDeliveryPath(List<Medicine> medDispatchRec) {
+        return calcDeliveryPath(medDispatchRec, defaultPlannerEngine);
+    }
+
+    @Override
+    public CalcDeliveryPathResult calcDeliveryPath(List<Medicine> medDispatchRec, PlannerEngine engine) {
 
         double totalCost = 0.0;
         int totalMoves = 0;
 
         Map<String, List<Delivery>> deliveries = new HashMap<>();
-        List<Region> restrictedAreas = getRestrictedAreas();
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        ObstacleMap obstacles = obstacleMap(snapshot);
 
         // Group medicines by day
         medDispatchRec.sort(Comparator.comparing(
@@ -1017,18 +955,22 @@ public class DroneServiceImpl implements DroneService {
                 // List<String> availableDrones = getAvailableDrones(medicineTimeList);
 
                 // fix for concurrent stuff
-                AvailabilityContext availabilityContext = getAvailableDronesLogic(medicineTimeList);
+                RequestContext requestContext = getAvailableDronesLogic(snapshot, medicineTimeList);
 
                 // if availableDrones is an empty list, call a method which for each medicine,
                 // individually checks what drones satisfy it and rank these using the same logic
                 // as getClosestServicePointsToDeliveries
                 Map<Medicine, List<DroneServicePair>> rankedDroneMap;
-                if (availabilityContext.availableDroneIds().isEmpty()) {
-                    rankedDroneMap = availableDronesRankedForEachMed(medicineTimeList);
+                if (requestContext.availableDroneIds().isEmpty()) {
+                    rankedDroneMap = availableDronesRankedForEachMed(snapshot, medicineTimeList);
                 } else {
-                    rankedDroneMap = getClosestServicePointsToDeliveries(availabilityContext, medicineTimeList);
+                    rankedDroneMap = getClosestServicePointsToDeliveries(requestContext, medicineTimeList);
                 }
 
+                // legs from a service point are planned to all of this window's deliveries at once
+                List<Point> windowDeliveries = medicineTimeList.stream().map(Medicine::getDelivery).toList();
+                Map<FlightLeg, List<Point>> plannedFromBase = new HashMap<>();
+
                 int i = 0;
 
                 while (i < medicineTimeList.size()) {
@@ -1041,8 +983,8 @@ public class DroneServiceImpl implements DroneService {
                         String droneId = String.valueOf(pair.getDroneId());
                         int servicePointId = pair.getServicePointId();
 
-                        Drone drone = getDroneDetails(droneId);
-                        Point base = availabilityContext.serviceIdToPoint().get(servicePointId);
+                        Drone drone = requestContext.catalog().getDrone(droneId);
+                        Point base = requestContext.servicePoint(servicePointId);
 
                         int movesLeft = drone.getCapability().getMaxMoves();
                         double capacityLeft = drone.getCapability().getCapacity();
@@ -1052,6 +994,7 @@ public class DroneServiceImpl implements DroneService {
                         int forwardMoves = 0;
 
                         Point current = base;
+                        List<Point> ret = List.of();
                         int j = i;
 
                         while (j < medicineTimeList.size()) {
@@ -1059,11 +1002,21 @@ public class DroneServiceImpl implements DroneService {
                             double medCapacity = med.getRequirements().getCapacity();
                             Point dest = med.getDelivery();
 
-                            List<Point> forwardPath = aStar(current, dest, restrictedAreas);
-                            forwardPath.add(forwardPath.getLast());
+                            List<Point> forwardLeg = current == base
+                                    ? flightPathFromBase(snapshot, obstacles, engine, base, dest, windowDeliveries, plannedFromBase)
+                                    : flightPath(snapshot, obstacles, engine, current, dest);
+                            if (forwardLeg.isEmpty()) {
+                                logger.info("Medicine '{}' can't be reached from '{}'", med.getId(), current);
+                                break;
+                            }
+                            List<Point> forwardPath = withHover(forwardLeg);
                             int movesNeeded = forwardPath.size() - 1;
 
-                            List<Point> returnPath = aStar(forwardPath.getLast(), base, restrictedAreas);
+                            List<Point> returnPath = flightPath(snapshot, obstacles, engine, forwardPath.getLast(), base);
+                            if (returnPath.isEmpty()) {
+                                logger.info("No return path to the service point after medicine '{}'", med.getId());
+                                break;
+                            }
                             int returnMoves = returnPath.size() - 1;
 
                             if (movesNeeded + returnMoves <= movesLeft &&
@@ -1083,6 +1036,7 @@ public class DroneServiceImpl implements DroneService {
                                 capacityLeft -= medCapacity;
 
                                 current = forwardPath.getLast();
+                                ret = returnPath;
                                 j++;
                             } else {
                                 break;
@@ -1093,7 +1047,7 @@ public class DroneServiceImpl implements DroneService {
                             continue;
                         }
 
-                        List<Point> ret = aStar(current, base, restrictedAreas);
+                        // the return leg from the last delivery was already planned above
                         thisFlightDeliveries.add(
                                 Delivery.builder()
                                         .deliveryId(null)
@@ -1213,7 +1167,8 @@ public class DroneServiceImpl implements DroneService {
 
     @Override
     public boolean deliveryLocationAccessible(Point point) {
-        List<Region> restrictedAreas = getRestrictedAreas();
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        List<Region> restrictedAreas = snapshot.restrictedRegions();
         boolean deliveryPossible = true;
 
         for (Region area : restrictedAreas) {
@@ -1228,6 +1183,52 @@ public class DroneServiceImpl implements DroneService {
             }
         }
 
-        return deliveryPossible;
+        if (!deliveryPossible) {
+            return false;
+        }
+
+        // outside every restricted area; also needs a drone that can get there and back
+        for (int servicePointId : snapshot.catalog().getServicePointIdsWithDrones()) {
+            ReachableArea area = reachableArea(snapshot, servicePointId);
+            if (area != null && area.reachable(point.getLng(), point.getLat(), area.maxMoves())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ObjectNode getReachableAreaAsGeoJson(String droneId, Integer servicePointId) {
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        DroneCatalog catalog = snapshot.catalog();
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode features = mapper.createArrayNode();
+
+        if (droneId != null) {
+            Drone drone = catalog.getDrone(droneId);
+            if (drone == null || drone.getCapability().getMaxMoves() == null) {
+                return null;
+            }
+            int maxMoves = drone.getCapability().getMaxMoves();
+            for (int stationedAt : catalog.getServicePointIds(droneId)) {
+                ReachableArea area = reachableArea(snapshot, stationedAt);
+                if (area != null && (servicePointId == null || servicePointId == stationedAt)) {
+                    features.add(getReachableAreaFeature(mapper, area.rectangles(maxMoves), droneId, stationedAt, maxMoves));
+                }
+            }
+        } else {
+            ReachableArea area = reachableArea(snapshot, servicePointId);
+            if (area != null) {
+                features.add(getReachableAreaFeature(mapper, area.rectangles(area.maxMoves()), null, servicePointId, area.maxMoves()));
+            }
+        }
+
+        if (features.isEmpty()) {
+            return null;
+        }
+        ObjectNode featureCollection = mapper.createObjectNode();
+        featureCollection.put("type", "FeatureCollection");
+        featureCollection.set("features", features);
+        return featureCollection;
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package ilp_submission_2.upstream;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal circuit breaker guarding calls to the ILP service.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the breaker opens and calls are rejected
+ * immediately, so callers stop paying the full timeout while the upstream is down. Once
+ * {@code openMillis} has passed the breaker goes half-open and lets trial calls through:
+ * the first success closes it again, the first failure re-opens it for another period.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, long openMillis, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return true if a call may proceed, false if it should be rejected without contacting the upstream
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        return state != State.OPEN;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
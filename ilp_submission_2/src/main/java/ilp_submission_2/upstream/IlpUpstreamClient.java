@@ -0,0 +1,244 @@
+package ilp_submission_2.upstream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP client for the ILP REST service.
+ * <p>
+ * Built on the JDK {@link HttpClient}, which keeps connections alive and reuses them across requests,
+ * and negotiates HTTP/2 where the server supports it. The number of concurrent requests, and so the
+ * number of pooled connections, is bounded by {@code ilp.upstream.max_connections}. Every request
+ * carries the timeout configured for its endpoint, so a slow upstream can no longer block a request
+ * thread indefinitely.
+ * <p>
+ * Concurrent requests for the same path are coalesced: one request goes upstream and every caller
+ * shares its result. Conditional requests are only coalesced with those carrying the same validators.
+ * <p>
+ * Calls go through a {@link CircuitBreaker}: after repeated connection failures, timeouts or 5xx
+ * responses the upstream is considered down and requests are rejected immediately instead of each
+ * waiting out its timeout, until the breaker lets a trial request through again.
+ */
+public class IlpUpstreamClient {
+    private static final Logger logger = LoggerFactory.getLogger(IlpUpstreamClient.class);
+
+    private final String ilpEndPoint;
+    private final UpstreamClientProperties properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Semaphore connections;
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    private final CircuitBreaker circuitBreaker;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder poolWaits = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder http11Responses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    public IlpUpstreamClient(String ilpEndPoint, UpstreamClientProperties properties, ObjectMapper objectMapper) {
+        this.ilpEndPoint = ilpEndPoint.endsWith("/") ? ilpEndPoint.substring(0, ilpEndPoint.length() - 1) : ilpEndPoint;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.connections = new Semaphore(properties.getMaxConnections(), true);
+        this.circuitBreaker = new CircuitBreaker(properties.getCircuitBreakerFailureThreshold(), properties.getCircuitBreakerOpenMs());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * GETs a path of the ILP service and deserializes the JSON body.
+     * <p>
+     * If the same path is already being fetched by another thread, waits for and returns that result
+     * instead of sending a second request. Callers must therefore treat the result as read-only.
+     *
+     * @param path the path relative to the ILP endpoint, e.g. {@code /drones}
+     * @param type the type to deserialize into
+     * @return the deserialized body, or {@code null} if the body was empty
+     * @throws UpstreamException if the request fails, times out, returns a non-2xx status or the circuit is open
+     */
+    public <T> T getForObject(String path, Class<T> type) {
+        return type.cast(singleFlight.execute(path + " " + type.getName(), () -> fetchAndParse(path, type)));
+    }
+
+    private <T> T fetchAndParse(String path, Class<T> type) {
+        return parse(path, send(path, null, null).body(), type);
+    }
+
+    /**
+     * GETs a path of the ILP service, asking the upstream to answer {@code 304 Not Modified}
+     * if the resource still matches the given validators. The body is returned unparsed so the
+     * caller can decide whether it needs deserializing at all.
+     * <p>
+     * Concurrent calls for the same path with the same validators are coalesced like
+     * {@link #getForObject(String, Class)}, so callers must not modify the returned body.
+     *
+     * @param path         the path relative to the ILP endpoint, e.g. {@code /drones}
+     * @param etag         sent as {@code If-None-Match} unless {@code null}
+     * @param lastModified sent as {@code If-Modified-Since} unless {@code null}
+     * @return the raw response
+     * @throws UpstreamException if the request fails, times out, returns another non-2xx status or the circuit is open
+     */
+    public UpstreamResponse getConditional(String path, String etag, String lastModified) {
+        String key = path + " If-None-Match: " + etag + " If-Modified-Since: " + lastModified;
+        return (UpstreamResponse) singleFlight.execute(key, () -> fetchConditional(path, etag, lastModified));
+    }
+
+    private UpstreamResponse fetchConditional(String path, String etag, String lastModified) {
+        HttpResponse<byte[]> response = send(path, etag, lastModified);
+        return new UpstreamResponse(
+                response.statusCode(),
+                response.body(),
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+    }
+
+    /**
+     * Deserializes a body previously returned by {@link #getConditional(String, String, String)}.
+     *
+     * @return the deserialized body, or {@code null} if the body was empty
+     * @throws UpstreamException if the body is not valid JSON for {@code type}
+     */
+    public <T> T parse(String path, byte[] body, Class<T> type) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UpstreamException("Could not parse response of " + path, e);
+        }
+    }
+
+    private HttpResponse<byte[]> send(String path, String etag, String lastModified) {
+        Duration timeout = properties.timeoutFor(path);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(ilpEndPoint + path))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+        HttpRequest request = builder.build();
+
+        if (!circuitBreaker.allowRequest()) {
+            rejected.increment();
+            throw new UpstreamException("Circuit open, not calling " + path);
+        }
+
+        acquireConnection(path, timeout);
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+        requests.increment();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.increment();
+            } else {
+                http11Responses.increment();
+            }
+
+            if (response.statusCode() >= 500) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+
+            if (response.statusCode() == 304) {
+                notModified.increment();
+                return response;
+            }
+            if (response.statusCode() / 100 != 2) {
+                failures.increment();
+                throw new UpstreamException("GET " + path + " returned status " + response.statusCode());
+            }
+            return response;
+        } catch (HttpTimeoutException e) {
+            circuitBreaker.onFailure();
+            failures.increment();
+            timeouts.increment();
+            throw new UpstreamException("GET " + path + " timed out after " + timeout.toMillis() + " ms", e);
+        } catch (IOException e) {
+            circuitBreaker.onFailure();
+            failures.increment();
+            throw new UpstreamException("GET " + path + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.increment();
+            throw new UpstreamException("GET " + path + " interrupted", e);
+        } finally {
+            inFlight.decrementAndGet();
+            connections.release();
+        }
+    }
+
+    private void acquireConnection(String path, Duration timeout) {
+        if (connections.tryAcquire()) {
+            return;
+        }
+
+        poolWaits.increment();
+        logger.debug("Upstream pool exhausted, waiting for a connection for '{}'", path);
+        try {
+            if (!connections.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                failures.increment();
+                timeouts.increment();
+                throw new UpstreamException("No upstream connection available for " + path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamException("Interrupted waiting for an upstream connection", e);
+        }
+    }
+
+    /**
+     * @return the state of the circuit breaker guarding upstream calls
+     */
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * @return the current pool statistics
+     */
+    public UpstreamClientStatistics statistics() {
+        return new UpstreamClientStatistics(
+                properties.getMaxConnections(),
+                inFlight.get(),
+                peakInFlight.get(),
+                requests.sum(),
+                failures.sum(),
+                timeouts.sum(),
+                poolWaits.sum(),
+                http2Responses.sum(),
+                http11Responses.sum(),
+                singleFlight.coalesced(),
+                circuitBreaker.getState().name(),
+                rejected.sum(),
+                notModified.sum());
+    }
+}
@@ -0,0 +1,82 @@
+package ilp_submission_2.upstream;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution.
+ * <p>
+ * The first caller for a key runs the loader; callers arriving while it is still running wait for
+ * and share its result, or its failure. Once the call completes the key is released, so the next
+ * caller starts a fresh execution - nothing is cached beyond the lifetime of the in-flight call.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs {@code loader} for {@code key}, or joins a call for the same key that is already in flight.
+     *
+     * @param key    identifies the call, e.g. a URL
+     * @param loader produces the result; only invoked by the leading caller
+     * @return the shared result
+     * @throws RuntimeException the loader's failure, rethrown to every caller sharing the call
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return how many times a loader actually ran
+     */
+    public long executions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return how many callers shared another caller's in-flight execution instead of running their own
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+}
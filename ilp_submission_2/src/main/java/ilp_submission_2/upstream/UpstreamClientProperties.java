@@ -0,0 +1,55 @@
+package ilp_submission_2.upstream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tuning for the ILP upstream client, bound from {@code ilp.upstream.*}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ilp.upstream")
+public class UpstreamClientProperties {
+    /**
+     * Upper bound on concurrent upstream requests, and therefore on open connections.
+     * */
+    private int maxConnections = 16;
+
+    /**
+     * How long to wait for a TCP/TLS connection to be established.
+     * */
+    private long connectTimeoutMs = 2000;
+
+    /**
+     * Request timeout for endpoints without an entry in {@link #endpointTimeoutsMs}.
+     * */
+    private long defaultTimeoutMs = 5000;
+
+    /**
+     * Per-endpoint request timeouts, keyed by path without the leading slash, e.g. {@code drones}.
+     * */
+    private Map<String, Long> endpointTimeoutsMs = new HashMap<>();
+
+    /**
+     * Consecutive failed requests after which the circuit opens and requests are rejected without being sent.
+     * */
+    private int circuitBreakerFailureThreshold = 5;
+
+    /**
+     * How long the circuit stays open before a trial request is let through.
+     * */
+    private long circuitBreakerOpenMs = 30000;
+
+    /**
+     * Resolves the request timeout of a path such as {@code /drones}.
+     */
+    public Duration timeoutFor(String path) {
+        String key = path.startsWith("/") ? path.substring(1) : path;
+        return Duration.ofMillis(endpointTimeoutsMs.getOrDefault(key, defaultTimeoutMs));
+    }
+}
@@ -0,0 +1,34 @@
+package ilp_submission_2.upstream;
+
+/**
+ * Point-in-time counters of the ILP upstream client's connection pool.
+ *
+ * @param maxConnections  configured pool bound
+ * @param inFlight        requests currently holding a connection
+ * @param peakInFlight    highest number of concurrent requests seen
+ * @param requests        requests sent
+ * @param failures        requests that failed, including timeouts
+ * @param timeouts        requests that exceeded their connect or request timeout
+ * @param poolWaits       requests that had to wait for a free connection
+ * @param http2Responses  responses received over HTTP/2
+ * @param http11Responses responses received over HTTP/1.1
+ * @param coalesced       calls that shared an identical in-flight request instead of sending their own
+ * @param circuitState    state of the circuit breaker, {@code CLOSED}, {@code OPEN} or {@code HALF_OPEN}
+ * @param rejected        calls rejected without contacting the upstream because the circuit was open
+ * @param notModified     conditional requests answered with {@code 304 Not Modified}
+ */
+public record UpstreamClientStatistics(
+        int maxConnections,
+        int inFlight,
+        int peakInFlight,
+        long requests,
+        long failures,
+        long timeouts,
+        long poolWaits,
+        long http2Responses,
+        long http11Responses,
+        long coalesced,
+        String circuitState,
+        long rejected,
+        long notModified
+) {}
@@ -0,0 +1,21 @@
+package ilp_submission_2.upstream;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint exposing the upstream client's pool statistics at {@code /actuator/upstream}.
+ */
+@Endpoint(id = "upstream")
+public class UpstreamEndpoint {
+    private final IlpUpstreamClient client;
+
+    public UpstreamEndpoint(IlpUpstreamClient client) {
+        this.client = client;
+    }
+
+    @ReadOperation
+    public UpstreamClientStatistics statistics() {
+        return client.statistics();
+    }
+}
@@ -0,0 +1,14 @@
+package ilp_submission_2.upstream;
+
+/**
+ * Thrown when a call to the ILP service fails, times out or returns a non-2xx status.
+ */
+public class UpstreamException extends RuntimeException {
+    public UpstreamException(String message) {
+        super(message);
+    }
+
+    public UpstreamException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,18 @@
+package ilp_submission_2.upstream;
+
+/**
+ * Raw response of a conditional GET against the ILP service.
+ *
+ * @param status       the HTTP status, 2xx or {@code 304 Not Modified}
+ * @param body         the raw body, empty for {@code 304}
+ * @param etag         the {@code ETag} header, {@code null} if absent
+ * @param lastModified the {@code Last-Modified} header, {@code null} if absent
+ */
+public record UpstreamResponse(int status, byte[] body, String etag, String lastModified) {
+    /**
+     * @return true if the upstream confirmed the resource is unchanged
+     */
+    public boolean notModified() {
+        return status == 304;
+    }
+}
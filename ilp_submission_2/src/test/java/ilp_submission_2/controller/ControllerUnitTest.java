@@ -1,7 +1,10 @@
 package ilp_submission_2.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import ilp_submission_2.dtos.CalcDeliveryPathResult;
 import ilp_submission_2.dtos.Point;
+import ilp_submission_2.pathfinding.PlannerEngine;
 import ilp_submission_2.service.DroneService;
 import ilp_submission_2.service.MedStockService;
 import org.junit.jupiter.api.DisplayName;
@@ -476,6 +479,32 @@ public class ControllerUnitTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Planner Chosen By Query Parameter")
+    public void plannerChosenByQueryParameter() throws Exception {
+        Mockito.when(droneService.calcDeliveryPath(Mockito.any(), Mockito.eq(PlannerEngine.VISIBILITY)))
+                .thenReturn(CalcDeliveryPathResult.builder().totalMoves(7).build());
+        String jsonRequest = """
+                [
+                  {
+                    "id": 123,
+                    "requirements": {
+                      "capacity": 4
+                    },
+                    "delivery": {
+                      "lng": -3.18335807889864,
+                      "lat": 55.9476806670849
+                    }
+                  }
+                ]
+                """;
+        mockMvc.perform(post("/api/v1/calcDeliveryPath?planner=VISIBILITY")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalMoves").value(7));
+    }
+
     @Test
     @DisplayName("Valid Request Including Optional Fields")
     public void validRequestIncludingOptionalFields() throws Exception {
@@ -835,4 +864,19 @@ public class ControllerUnitTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Reachable area needs a drone or a service point, and is not found for unknown ones")
+    public void reachableAreaParameters() throws Exception {
+        ObjectNode area = new ObjectMapper().createObjectNode().put("type", "FeatureCollection");
+        Mockito.when(droneService.getReachableAreaAsGeoJson("4", null)).thenReturn(area);
+
+        mockMvc.perform(get("/api/v1/reachableArea?droneId=4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("FeatureCollection"));
+        mockMvc.perform(get("/api/v1/reachableArea?servicePointId=99"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/reachableArea"))
+                .andExpect(status().isBadRequest());
+    }
+
 }
@@ -0,0 +1,80 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BidirectionalAStarPlannerTest {
+    private final LatticeAStarPlanner lattice = new LatticeAStarPlanner(STEP);
+    private final BidirectionalAStarPlanner planner = new BidirectionalAStarPlanner(STEP);
+
+    @Test
+    @DisplayName("Open field legs take as many moves as the one-sided search")
+    public void openFieldMatchesLattice() {
+        Random random = new Random(19);
+        for (int i = 0; i < 50; i++) {
+            Point start = point(-3.19, 55.94);
+            Point goal = point(-3.19 + (random.nextDouble() - 0.5) * 60 * STEP, 55.94 + (random.nextDouble() - 0.5) * 60 * STEP);
+
+            List<Point> path = planner.plan(start, goal, ObstacleMap.NONE);
+
+            assertFlyable(path, start, goal, ObstacleMap.NONE);
+            assertEquals(lattice.plan(start, goal, ObstacleMap.NONE).size(), path.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Detours around a wall are as short as the one-sided search's, with at most half the move checks")
+    public void detourWithFewerChecks() {
+        ObstacleMap wall = new RestrictedAreaIndex(List.of(
+                rectangle(-3.19 + 14 * STEP, 55.94 - 5 * STEP, -3.19 + 16 * STEP, 55.94 + 5 * STEP)));
+        int[] checks = {0};
+        ObstacleMap counting = new ObstacleMap() {
+            @Override
+            public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+                checks[0]++;
+                return wall.moveBlocked(fromLng, fromLat, toLng, toLat);
+            }
+
+            @Override
+            public Bounds bounds() {
+                return wall.bounds();
+            }
+        };
+        Point start = point(-3.19, 55.94);
+        Point goal = point(-3.19 + 30 * STEP, 55.94 + 0.3 * STEP);
+
+        List<Point> path = planner.plan(start, goal, counting);
+        int bidirectionalChecks = checks[0];
+        checks[0] = 0;
+        List<Point> oneSided = lattice.plan(start, goal, counting);
+
+        assertFlyable(path, start, goal, wall);
+        assertEquals(oneSided.size(), path.size());
+        assertTrue(2 * bidirectionalChecks < checks[0], bidirectionalChecks + " checks against " + checks[0]);
+    }
+
+    @Test
+    @DisplayName("Goals inside an area or enclosed by areas give an empty path")
+    public void unreachableGoals() {
+        PlannerProperties limits = new PlannerProperties();
+        limits.setMaxExpansions(5_000);
+        BidirectionalAStarPlanner bounded = new BidirectionalAStarPlanner(STEP, limits);
+        double lng = -3.19;
+        double lat = 55.94;
+        ObstacleMap box = new RestrictedAreaIndex(List.of(
+                rectangle(lng - 10 * STEP, lat - 10 * STEP, lng + 10 * STEP, lat - 8 * STEP),
+                rectangle(lng - 10 * STEP, lat + 8 * STEP, lng + 10 * STEP, lat + 10 * STEP),
+                rectangle(lng - 10 * STEP, lat - 10 * STEP, lng - 8 * STEP, lat + 10 * STEP),
+                rectangle(lng + 8 * STEP, lat - 10 * STEP, lng + 10 * STEP, lat + 10 * STEP)));
+
+        assertTrue(bounded.plan(point(lng - 40 * STEP, lat), point(lng - 9 * STEP, lat), box).isEmpty());
+        assertTrue(bounded.plan(point(lng - 40 * STEP, lat), point(lng, lat), box).isEmpty());
+    }
+}
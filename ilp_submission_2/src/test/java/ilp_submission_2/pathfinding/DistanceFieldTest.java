@@ -0,0 +1,63 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceFieldTest {
+    private static OccupancyBitmap wall() {
+        return new OccupancyBitmap(new RestrictedAreaIndex(List.of(
+                rectangle(LNG + 6 * STEP, LAT - 8 * STEP, LNG + 10 * STEP, LAT + 8 * STEP))), STEP);
+    }
+
+    private static DistanceField field(OccupancyBitmap obstacles, Point source) {
+        Bounds area = Bounds.of(source.getLng(), source.getLat(), source.getLng(), source.getLat())
+                .union(obstacles.bounds())
+                .expand(10 * STEP);
+        return DistanceField.build(obstacles, area, source, STEP);
+    }
+
+    @Test
+    @DisplayName("With nothing in the way the field gives the straight-line distance")
+    public void openFieldIsStraightLine() {
+        Point source = point(LNG, LAT);
+        DistanceField field = field(wall(), source);
+
+        assertEquals(4.5, field.movesTo(LNG - 4.5 * STEP, LAT), 1e-9);
+        assertEquals(5, field.movesTo(LNG + 3 * STEP, LAT - 4 * STEP), 1e-9);
+        assertEquals(60, field.movesTo(LNG - 60 * STEP, LAT), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Behind a wall the field exceeds the straight line without exceeding the way around")
+    public void wallAddsDetour() {
+        Point source = point(LNG, LAT);
+        DistanceField field = field(wall(), source);
+
+        for (double dLat : new double[]{0, 2.5, -4}) {
+            Point behind = point(LNG + 16 * STEP, LAT + dLat * STEP);
+            double straight = Math.hypot(16, dLat);
+            // over the nearer end of the wall, corner to corner
+            double around = Math.min(
+                    Math.hypot(6, 8) + 4 + Math.hypot(6, 8 - dLat),
+                    Math.hypot(6, 8) + 4 + Math.hypot(6, 8 + dLat));
+
+            double moves = field.movesTo(behind.getLng(), behind.getLat());
+            assertTrue(moves > straight + 1, moves + " against " + straight + " in a straight line");
+            assertTrue(moves <= around, moves + " against " + around + " around the wall");
+        }
+    }
+
+    @Test
+    @DisplayName("Positions deep inside a restricted area cannot be reached")
+    public void insideAreaUnreachable() {
+        DistanceField field = field(wall(), point(LNG, LAT));
+
+        assertEquals(Double.POSITIVE_INFINITY, field.movesTo(LNG + 8 * STEP, LAT));
+    }
+}
@@ -0,0 +1,71 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Points, restricted areas, distances and path checks shared by the path finding tests.
+ */
+final class Fixtures {
+    /**
+     * Length of one move, as in the service's default configuration.
+     * */
+    static final double STEP = 0.00015;
+    /**
+     * Longitude of the position the tests lay their areas out around.
+     * */
+    static final double LNG = -3.19;
+    /**
+     * Latitude of the position the tests lay their areas out around.
+     * */
+    static final double LAT = 55.94;
+
+    private Fixtures() {}
+
+    static Point point(double lng, double lat) {
+        return Point.builder().lng(lng).lat(lat).build();
+    }
+
+    static Region region(Point... vertices) {
+        return Region.builder().name("area").vertices(List.of(vertices)).build();
+    }
+
+    static Region rectangle(double minLng, double minLat, double maxLng, double maxLat) {
+        return rectangle("area", minLng, minLat, maxLng, maxLat);
+    }
+
+    static Region rectangle(String name, double minLng, double minLat, double maxLng, double maxLat) {
+        return Region.builder().name(name).vertices(List.of(
+                point(minLng, minLat), point(maxLng, minLat), point(maxLng, maxLat),
+                point(minLng, maxLat), point(minLng, minLat))).build();
+    }
+
+    static double distance(Point a, Point b) {
+        return Math.sqrt(Math.pow(a.getLng() - b.getLng(), 2) + Math.pow(a.getLat() - b.getLat(), 2));
+    }
+
+    /**
+     * Asserts that every move of the path is one step long and not blocked.
+     */
+    static void assertFlyable(List<Point> path, ObstacleMap obstacles) {
+        for (int i = 1; i < path.size(); i++) {
+            Point from = path.get(i - 1);
+            Point to = path.get(i);
+            assertEquals(STEP, distance(from, to), 1e-12, "move " + i);
+            assertFalse(obstacles.moveBlocked(from.getLng(), from.getLat(), to.getLng(), to.getLat()), "move " + i);
+        }
+    }
+
+    /**
+     * Like {@link #assertFlyable(List, ObstacleMap)}, and also that the path leaves from start and ends within one step of goal.
+     */
+    static void assertFlyable(List<Point> path, Point start, Point goal, ObstacleMap obstacles) {
+        assertEquals(start, path.getFirst());
+        assertTrue(distance(path.getLast(), goal) < STEP);
+        assertFlyable(path, obstacles);
+    }
+}
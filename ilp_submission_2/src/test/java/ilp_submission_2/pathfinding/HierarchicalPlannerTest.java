@@ -0,0 +1,55 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchicalPlannerTest {
+    private final LatticeAStarPlanner lattice = new LatticeAStarPlanner(STEP);
+
+    @Test
+    @DisplayName("Long legs are refined inside the coarse corridor and stay clear of the areas")
+    public void longLegWithinCorridor() {
+        List<ObstacleMap> searched = new ArrayList<>();
+        PathPlanner recording = (start, goal, obstacles) -> {
+            searched.add(obstacles);
+            return lattice.plan(start, goal, obstacles);
+        };
+        HierarchicalPlanner planner = new HierarchicalPlanner(recording, STEP);
+        ObstacleMap wall = new RestrictedAreaIndex(List.of(
+                rectangle(-3.19 + 30 * STEP, 55.94 - 6 * STEP, -3.19 + 32 * STEP, 55.94 + 6 * STEP)));
+        Point start = point(-3.19, 55.94);
+        Point goal = point(-3.19 + 60 * STEP, 55.94);
+
+        List<Point> path = planner.plan(start, goal, wall);
+
+        assertEquals(1, searched.size());
+        assertNotSame(wall, searched.getFirst());
+        assertSame(wall, searched.getFirst().underlying());
+        assertTrue(distance(path.getLast(), goal) < STEP);
+        assertFlyable(path, wall);
+        int fewest = lattice.plan(start, goal, wall).size() - 1;
+        assertTrue(path.size() - 1 <= fewest + 2, (path.size() - 1) + " moves against " + fewest);
+    }
+
+    @Test
+    @DisplayName("Short legs go to the fine planner without a corridor")
+    public void shortLegUnconfined() {
+        List<ObstacleMap> searched = new ArrayList<>();
+        PathPlanner recording = (start, goal, obstacles) -> {
+            searched.add(obstacles);
+            return lattice.plan(start, goal, obstacles);
+        };
+        HierarchicalPlanner planner = new HierarchicalPlanner(recording, STEP);
+
+        planner.plan(point(-3.19, 55.94), point(-3.19 + 5 * STEP, 55.94), ObstacleMap.NONE);
+
+        assertEquals(List.of(ObstacleMap.NONE), searched);
+    }
+}
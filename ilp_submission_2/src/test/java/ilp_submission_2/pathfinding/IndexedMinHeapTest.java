@@ -0,0 +1,65 @@
+package ilp_submission_2.pathfinding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedMinHeapTest {
+    @Test
+    @DisplayName("Lowering a queued node's priority moves it up")
+    public void decreasePriority() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.offer(0, 1, 0);
+        heap.offer(1, 2, 0);
+        heap.offer(2, 3, 0);
+
+        heap.offer(2, 0.5, 0);
+
+        assertEquals(3, heap.size());
+        assertEquals(2, heap.poll());
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+    }
+
+    @Test
+    @DisplayName("Raising a queued node's priority moves it down")
+    public void increasePriority() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.offer(0, 1, 0);
+        heap.offer(1, 2, 0);
+        heap.offer(2, 3, 0);
+
+        heap.offer(0, 5, 0);
+
+        assertEquals(3, heap.size());
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(0, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Polls come out in priority order after many raised and lowered priorities")
+    public void mixedChangesKeepOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(8);
+        Random random = new Random(7);
+        double[] priorities = new double[200];
+        for (int i = 0; i < 2000; i++) {
+            int node = random.nextInt(priorities.length);
+            priorities[node] = random.nextDouble();
+            heap.offer(node, priorities[node], 0);
+        }
+
+        double last = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            double top = heap.peekPriority();
+            int node = heap.poll();
+            assertEquals(priorities[node], top);
+            assertTrue(top >= last);
+            last = top;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandmarksTest {
+    private static OccupancyBitmap wall() {
+        return new OccupancyBitmap(new RestrictedAreaIndex(List.of(
+                rectangle(LNG + 14 * STEP, LAT - 6 * STEP, LNG + 16 * STEP, LAT + 6 * STEP))), STEP);
+    }
+
+    @Test
+    @DisplayName("Landmark bounds never exceed the moves the lattice search needs")
+    public void boundsAreAdmissible() {
+        OccupancyBitmap wall = wall();
+        Point goal = point(LNG + 24 * STEP, LAT);
+        Landmarks landmarks = Landmarks.build(wall, List.of(goal), STEP, 10 * STEP);
+        Landmarks.Estimate estimate = landmarks.towards(goal.getLng(), goal.getLat());
+        LatticeAStarPlanner lattice = new LatticeAStarPlanner(STEP);
+
+        Random random = new Random(20);
+        int tighter = 0;
+        for (int i = 0; i < 8; i++) {
+            Point start = point(LNG + random.nextDouble() * 12 * STEP, LAT + (random.nextDouble() - 0.5) * 8 * STEP);
+            int moves = lattice.plan(start, goal, wall).size() - 1;
+            double bound = estimate.moves(start.getLng(), start.getLat());
+
+            assertTrue(bound <= moves, bound + " against " + moves + " moves");
+            double dLng = goal.getLng() - start.getLng();
+            double dLat = goal.getLat() - start.getLat();
+            if (bound > Math.sqrt(dLng * dLng + dLat * dLat) / STEP) {
+                tighter++;
+            }
+        }
+        assertTrue(tighter > 4, tighter + " bounds tighter than the straight line");
+    }
+
+    @Test
+    @DisplayName("Searches behind an area check fewer moves with landmarks, for a path as short")
+    public void fewerChecksBehindWall() {
+        OccupancyBitmap wall = wall();
+        Point start = point(LNG, LAT);
+        Point goal = point(LNG + 24 * STEP, LAT);
+        LandmarkIndex index = new LandmarkIndex(STEP, 10 * STEP, Runnable::run);
+        index.ensure(wall, List.of(goal));
+        int[] checks = {0};
+        ObstacleMap counting = new ObstacleMap() {
+            @Override
+            public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+                checks[0]++;
+                return wall.moveBlocked(fromLng, fromLat, toLng, toLat);
+            }
+
+            @Override
+            public Bounds bounds() {
+                return wall.bounds();
+            }
+        };
+
+        List<Point> plain = new LatticeAStarPlanner(STEP).plan(start, goal, counting);
+        int plainChecks = checks[0];
+        checks[0] = 0;
+        LandmarkIndex forCounting = new LandmarkIndex(STEP, 10 * STEP, Runnable::run) {
+            @Override
+            public Landmarks landmarksFor(ObstacleMap obstacles) {
+                return index.landmarksFor(wall);
+            }
+        };
+        List<Point> guided = new LatticeAStarPlanner(STEP, new PlannerProperties(), forCounting).plan(start, goal, counting);
+
+        assertEquals(plain.size(), guided.size());
+        assertTrue(2 * checks[0] < plainChecks, checks[0] + " checks against " + plainChecks);
+    }
+
+    @Test
+    @DisplayName("Landmarks are only handed out for the obstacle map they were built for, once built")
+    public void rebuiltPerObstacleMap() {
+        List<Runnable> queued = new ArrayList<>();
+        LandmarkIndex index = new LandmarkIndex(STEP, 10 * STEP, queued::add);
+        OccupancyBitmap first = wall();
+        OccupancyBitmap second = wall();
+        List<Point> anchors = List.of(point(LNG, LAT));
+
+        index.ensure(first, anchors);
+        index.ensure(first, anchors);
+        assertEquals(1, queued.size());
+        assertNull(index.landmarksFor(first));
+
+        queued.removeFirst().run();
+        assertSame(first, index.landmarksFor(first).obstacles());
+        assertNull(index.landmarksFor(second));
+        ObstacleMap narrowed = new ObstacleMap() {
+            @Override
+            public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+                return first.moveBlocked(fromLng, fromLat, toLng, toLat);
+            }
+
+            @Override
+            public ObstacleMap underlying() {
+                return first;
+            }
+        };
+        assertSame(first, index.landmarksFor(narrowed).obstacles());
+
+        index.ensure(first, anchors);
+        assertTrue(queued.isEmpty());
+        index.ensure(second, anchors);
+        assertEquals(1, queued.size());
+    }
+}
@@ -0,0 +1,174 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatticeAStarPlannerTest {
+    private final LatticeAStarPlanner planner = new LatticeAStarPlanner(STEP);
+
+    @Test
+    @DisplayName("Open field paths are straight and end within one move of the goal")
+    public void straightPathInOpenField() {
+        Point start = point(-3.19, 55.94);
+        Point goal = point(-3.19 + 10.5 * STEP, 55.94);
+
+        List<Point> path = planner.plan(start, goal, ObstacleMap.NONE);
+
+        assertEquals(start.getLng(), path.getFirst().getLng());
+        assertTrue(distance(path.getLast(), goal) < STEP);
+        assertEquals(10, path.size() - 1);
+        for (int i = 1; i < path.size(); i++) {
+            assertEquals(STEP, distance(path.get(i - 1), path.get(i)), 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Paths detour around restricted areas without entering or crossing them")
+    public void detoursAroundWall() {
+        Point start = point(-3.19, 55.94);
+        Point goal = point(-3.19 + 20 * STEP, 55.94);
+        ObstacleMap wall = new PolygonObstacleMap(List.of(
+                rectangle(-3.19 + 8 * STEP, 55.94 - 6 * STEP, -3.19 + 10 * STEP, 55.94 + 6 * STEP)));
+
+        List<Point> path = planner.plan(start, goal, wall);
+
+        assertFalse(path.isEmpty());
+        assertTrue(path.size() - 1 > 20);
+        assertFlyable(path, wall);
+    }
+
+    @Test
+    @DisplayName("Reusing the workspace gives the same result and the returned path is mutable")
+    public void workspaceReuse() {
+        Point start = point(-3.19, 55.94);
+        Point goal = point(-3.188, 55.9425);
+
+        List<Point> first = planner.plan(start, goal, ObstacleMap.NONE);
+        List<Point> second = planner.plan(start, goal, ObstacleMap.NONE);
+
+        assertEquals(first, second);
+        second.add(second.getLast());
+        assertEquals(first.size() + 1, second.size());
+    }
+
+    @Test
+    @DisplayName("Goals inside a restricted area are rejected without searching")
+    public void goalInsideRestrictedArea() {
+        Point start = point(-3.19, 55.94);
+        Point goal = point(-3.19 + 9 * STEP, 55.94);
+        ObstacleMap wall = new PolygonObstacleMap(List.of(
+                rectangle(-3.19 + 8 * STEP, 55.94 - 6 * STEP, -3.19 + 10 * STEP, 55.94 + 6 * STEP)));
+        int[] moveChecks = {0};
+        ObstacleMap counting = new ObstacleMap() {
+            @Override
+            public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+                moveChecks[0]++;
+                return wall.moveBlocked(fromLng, fromLat, toLng, toLat);
+            }
+        };
+
+        assertTrue(planner.plan(start, goal, counting).isEmpty());
+        assertEquals(1, moveChecks[0]);
+    }
+
+    @Test
+    @DisplayName("Searches for an enclosed goal stop at the expansion limit")
+    public void enclosedGoalStopsAtLimit() {
+        PlannerProperties limits = new PlannerProperties();
+        limits.setMaxExpansions(5_000);
+        LatticeAStarPlanner bounded = new LatticeAStarPlanner(STEP, limits);
+
+        // a box of four walls around the goal
+        double lng = -3.19;
+        double lat = 55.94;
+        ObstacleMap box = new PolygonObstacleMap(List.of(
+                rectangle(lng - 10 * STEP, lat - 10 * STEP, lng + 10 * STEP, lat - 8 * STEP),
+                rectangle(lng - 10 * STEP, lat + 8 * STEP, lng + 10 * STEP, lat + 10 * STEP),
+                rectangle(lng - 10 * STEP, lat - 10 * STEP, lng - 8 * STEP, lat + 10 * STEP),
+                rectangle(lng + 8 * STEP, lat - 10 * STEP, lng + 10 * STEP, lat + 10 * STEP)));
+
+        List<Point> path = bounded.plan(point(lng - 40 * STEP, lat), point(lng, lat), box);
+
+        assertTrue(path.isEmpty());
+    }
+
+    @Test
+    @DisplayName("One search to several goals finds paths as short as separate searches, for fewer checks")
+    public void planAllMatchesSeparateSearches() {
+        double lng = -3.19;
+        double lat = 55.94;
+        ObstacleMap wall = new PolygonObstacleMap(List.of(
+                rectangle(lng + 8 * STEP, lat - 6 * STEP, lng + 10 * STEP, lat + 6 * STEP)));
+        Point start = point(lng, lat);
+        List<Point> goals = List.of(
+                point(lng + 20 * STEP, lat + 4.5 * STEP), point(lng + 18 * STEP, lat + 3.3 * STEP),
+                point(lng + 9 * STEP, lat), point(lng - 7.5 * STEP, lat - 4 * STEP),
+                point(lng + 22 * STEP, lat - 5.2 * STEP), point(lng + 19 * STEP, lat - 4 * STEP));
+        int[] checks = {0};
+        ObstacleMap counting = new ObstacleMap() {
+            @Override
+            public boolean moveBlocked(double fromLng, double fromLat, double toLng, double toLat) {
+                checks[0]++;
+                return wall.moveBlocked(fromLng, fromLat, toLng, toLat);
+            }
+
+            @Override
+            public boolean contains(double lng, double lat) {
+                return wall.contains(lng, lat);
+            }
+        };
+
+        List<List<Point>> separate = goals.stream().map(goal -> planner.plan(start, goal, counting)).toList();
+        int separateChecks = checks[0];
+        checks[0] = 0;
+        List<List<Point>> together = planner.planAll(start, goals, counting);
+
+        assertEquals(goals.size(), together.size());
+        assertTrue(together.get(2).isEmpty());
+        for (int g = 0; g < goals.size(); g++) {
+            List<Point> path = together.get(g);
+            assertEquals(separate.get(g).size(), path.size(), "goal " + g);
+            if (!path.isEmpty()) {
+                assertEquals(start, path.getFirst());
+                assertTrue(distance(path.getLast(), goals.get(g)) < STEP);
+            }
+        }
+        assertTrue(2 * checks[0] < separateChecks, checks[0] + " checks against " + separateChecks);
+    }
+
+    @Test
+    @DisplayName("Goals a one-to-many search gives up on are searched for one at a time")
+    public void planAllFallsBackAtLimit() {
+        PlannerProperties limits = new PlannerProperties();
+        limits.setMaxExpansions(20);
+        LatticeAStarPlanner bounded = new LatticeAStarPlanner(STEP, limits);
+        Point start = point(-3.19, 55.94);
+        List<Point> goals = List.of(point(-3.19 + 12 * STEP, 55.94), point(-3.19 - 12 * STEP, 55.94));
+
+        List<List<Point>> paths = bounded.planAll(start, goals, ObstacleMap.NONE);
+
+        assertEquals(12, paths.get(0).size());
+        assertEquals(12, paths.get(1).size());
+    }
+
+    @Test
+    @DisplayName("The hash map keeps entries across growth and forgets them on clear")
+    public void hashMapGrowthAndClear() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (int i = 0; i < 1000; i++) {
+            map.put(LatticeAStarPlanner.key(i * STEP, -i * STEP), i);
+        }
+
+        assertEquals(1000, map.size());
+        assertEquals(999, map.get(LatticeAStarPlanner.key(999 * STEP, -999 * STEP)));
+
+        map.clear();
+        assertEquals(LongIntHashMap.MISSING, map.get(LatticeAStarPlanner.key(999 * STEP, -999 * STEP)));
+    }
+}
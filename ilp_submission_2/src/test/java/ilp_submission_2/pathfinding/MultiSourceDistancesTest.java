@@ -0,0 +1,69 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiSourceDistancesTest {
+    private static OccupancyBitmap bitmap(Region... areas) {
+        return new OccupancyBitmap(new RestrictedAreaIndex(List.of(areas)), STEP);
+    }
+
+    @Test
+    @DisplayName("A service point behind a long wall ranks below a further one with a clear way")
+    public void wallReordersServicePoints() {
+        OccupancyBitmap wall = bitmap(rectangle(LNG + 4 * STEP, LAT - 20 * STEP, LNG + 6 * STEP, LAT + 20 * STEP));
+        Point delivery = point(LNG, LAT);
+        Point behindWall = point(LNG + 10 * STEP, LAT);
+        Point clear = point(LNG - 15 * STEP, LAT + 3.4 * STEP);
+
+        MultiSourceDistances distances = MultiSourceDistances.compute(
+                wall, List.of(behindWall, clear), List.of(delivery), STEP, 10 * STEP);
+
+        assertTrue(distances.moves(0, 0) > 35, distances.moves(0, 0) + " moves around the wall");
+        assertTrue(distances.moves(1, 0) < distances.moves(0, 0));
+        int planned = new LatticeAStarPlanner(STEP).plan(clear, delivery, wall).size() - 1;
+        assertTrue(distances.moves(1, 0) >= planned - 1 && distances.moves(1, 0) <= planned * 1.1,
+                distances.moves(1, 0) + " against " + planned + " planned moves");
+    }
+
+    @Test
+    @DisplayName("Stopping once the targets are settled gives the same distances as a full search")
+    public void earlyStopKeepsDistances() {
+        OccupancyBitmap wall = bitmap(rectangle(LNG + 4 * STEP, LAT - 8 * STEP, LNG + 6 * STEP, LAT + 8 * STEP));
+        List<Point> sources = List.of(point(LNG + 12 * STEP, LAT + STEP), point(LNG - 9 * STEP, LAT - 30 * STEP));
+        Point near = point(LNG, LAT);
+        Point far = point(LNG + 40 * STEP, LAT + 25 * STEP);
+
+        MultiSourceDistances both = MultiSourceDistances.compute(wall, sources, List.of(near, far), STEP, 10 * STEP);
+        MultiSourceDistances nearOnly = MultiSourceDistances.compute(wall, sources, List.of(near), STEP, 10 * STEP);
+
+        assertEquals(both.moves(0, 0), nearOnly.moves(0, 0), 1e-9);
+        assertEquals(both.moves(1, 0), nearOnly.moves(1, 0), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Targets walled in from every source are infinitely far")
+    public void enclosedTargetUnreachable() {
+        OccupancyBitmap box = bitmap(
+                rectangle(LNG - 10 * STEP, LAT - 10 * STEP, LNG + 10 * STEP, LAT - 8 * STEP),
+                rectangle(LNG - 10 * STEP, LAT + 8 * STEP, LNG + 10 * STEP, LAT + 10 * STEP),
+                rectangle(LNG - 10 * STEP, LAT - 10 * STEP, LNG - 8 * STEP, LAT + 10 * STEP),
+                rectangle(LNG + 8 * STEP, LAT - 10 * STEP, LNG + 10 * STEP, LAT + 10 * STEP));
+
+        MultiSourceDistances distances = MultiSourceDistances.compute(box,
+                List.of(point(LNG - 30 * STEP, LAT), point(LNG + 30 * STEP, LAT)),
+                List.of(point(LNG, LAT), point(LNG, LAT + 20 * STEP)), STEP, 10 * STEP);
+
+        assertEquals(Double.POSITIVE_INFINITY, distances.moves(0, 0));
+        assertEquals(Double.POSITIVE_INFINITY, distances.moves(1, 0));
+        assertTrue(Double.isFinite(distances.moves(0, 1)));
+        assertTrue(Double.isFinite(distances.moves(1, 1)));
+    }
+}
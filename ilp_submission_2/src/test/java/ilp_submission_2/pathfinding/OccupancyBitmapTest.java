@@ -0,0 +1,55 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Region;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyBitmapTest {
+    private static final List<Region> AREAS = List.of(
+            region(point(-3.190, 55.944), point(-3.189, 55.944), point(-3.189, 55.945),
+                    point(-3.190, 55.945), point(-3.190, 55.944)),
+            region(point(-3.186, 55.942), point(-3.183, 55.942), point(-3.183, 55.943),
+                    point(-3.185, 55.943), point(-3.185, 55.945), point(-3.186, 55.945), point(-3.186, 55.942)),
+            region(point(-3.192, 55.940), point(-3.188, 55.941), point(-3.190, 55.9425), point(-3.192, 55.940)));
+
+    @Test
+    @DisplayName("Bitmap agrees with the linear polygon scan on random moves")
+    public void agreesWithPolygonScan() {
+        ObstacleMap reference = new PolygonObstacleMap(AREAS);
+        OccupancyBitmap bitmap = new OccupancyBitmap(new RestrictedAreaIndex(AREAS), STEP);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            double fromLng = -3.194 + random.nextDouble() * 0.013;
+            double fromLat = 55.939 + random.nextDouble() * 0.008;
+            double angle = Math.toRadians(random.nextInt(16) * 22.5);
+            double toLng = fromLng + STEP * Math.cos(angle);
+            double toLat = fromLat + STEP * Math.sin(angle);
+
+            assertEquals(reference.moveBlocked(fromLng, fromLat, toLng, toLat),
+                    bitmap.moveBlocked(fromLng, fromLat, toLng, toLat),
+                    "move from (" + fromLng + ", " + fromLat + ") to (" + toLng + ", " + toLat + ")");
+        }
+    }
+
+    @Test
+    @DisplayName("Cells are classified as free, blocked or boundary")
+    public void classifiesCells() {
+        OccupancyBitmap bitmap = new OccupancyBitmap(new RestrictedAreaIndex(AREAS), STEP);
+
+        assertEquals(OccupancyBitmap.CellState.BLOCKED, bitmap.state(-3.1895, 55.9445));
+        assertEquals(OccupancyBitmap.CellState.BOUNDARY, bitmap.state(-3.190, 55.9445));
+        assertEquals(OccupancyBitmap.CellState.FREE, bitmap.state(-3.1875, 55.9445));
+        assertEquals(OccupancyBitmap.CellState.FREE, bitmap.state(-3.17, 55.95));
+        assertEquals(STEP, bitmap.cellSize());
+
+        OccupancyBitmap empty = new OccupancyBitmap(new RestrictedAreaIndex(List.of()), STEP);
+        assertFalse(empty.moveBlocked(-3.19, 55.944, -3.189, 55.945));
+    }
+}
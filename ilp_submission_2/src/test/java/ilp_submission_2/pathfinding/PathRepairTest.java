@@ -0,0 +1,65 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathRepairTest {
+    private final PathPlanner planner = new StraightLinePlanner(new LatticeAStarPlanner(STEP), STEP);
+
+    @Test
+    @DisplayName("A path the new area does not block is kept as it is")
+    public void untouchedPathKept() {
+        Point goal = point(LNG + 40 * STEP, LAT);
+        List<Point> path = planner.plan(point(LNG, LAT), goal, ObstacleMap.NONE);
+        ObstacleMap obstacles = new OccupancyBitmap(new RestrictedAreaIndex(List.of(
+                rectangle("new", LNG + 10 * STEP, LAT + 5 * STEP, LNG + 20 * STEP, LAT + 10 * STEP))), STEP);
+
+        assertSame(path, PathRepair.repair(path, goal, obstacles, List.of(), planner, STEP));
+    }
+
+    @Test
+    @DisplayName("A blocked path keeps its start and only goes around the new area from shortly before it")
+    public void blockedPathRepaired() {
+        Point goal = point(LNG + 60 * STEP, LAT);
+        List<Point> path = planner.plan(point(LNG, LAT), goal, ObstacleMap.NONE);
+        ObstacleMap obstacles = new OccupancyBitmap(new RestrictedAreaIndex(List.of(
+                rectangle("new", LNG + 40 * STEP, LAT - 5 * STEP, LNG + 44 * STEP, LAT + 5 * STEP))), STEP);
+
+        List<Point> repaired = PathRepair.repair(path, goal, obstacles, List.of(), planner, STEP);
+
+        assertNotNull(repaired);
+        assertFlyable(repaired, obstacles);
+        Point end = repaired.getLast();
+        assertTrue(Math.hypot(goal.getLng() - end.getLng(), goal.getLat() - end.getLat()) < STEP);
+        // the first blocked move is the 40th, so everything before the back-off is the old path
+        assertEquals(path.subList(0, 30), repaired.subList(0, 30));
+        List<Point> fresh = planner.plan(point(LNG, LAT), goal, obstacles);
+        assertTrue(repaired.size() <= fresh.size() + 2, repaired.size() + " against " + fresh.size() + " planned afresh");
+    }
+
+    @Test
+    @DisplayName("Paths passing by a lifted area are planned again, others are not")
+    public void liftedAreaForcesReplan() {
+        Region lifted = rectangle("lifted", LNG + 10 * STEP, LAT - 5 * STEP, LNG + 14 * STEP, LAT + 5 * STEP);
+        Region kept = rectangle("kept", LNG + 10 * STEP, LAT + 50 * STEP, LNG + 14 * STEP, LAT + 60 * STEP);
+        ObstacleMap before = new OccupancyBitmap(new RestrictedAreaIndex(List.of(lifted, kept)), STEP);
+        ObstacleMap after = new OccupancyBitmap(new RestrictedAreaIndex(List.of(kept)), STEP);
+        Point goal = point(LNG + 25 * STEP, LAT);
+        List<Point> around = planner.plan(point(LNG, LAT), goal, before);
+        Point farGoal = point(LNG + 25 * STEP, LAT - 30 * STEP);
+        List<Point> far = planner.plan(point(LNG, LAT - 30 * STEP), farGoal, before);
+
+        List<Bounds> changed = PathRepair.lifted(List.of(lifted, kept), List.of(kept));
+
+        assertEquals(1, changed.size());
+        assertNull(PathRepair.repair(around, goal, after, changed, planner, STEP));
+        assertSame(far, PathRepair.repair(far, farGoal, after, changed, planner, STEP));
+    }
+}
@@ -0,0 +1,66 @@
+package ilp_submission_2.pathfinding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReachableAreaTest {
+    private static OccupancyBitmap wall() {
+        return new OccupancyBitmap(new RestrictedAreaIndex(List.of(
+                rectangle(LNG + 5 * STEP, LAT - 30 * STEP, LNG + 7 * STEP, LAT + 30 * STEP))), STEP);
+    }
+
+    @Test
+    @DisplayName("Round trips fit the budget only up to half of it away from the base")
+    public void budgetLimitsRadius() {
+        ReachableArea area = ReachableArea.build(wall(), point(LNG, LAT), 61, STEP);
+
+        assertTrue(area.reachable(LNG - 25 * STEP, LAT, 61));
+        assertTrue(area.reachable(LNG + 2 * STEP, LAT + 20 * STEP, 61));
+        assertFalse(area.reachable(LNG - 34 * STEP, LAT, 61));
+        assertFalse(area.reachable(LNG - 25 * STEP, LAT, 41));
+        assertTrue(area.reachable(LNG - 15 * STEP, LAT, 41));
+        assertFalse(area.reachable(LNG - 100 * STEP, LAT, 61));
+    }
+
+    @Test
+    @DisplayName("Positions close by but behind a long wall are out of reach")
+    public void wallBlocksShortcut() {
+        ReachableArea area = ReachableArea.build(wall(), point(LNG, LAT), 61, STEP);
+
+        assertFalse(area.reachable(LNG + 10 * STEP, LAT, 61));
+        assertFalse(area.reachable(LNG + 6 * STEP, LAT, 61));
+        assertFalse(area.reachable(LNG + 10 * STEP, LAT, 201));
+        ReachableArea longRange = ReachableArea.build(wall(), point(LNG, LAT), 201, STEP);
+        assertTrue(longRange.reachable(LNG + 10 * STEP, LAT, 201));
+    }
+
+    @Test
+    @DisplayName("The rectangles cover only reachable positions, the base included")
+    public void rectanglesInsideArea() {
+        ReachableArea area = ReachableArea.build(wall(), point(LNG, LAT), 61, STEP);
+
+        List<Bounds> rectangles = area.rectangles(61);
+
+        assertFalse(rectangles.isEmpty());
+        assertTrue(rectangles.stream().anyMatch(r -> r.contains(LNG, LAT)));
+        double covered = 0;
+        for (Bounds r : rectangles) {
+            for (double[] corner : new double[][]{
+                    {r.minLng(), r.minLat()}, {r.maxLng(), r.minLat()}, {r.minLng(), r.maxLat()}, {r.maxLng(), r.maxLat()}}) {
+                // nudged inside, as corners are shared with cells outside the area
+                double lng = corner[0] + Math.signum((r.minLng() + r.maxLng()) / 2 - corner[0]) * 1e-9;
+                double lat = corner[1] + Math.signum((r.minLat() + r.maxLat()) / 2 - corner[1]) * 1e-9;
+                assertTrue(area.reachable(lng, lat, 61), "corner " + lng + ", " + lat);
+            }
+            covered += (r.maxLng() - r.minLng()) * (r.maxLat() - r.minLat());
+        }
+        // the west half of a disc of 30 moves, less the cells kept back at its edge
+        double halfDisc = Math.PI * 30 * 30 / 2 * STEP * STEP;
+        assertTrue(covered > 0.7 * halfDisc && covered < 1.3 * halfDisc, covered / halfDisc + " of a half disc");
+    }
+}
@@ -0,0 +1,59 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Region;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RestrictedAreaIndexTest {
+    // a square, a concave "L" and a triangle, spread over roughly the Edinburgh test area
+    private static final List<Region> AREAS = List.of(
+            region(point(-3.190, 55.944), point(-3.189, 55.944), point(-3.189, 55.945),
+                    point(-3.190, 55.945), point(-3.190, 55.944)),
+            region(point(-3.186, 55.942), point(-3.183, 55.942), point(-3.183, 55.943),
+                    point(-3.185, 55.943), point(-3.185, 55.945), point(-3.186, 55.945), point(-3.186, 55.942)),
+            region(point(-3.192, 55.940), point(-3.188, 55.941), point(-3.190, 55.9425), point(-3.192, 55.940)));
+
+    @Test
+    @DisplayName("Index agrees with the linear polygon scan on random moves")
+    public void agreesWithPolygonScan() {
+        ObstacleMap reference = new PolygonObstacleMap(AREAS);
+        RestrictedAreaIndex index = new RestrictedAreaIndex(AREAS);
+        Random random = new Random(42);
+
+        int blocked = 0;
+        for (int i = 0; i < 200_000; i++) {
+            double fromLng = -3.194 + random.nextDouble() * 0.013;
+            double fromLat = 55.939 + random.nextDouble() * 0.008;
+            double angle = Math.toRadians(random.nextInt(16) * 22.5);
+            double toLng = fromLng + STEP * Math.cos(angle);
+            double toLat = fromLat + STEP * Math.sin(angle);
+
+            boolean expected = reference.moveBlocked(fromLng, fromLat, toLng, toLat);
+            assertEquals(expected, index.moveBlocked(fromLng, fromLat, toLng, toLat),
+                    "move from (" + fromLng + ", " + fromLat + ") to (" + toLng + ", " + toLat + ")");
+            if (expected) {
+                blocked++;
+            }
+        }
+        assertTrue(blocked > 0);
+    }
+
+    @Test
+    @DisplayName("End points on an edge or vertex are blocked, moves outside the grid are not")
+    public void boundaryAndOutside() {
+        RestrictedAreaIndex index = new RestrictedAreaIndex(AREAS);
+
+        assertEquals(13, index.edgeCount());
+        assertTrue(index.moveBlocked(-3.1895, 55.9435, -3.1895, 55.944));
+        assertTrue(index.moveBlocked(-3.191, 55.9445, -3.190, 55.9445));
+        assertTrue(index.moveBlocked(-3.1895, 55.9435, -3.189, 55.944));
+        assertFalse(index.moveBlocked(-3.17, 55.95, -3.17 + STEP, 55.95));
+        assertFalse(new RestrictedAreaIndex(List.of()).moveBlocked(-3.19, 55.944, -3.189, 55.945));
+    }
+}
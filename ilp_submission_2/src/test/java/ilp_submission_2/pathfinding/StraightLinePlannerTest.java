@@ -0,0 +1,60 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StraightLinePlannerTest {
+    private final LatticeAStarPlanner search = new LatticeAStarPlanner(STEP);
+    private final StraightLinePlanner planner = new StraightLinePlanner(search, STEP);
+
+    @Test
+    @DisplayName("Open field legs take as many moves as the search finds")
+    public void matchesSearchInOpenField() {
+        Random random = new Random(11);
+        for (int i = 0; i < 300; i++) {
+            Point start = point(-3.19, 55.94);
+            Point goal = point(-3.19 + (random.nextDouble() - 0.5) * 0.01, 55.94 + (random.nextDouble() - 0.5) * 0.01);
+
+            List<Point> fast = planner.straightPath(start.getLng(), start.getLat(), goal.getLng(), goal.getLat());
+            List<Point> searched = search.plan(start, goal, ObstacleMap.NONE);
+
+            assertNotNull(fast);
+            assertEquals(searched.size(), fast.size(), "leg to " + goal);
+            assertEquals(start, fast.getFirst());
+            assertTrue(distance(fast.getLast(), goal) < STEP);
+            for (int m = 1; m < fast.size(); m++) {
+                assertEquals(STEP, distance(fast.get(m - 1), fast.get(m)), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Legs whose corridor meets a restricted area are searched")
+    public void blockedCorridorFallsBack() {
+        int[] searches = {0};
+        PathPlanner counting = (start, goal, obstacles) -> {
+            searches[0]++;
+            return search.plan(start, goal, obstacles);
+        };
+        StraightLinePlanner withFallback = new StraightLinePlanner(counting, STEP);
+        ObstacleMap wall = new RestrictedAreaIndex(List.of(Region.builder().name("wall").vertices(List.of(
+                point(-3.1888, 55.9395), point(-3.1885, 55.9395), point(-3.1885, 55.9405),
+                point(-3.1888, 55.9405), point(-3.1888, 55.9395))).build()));
+
+        List<Point> open = withFallback.plan(point(-3.19, 55.942), point(-3.185, 55.942), wall);
+        assertEquals(0, searches[0]);
+        assertFalse(open.isEmpty());
+
+        List<Point> detour = withFallback.plan(point(-3.19, 55.94), point(-3.187, 55.94), wall);
+        assertEquals(1, searches[0]);
+        assertFalse(detour.isEmpty());
+    }
+}
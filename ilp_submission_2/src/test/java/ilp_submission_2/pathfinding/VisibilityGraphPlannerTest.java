@@ -0,0 +1,112 @@
+package ilp_submission_2.pathfinding;
+
+import ilp_submission_2.dtos.Point;
+import ilp_submission_2.dtos.Region;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static ilp_submission_2.pathfinding.Fixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VisibilityGraphPlannerTest {
+    private final LatticeAStarPlanner lattice = new LatticeAStarPlanner(STEP);
+
+    @Test
+    @DisplayName("Routes around a wall without searching the lattice, in about as many moves")
+    public void routesAroundWall() {
+        int[] searches = {0};
+        PathPlanner counting = (start, goal, obstacles) -> {
+            searches[0]++;
+            return lattice.plan(start, goal, obstacles);
+        };
+        VisibilityGraphPlanner planner = new VisibilityGraphPlanner(counting, STEP);
+        ObstacleMap wall = new RestrictedAreaIndex(List.of(
+                rectangle(-3.19 + 8 * STEP, 55.94 - 6 * STEP, -3.19 + 10 * STEP, 55.94 + 6 * STEP)));
+        Point start = point(-3.19, 55.94);
+        Point goal = point(-3.19 + 20 * STEP, 55.94);
+
+        List<Point> path = planner.plan(start, goal, wall);
+
+        assertEquals(0, searches[0]);
+        assertFlyable(path, start, goal, wall);
+        int fewest = lattice.plan(start, goal, wall).size() - 1;
+        assertTrue(path.size() - 1 <= fewest + 3, (path.size() - 1) + " moves against " + fewest);
+    }
+
+    @Test
+    @DisplayName("Corners of closed rings built from separate points are routed around")
+    public void usesEveryCorner() {
+        double lng = -3.19;
+        double lat = 55.94;
+        // the first corner is the one to pass; points with equal values are still separate objects
+        ObstacleMap box = new RestrictedAreaIndex(List.of(rectangle(lng, lat, lng + 4 * STEP, lat + 20 * STEP)));
+        VisibilityGraph graph = new VisibilityGraph(box, STEP);
+
+        List<double[]> route = graph.route(lng - 2 * STEP, lat + 2 * STEP, lng + 6 * STEP, lat + 2 * STEP, box);
+
+        assertEquals(4, graph.size());
+        assertEquals(4, route.size());
+        assertTrue(route.get(1)[1] < lat && route.get(2)[1] < lat);
+    }
+
+    @Test
+    @DisplayName("Stays within three moves of the lattice's fewest between areas at least two clearances apart")
+    public void boundedAgainstLattice() {
+        Random random = new Random(17);
+        VisibilityGraphPlanner planner = new VisibilityGraphPlanner(lattice, STEP);
+        for (int layout = 0; layout < 12; layout++) {
+            // one rectangle per 20-move cell, so neighbours are always at least three moves apart
+            List<Region> areas = new ArrayList<>();
+            for (int cell = 0; cell < 4; cell++) {
+                double lng = -3.19 + (cell % 2 * 20 + random.nextInt(5)) * STEP;
+                double lat = 55.94 + (cell / 2 * 20 + random.nextInt(5)) * STEP;
+                areas.add(rectangle(lng, lat, lng + (2 + random.nextInt(12)) * STEP, lat + (2 + random.nextInt(12)) * STEP));
+            }
+            ObstacleMap obstacles = new OccupancyBitmap(new RestrictedAreaIndex(areas), STEP);
+            for (int query = 0; query < 6; query++) {
+                Point start = point(-3.19 + (random.nextDouble() * 50 - 5) * STEP, 55.94 + (random.nextDouble() * 50 - 5) * STEP);
+                Point goal = point(-3.19 + (random.nextDouble() * 50 - 5) * STEP, 55.94 + (random.nextDouble() * 50 - 5) * STEP);
+                if (obstacles.contains(start.getLng(), start.getLat()) || obstacles.contains(goal.getLng(), goal.getLat())) {
+                    continue;
+                }
+
+                List<Point> fewestPath = lattice.plan(start, goal, obstacles);
+                if (fewestPath.isEmpty()) {
+                    continue;
+                }
+                int fewest = fewestPath.size() - 1;
+                int moves = planner.plan(start, goal, obstacles).size() - 1;
+
+                assertTrue(moves <= fewest + 3, moves + " moves against " + fewest + " from " + start + " to " + goal);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Goals inside an area are rejected and enclosed goals are handed to the fallback")
+    public void unreachableGoals() {
+        int[] searches = {0};
+        PathPlanner counting = (start, goal, obstacles) -> {
+            searches[0]++;
+            return List.of();
+        };
+        VisibilityGraphPlanner planner = new VisibilityGraphPlanner(counting, STEP);
+        double lng = -3.19;
+        double lat = 55.94;
+        ObstacleMap box = new RestrictedAreaIndex(List.of(
+                rectangle(lng - 10 * STEP, lat - 10 * STEP, lng + 10 * STEP, lat - 8 * STEP),
+                rectangle(lng - 10 * STEP, lat + 8 * STEP, lng + 10 * STEP, lat + 10 * STEP),
+                rectangle(lng - 10 * STEP, lat - 10 * STEP, lng - 8 * STEP, lat + 10 * STEP),
+                rectangle(lng + 8 * STEP, lat - 10 * STEP, lng + 10 * STEP, lat + 10 * STEP)));
+
+        assertTrue(planner.plan(point(lng - 40 * STEP, lat), point(lng - 9 * STEP, lat), box).isEmpty());
+        assertEquals(0, searches[0]);
+
+        assertTrue(planner.plan(point(lng - 40 * STEP, lat), point(lng, lat), box).isEmpty());
+        assertEquals(1, searches[0]);
+    }
+}
@@ -0,0 +1,199 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.Drone;
+import ilp_submission_2.dtos.RestrictedArea;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DerivedCacheTest {
+    private ReferenceDataSource source;
+    private ReferenceDataService referenceData;
+    private DerivedCache<String, Integer> dronesCache;
+    private DerivedCache<String, Integer> areasCache;
+
+    @BeforeEach
+    public void setup() {
+        source = mock(ReferenceDataSource.class);
+        referenceData = new ReferenceDataService(source);
+        dronesCache = referenceData.createDerivedCache("drones", EnumSet.of(ReferenceCollection.DRONES), 16);
+        areasCache = referenceData.createDerivedCache("areas", EnumSet.of(ReferenceCollection.RESTRICTED_AREAS), 16);
+    }
+
+    /**
+     * Makes the next refresh report only {@code collection} as changed.
+     */
+    private void nextRefreshChanges(ReferenceCollection collection, Object[] values) {
+        doAnswer(invocation -> invocation.getArgument(0) == collection
+                ? CollectionFetch.modified(values, CollectionValidator.none())
+                : CollectionFetch.unchanged(invocation.getArgument(1)))
+                .when(source).fetchIfChanged(any(), any());
+    }
+
+    @Test
+    @DisplayName("Entries are reused while their dependencies are unchanged")
+    public void hitsWhileUnchanged() {
+        when(source.fetchIfChanged(any(), any())).thenReturn(CollectionFetch.modified(null, CollectionValidator.none()));
+        AtomicInteger loads = new AtomicInteger();
+
+        dronesCache.get("key", referenceData.current(), key -> loads.incrementAndGet());
+        dronesCache.get("key", referenceData.current(), key -> loads.incrementAndGet());
+
+        assertEquals(1, loads.get());
+        assertEquals(1, dronesCache.statistics().hits());
+    }
+
+    @Test
+    @DisplayName("Values rejected by the retain predicate are returned but not cached")
+    public void rejectedValuesNotCached() {
+        when(source.fetchIfChanged(any(), any())).thenReturn(CollectionFetch.modified(null, CollectionValidator.none()));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, dronesCache.get("key", referenceData.current(), key -> loads.incrementAndGet(), value -> value > 1));
+        assertEquals(2, dronesCache.get("key", referenceData.current(), key -> loads.incrementAndGet(), value -> value > 1));
+        assertEquals(2, dronesCache.get("key", referenceData.current(), key -> loads.incrementAndGet(), value -> value > 1));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, dronesCache.statistics().size());
+    }
+
+    @Test
+    @DisplayName("A change only evicts the caches depending on the changed collection")
+    public void evictsOnlyAffectedCaches() {
+        when(source.fetchIfChanged(any(), any())).thenReturn(CollectionFetch.modified(null, CollectionValidator.none()));
+        dronesCache.get("key", referenceData.current(), key -> 1);
+        areasCache.get("key", referenceData.current(), key -> 1);
+
+        nextRefreshChanges(ReferenceCollection.RESTRICTED_AREAS, new RestrictedArea[0]);
+        referenceData.refresh();
+
+        assertEquals(1, dronesCache.statistics().size());
+        assertEquals(0, areasCache.statistics().size());
+        assertEquals(1, dronesCache.get("key", referenceData.current(), key -> 2));
+        assertEquals(2, areasCache.get("key", referenceData.current(), key -> 2));
+
+        nextRefreshChanges(ReferenceCollection.DRONES, new Drone[0]);
+        referenceData.refresh();
+
+        assertEquals(0, dronesCache.statistics().size());
+        assertEquals(1, areasCache.statistics().size());
+        assertEquals(1, dronesCache.statistics().invalidations());
+    }
+
+    @Test
+    @DisplayName("A lookup against a newer snapshot does not return an older entry")
+    public void staleEntryIsMiss() {
+        ReferenceDataSnapshot first = ReferenceDataSnapshot.of(1, new Drone[0], null, null, null);
+        ReferenceDataSnapshot second = first.withChanges(2, Map.of(ReferenceCollection.DRONES, new Drone[0]));
+
+        dronesCache.get("key", first, key -> 1);
+
+        assertEquals(2, dronesCache.get("key", second, key -> 2));
+        assertEquals(1, areasCache.get("key", first, key -> 1));
+        assertEquals(1, areasCache.get("key", second, key -> 2));
+    }
+
+    @Test
+    @DisplayName("Repairable caches keep entries across a change and hand them to the repair first")
+    public void repairableEntriesRepaired() {
+        DerivedCache<String, Integer> repairable =
+                referenceData.createRepairableDerivedCache("repairable", EnumSet.of(ReferenceCollection.RESTRICTED_AREAS), 16);
+        when(source.fetchIfChanged(any(), any())).thenReturn(CollectionFetch.modified(null, CollectionValidator.none()));
+        ReferenceDataSnapshot first = referenceData.current();
+        repairable.get("repaired", first, key -> 1);
+        repairable.get("reloaded", first, key -> 1);
+
+        nextRefreshChanges(ReferenceCollection.RESTRICTED_AREAS, new RestrictedArea[0]);
+        referenceData.refresh();
+        ReferenceDataSnapshot second = referenceData.current();
+
+        assertEquals(2, repairable.statistics().size());
+        assertEquals(2, repairable.statistics().invalidations());
+        assertEquals(11, repairable.get("repaired", second, key -> 3, value -> true,
+                (stale, computedFrom) -> computedFrom == first ? stale + 10 : null));
+        assertEquals(3, repairable.get("reloaded", second, key -> 3, value -> true, (stale, computedFrom) -> null));
+        assertEquals(11, repairable.get("repaired", second, key -> 4, value -> true, (stale, computedFrom) -> 0));
+        assertEquals(1, repairable.statistics().repairs());
+        assertEquals(1, repairable.statistics().hits());
+    }
+
+    @Test
+    @DisplayName("Repairable entries are counted as invalidated once, not again on later changes")
+    public void repairableEntriesCountedOnce() {
+        DerivedCache<String, Integer> repairable =
+                referenceData.createRepairableDerivedCache("repairable", EnumSet.of(ReferenceCollection.RESTRICTED_AREAS), 16);
+        when(source.fetchIfChanged(any(), any())).thenReturn(CollectionFetch.modified(null, CollectionValidator.none()));
+        ReferenceDataSnapshot first = referenceData.current();
+        repairable.get("key", first, key -> 1);
+
+        nextRefreshChanges(ReferenceCollection.RESTRICTED_AREAS, new RestrictedArea[0]);
+        referenceData.refresh();
+        referenceData.refresh();
+
+        assertEquals(1, repairable.statistics().invalidations());
+        assertEquals(1, repairable.get("key", referenceData.current(), key -> 2, value -> true,
+                (stale, computedFrom) -> computedFrom == first ? stale : null));
+    }
+
+    @Test
+    @DisplayName("Entries of caches that are not repairable are never handed to a repair")
+    public void plainEntriesNotRepaired() {
+        ReferenceDataSnapshot first = ReferenceDataSnapshot.of(1, null, null, null, new RestrictedArea[0]);
+        ReferenceDataSnapshot second = first.withChanges(2, Map.of(ReferenceCollection.RESTRICTED_AREAS, new RestrictedArea[0]));
+        areasCache.get("key", first, key -> 1);
+
+        assertEquals(2, areasCache.get("key", second, key -> 2, value -> true,
+                (stale, computedFrom) -> fail("repaired an entry of a plain cache")));
+        assertEquals(0, areasCache.statistics().repairs());
+    }
+
+    @Test
+    @DisplayName("Concurrent misses for the same key share one computation and one value")
+    public void concurrentMissesCoalesced() throws Exception {
+        when(source.fetchIfChanged(any(), any())).thenReturn(CollectionFetch.modified(null, CollectionValidator.none()));
+        ReferenceDataSnapshot snapshot = referenceData.current();
+        DerivedCache<String, Object> instances =
+                referenceData.createDerivedCache("instances", EnumSet.of(ReferenceCollection.RESTRICTED_AREAS), 16);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> instances.get("key", snapshot, key -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return new Object();
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            Object first = results.getFirst().get();
+            for (Future<Object> result : results) {
+                assertSame(first, result.get());
+            }
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, instances.statistics().misses());
+        assertEquals(callers - 1, instances.statistics().hits());
+    }
+}
@@ -0,0 +1,52 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.Capabilities;
+import ilp_submission_2.dtos.Drone;
+import ilp_submission_2.dtos.DroneForServicePoint;
+import ilp_submission_2.dtos.DronesAvailability;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DroneCatalogTest {
+
+    private static Drone drone(String id, Integer maxMoves) {
+        Capabilities capability = new Capabilities();
+        capability.setMaxMoves(maxMoves);
+        Drone drone = new Drone();
+        drone.setId(id);
+        drone.setCapability(capability);
+        return drone;
+    }
+
+    private static DroneForServicePoint stationed(Integer servicePointId, String... droneIds) {
+        DroneForServicePoint droneForServicePoint = new DroneForServicePoint();
+        droneForServicePoint.setServicePointId(servicePointId);
+        droneForServicePoint.setDrones(Arrays.stream(droneIds).map(id -> {
+            DronesAvailability dronesAvailability = new DronesAvailability();
+            dronesAvailability.setId(id);
+            return dronesAvailability;
+        }).toList());
+        return droneForServicePoint;
+    }
+
+    @Test
+    @DisplayName("Each service point's budget is the largest maximum moves among its known drones")
+    public void maxMovesPerServicePoint() {
+        DroneCatalog catalog = DroneCatalog.build(
+                List.of(drone("1", 1000), drone("2", 2000), drone("3", null)),
+                List.of(),
+                List.of(stationed(1, "1", "2"), stationed(2, "3", "unknown"), stationed(3, "1"), stationed(1, "1")));
+
+        assertEquals(2000, catalog.getMaxMoves(1));
+        assertEquals(0, catalog.getMaxMoves(2));
+        assertEquals(1000, catalog.getMaxMoves(3));
+        assertEquals(0, catalog.getMaxMoves(4));
+        assertEquals(Set.of(1, 3), catalog.getServicePointIdsWithDrones());
+    }
+}
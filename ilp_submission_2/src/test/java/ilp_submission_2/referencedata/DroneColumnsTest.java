@@ -0,0 +1,64 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.Capabilities;
+import ilp_submission_2.dtos.Drone;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DroneColumnsTest {
+
+    private static Drone drone(String id, Boolean cooling, Double capacity, Integer maxMoves) {
+        Capabilities capability = new Capabilities();
+        capability.setCooling(cooling);
+        capability.setCapacity(capacity);
+        capability.setMaxMoves(maxMoves);
+        Drone drone = new Drone();
+        drone.setId(id);
+        drone.setCapability(capability);
+        return drone;
+    }
+
+    @Test
+    @DisplayName("Boolean and numeric columns match like the DTO fields")
+    public void matchesColumns() {
+        DroneColumns columns = DroneColumns.build(List.of(
+                drone("1", true, 4.0, 1000),
+                drone("2", null, 8.0, null),
+                drone("3", false, null, 2000)));
+
+        assertEquals(List.of("1"), columns.ids(columns.withCooling(true)));
+        assertEquals(List.of("2", "3"), columns.ids(columns.withCooling(false)));
+        assertEquals(List.of("2"), columns.ids(columns.compare(DroneColumns.NumericAttribute.CAPACITY, ">", 4.0)));
+        // drones without the attribute never match, not even on !=
+        assertEquals(List.of("2"), columns.ids(columns.compare(DroneColumns.NumericAttribute.CAPACITY, "!=", 4.0)));
+        assertEquals(List.of("1", "3"), columns.ids(columns.compare(DroneColumns.NumericAttribute.MAX_MOVES, ">=", 1000)));
+        assertTrue(columns.compare(DroneColumns.NumericAttribute.MAX_MOVES, "~", 1000).isEmpty());
+        assertNull(DroneColumns.NumericAttribute.byName("name"));
+    }
+
+    @Test
+    @DisplayName("Parallel scans of large fleets give the same result as a sequential scan")
+    public void parallelScanMatchesSequential() {
+        int size = DroneColumns.PARALLEL_THRESHOLD * 3 + 17;
+        List<Drone> drones = new ArrayList<>(size);
+        BitSet expected = new BitSet();
+        for (int i = 0; i < size; i++) {
+            double capacity = i % 7;
+            drones.add(drone(String.valueOf(i), i % 2 == 0, capacity, i));
+            if (capacity < 3) {
+                expected.set(i);
+            }
+        }
+
+        DroneColumns columns = DroneColumns.build(drones);
+
+        assertEquals(expected, columns.compare(DroneColumns.NumericAttribute.CAPACITY, "<", 3));
+        assertEquals(size, columns.all().cardinality());
+    }
+}
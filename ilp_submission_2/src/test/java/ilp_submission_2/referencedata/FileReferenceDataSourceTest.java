@@ -0,0 +1,70 @@
+package ilp_submission_2.referencedata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilp_submission_2.dtos.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileReferenceDataSourceTest {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    Path directory;
+
+    private static LngLatAlt lngLat(double lng, double lat) {
+        LngLatAlt point = new LngLatAlt();
+        point.setLng(lng);
+        point.setLat(lat);
+        return point;
+    }
+
+    @Test
+    @DisplayName("An exported snapshot loads back with the same content")
+    public void exportedSnapshotRoundTrips() {
+        Drone drone = new Drone();
+        drone.setId("1");
+        drone.setName("Drone 1");
+        DroneServicePoint servicePoint = new DroneServicePoint();
+        servicePoint.setId(1);
+        servicePoint.setLocation(lngLat(-3.18, 55.94));
+        RestrictedArea area = new RestrictedArea();
+        area.setId(7);
+        area.setName("George Square");
+        area.setVertices(List.of(lngLat(-3.19, 55.94), lngLat(-3.18, 55.94), lngLat(-3.18, 55.95), lngLat(-3.19, 55.94)));
+
+        ReferenceDataSnapshot live = ReferenceDataSnapshot.of(3,
+                new Drone[]{drone}, new DroneServicePoint[]{servicePoint}, new DroneForServicePoint[0], new RestrictedArea[]{area});
+        List<Path> files = new ReferenceDataSnapshotWriter(objectMapper).write(live, directory);
+        assertEquals(ReferenceCollection.values().length, files.size());
+
+        try (ReferenceDataService offline = new ReferenceDataService(new FileReferenceDataSource(directory, objectMapper))) {
+            ReferenceDataSnapshot loaded = offline.current();
+
+            assertEquals("Drone 1", loaded.drones().get(0).getName());
+            assertEquals(-3.18, loaded.servicePoints().get(0).getLocation().getLng());
+            assertTrue(loaded.dronesForServicePoints().isEmpty());
+            assertEquals(4, loaded.restrictedAreas().get(0).getVertices().size());
+            assertEquals(1, loaded.restrictedRegions().size());
+        }
+    }
+
+    @Test
+    @DisplayName("A missing collection file fails the load")
+    public void missingFileFails() throws Exception {
+        Files.writeString(directory.resolve("drones.json"), "[]");
+
+        FileReferenceDataSource source = new FileReferenceDataSource(directory, objectMapper);
+
+        assertEquals(0, source.<Drone>fetch(ReferenceCollection.DRONES).length);
+        assertThrows(UncheckedIOException.class, () -> source.fetch(ReferenceCollection.RESTRICTED_AREAS));
+    }
+}
@@ -0,0 +1,173 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.Drone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReferenceDataServiceTest {
+    private ReferenceDataSource source;
+    private ReferenceDataService referenceData;
+
+    @BeforeEach
+    public void setup() {
+        source = mock(ReferenceDataSource.class);
+        when(source.fetchIfChanged(any(), any())).thenCallRealMethod();
+        referenceData = new ReferenceDataService(source);
+    }
+
+    private static Drone drone(String id) {
+        Drone drone = new Drone();
+        drone.setId(id);
+        return drone;
+    }
+
+    @Test
+    @DisplayName("First read loads a snapshot synchronously")
+    public void firstReadLoadsSnapshot() {
+        when(source.fetch(ReferenceCollection.DRONES)).thenReturn(new Drone[]{drone("1")});
+
+        ReferenceDataSnapshot snapshot = referenceData.current();
+
+        assertEquals(1, snapshot.version());
+        assertEquals(1, snapshot.drones().size());
+        assertTrue(snapshot.restrictedRegions().isEmpty());
+        verify(source, times(1)).fetch(ReferenceCollection.DRONES);
+    }
+
+    @Test
+    @DisplayName("Subsequent reads are served from the snapshot without fetching")
+    public void readsDoNotFetch() {
+        when(source.fetch(ReferenceCollection.DRONES)).thenReturn(new Drone[]{drone("1")});
+
+        referenceData.current();
+        referenceData.current();
+        referenceData.current();
+
+        verify(source, times(1)).fetch(ReferenceCollection.DRONES);
+    }
+
+    @Test
+    @DisplayName("Refresh swaps in a new version")
+    public void refreshSwapsSnapshot() {
+        when(source.fetch(ReferenceCollection.DRONES))
+                .thenReturn(new Drone[]{drone("1")})
+                .thenReturn(new Drone[]{drone("1"), drone("2")});
+
+        ReferenceDataSnapshot first = referenceData.current();
+        referenceData.refresh();
+        ReferenceDataSnapshot second = referenceData.current();
+
+        assertEquals(2, second.version());
+        assertEquals(2, second.drones().size());
+        assertEquals(1, first.drones().size());
+    }
+
+    @Test
+    @DisplayName("A failed refresh keeps the previous snapshot")
+    public void failedRefreshKeepsSnapshot() {
+        when(source.fetch(ReferenceCollection.DRONES))
+                .thenReturn(new Drone[]{drone("1")})
+                .thenThrow(new IllegalStateException("upstream down"));
+
+        ReferenceDataSnapshot first = referenceData.current();
+        referenceData.scheduledRefresh();
+
+        assertSame(first, referenceData.current());
+    }
+
+    @Test
+    @DisplayName("Without any snapshot a failing load is reported as unavailable")
+    public void noSnapshotIsUnavailable() {
+        when(source.fetch(ReferenceCollection.RESTRICTED_AREAS)).thenThrow(new IllegalStateException("upstream down"));
+
+        assertThrows(ReferenceDataUnavailableException.class, () -> referenceData.current());
+        assertFalse(referenceData.status().isAvailable());
+    }
+
+    @Test
+    @DisplayName("Failures mark the service degraded until the recovery probe succeeds")
+    public void recoveryProbeClearsDegradedState() {
+        when(source.fetch(ReferenceCollection.DRONES))
+                .thenReturn(new Drone[]{drone("1")})
+                .thenThrow(new IllegalStateException("upstream down"))
+                .thenReturn(new Drone[]{drone("1"), drone("2")});
+
+        referenceData.current();
+        referenceData.scheduledRefresh();
+
+        ReferenceDataStatus degraded = referenceData.status();
+        assertTrue(degraded.isDegraded());
+        assertEquals(1, degraded.snapshotVersion());
+        assertEquals("upstream down", degraded.lastError());
+
+        referenceData.probeRecovery();
+
+        assertFalse(referenceData.status().isDegraded());
+        assertEquals(2, referenceData.current().drones().size());
+    }
+
+    @Test
+    @DisplayName("A refresh where nothing changed keeps the snapshot and its version")
+    public void unchangedRefreshKeepsVersion() {
+        doAnswer(invocation -> {
+            CollectionValidator previous = invocation.getArgument(1);
+            return previous.contentHash() == null
+                    ? CollectionFetch.modified(null, new CollectionValidator(null, null, "hash", null))
+                    : CollectionFetch.unchanged(previous);
+        }).when(source).fetchIfChanged(any(), any());
+
+        ReferenceDataSnapshot first = referenceData.current();
+        ReferenceDataSnapshot refreshed = referenceData.refresh();
+
+        assertSame(first, refreshed);
+        assertEquals(1, refreshed.version());
+    }
+
+    @Test
+    @DisplayName("A refresh only replaces the collections that changed")
+    public void partialRefreshReusesUnchanged() {
+        doAnswer(invocation -> {
+            ReferenceCollection collection = invocation.getArgument(0);
+            CollectionValidator previous = invocation.getArgument(1);
+            if (previous.contentHash() == null) {
+                Object[] values = collection == ReferenceCollection.DRONES ? new Drone[]{drone("1")} : null;
+                return CollectionFetch.modified(values, new CollectionValidator(null, null, "v1", null));
+            }
+            return collection == ReferenceCollection.DRONES
+                    ? CollectionFetch.modified(new Drone[]{drone("1"), drone("2")}, new CollectionValidator(null, null, "v2", null))
+                    : CollectionFetch.unchanged(previous);
+        }).when(source).fetchIfChanged(any(), any());
+
+        ReferenceDataSnapshot first = referenceData.current();
+        ReferenceDataSnapshot second = referenceData.refresh();
+
+        assertEquals(2, second.version());
+        assertEquals(2, second.drones().size());
+        assertSame(first.restrictedRegions(), second.restrictedRegions());
+        assertEquals(2, second.collectionVersion(ReferenceCollection.DRONES));
+        assertEquals(1, second.collectionVersion(ReferenceCollection.RESTRICTED_AREAS));
+    }
+
+    @Test
+    @DisplayName("Refreshes arriving while one is running share it and are counted in the status")
+    public void concurrentRefreshesCoalesced() throws Exception {
+        when(source.fetch(ReferenceCollection.DRONES)).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return new Drone[]{drone("1")};
+        });
+
+        CompletableFuture<ReferenceDataSnapshot> first = CompletableFuture.supplyAsync(referenceData::refresh);
+        Thread.sleep(100);
+        ReferenceDataSnapshot second = referenceData.refresh();
+
+        assertSame(first.get(), second);
+        verify(source, times(1)).fetch(ReferenceCollection.DRONES);
+        assertEquals(1, referenceData.status().coalescedRefreshes());
+    }
+}
@@ -0,0 +1,78 @@
+package ilp_submission_2.referencedata;
+
+import ilp_submission_2.dtos.Drone;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamFetchOrchestratorTest {
+
+    @Test
+    @DisplayName("Collections are fetched concurrently")
+    public void fetchesConcurrently() {
+        CountDownLatch allStarted = new CountDownLatch(ReferenceCollection.values().length);
+        ReferenceDataSource source = new ReferenceDataSource() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T[] fetch(ReferenceCollection collection) {
+                allStarted.countDown();
+                try {
+                    // only completes if every fetch is in flight at the same time
+                    assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return collection == ReferenceCollection.DRONES ? (T[]) new Drone[0] : null;
+            }
+        };
+
+        try (UpstreamFetchOrchestrator orchestrator = new UpstreamFetchOrchestrator(source)) {
+            Map<ReferenceCollection, CollectionFetch> result = orchestrator.fetchAllIfChanged(neverFetched());
+
+            assertEquals(4, result.size());
+            assertEquals(0, result.get(ReferenceCollection.DRONES).values().length);
+        }
+    }
+
+    @Test
+    @DisplayName("A failing fetch cancels the others")
+    public void failureCancelsOthers() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ReferenceDataSource source = new ReferenceDataSource() {
+            @Override
+            public <T> T[] fetch(ReferenceCollection collection) {
+                if (collection == ReferenceCollection.RESTRICTED_AREAS) {
+                    throw new IllegalStateException("upstream down");
+                }
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            }
+        };
+
+        try (UpstreamFetchOrchestrator orchestrator = new UpstreamFetchOrchestrator(source)) {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> orchestrator.fetchAllIfChanged(neverFetched()));
+
+            assertEquals("upstream down", e.getMessage());
+            assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+        }
+    }
+
+    private static Map<ReferenceCollection, CollectionValidator> neverFetched() {
+        Map<ReferenceCollection, CollectionValidator> validators = new EnumMap<>(ReferenceCollection.class);
+        for (ReferenceCollection collection : ReferenceCollection.values()) {
+            validators.put(collection, CollectionValidator.none());
+        }
+        return validators;
+    }
+}
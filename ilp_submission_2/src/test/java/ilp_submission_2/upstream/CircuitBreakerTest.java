@@ -0,0 +1,80 @@
+package ilp_submission_2.upstream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    public void setup() {
+        breaker = new CircuitBreaker(3, 1000, clock::get);
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(millis * 1_000_000L);
+    }
+
+    @Test
+    @DisplayName("Opens after the failure threshold and rejects calls")
+    public void opensAfterThreshold() {
+        breaker.onFailure();
+        breaker.onFailure();
+        assertTrue(breaker.allowRequest());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("A success resets the failure count")
+    public void successResetsFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Goes half-open after the open period and closes on a successful trial")
+    public void halfOpenTrialCloses() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+        advanceMillis(1000);
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("A failed trial re-opens the circuit for another period")
+    public void halfOpenTrialFailureReopens() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+        advanceMillis(1000);
+        assertTrue(breaker.allowRequest());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        advanceMillis(999);
+        assertFalse(breaker.allowRequest());
+    }
+}
@@ -0,0 +1,148 @@
+package ilp_submission_2.upstream;
+
+import com.sun.net.httpserver.HttpServer;
+import ilp_submission_2.dtos.DroneForServicePoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IlpUpstreamClientTest {
+    private HttpServer server;
+    private IlpUpstreamClient client;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/drones-for-service-points", exchange -> {
+            byte[] body = """
+                [{"servicePointId": 1, "drones": [{"id": "1", "availability": [
+                    {"dayOfWeek": "MONDAY", "from": "00:00:00", "until": "23:59:59"}
+                ]}]}]
+            """.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/restricted-areas", exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/service-points", exchange -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException ignored) {
+            }
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v2\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+
+        UpstreamClientProperties properties = new UpstreamClientProperties();
+        properties.setMaxConnections(2);
+        properties.setEndpointTimeoutsMs(Map.of("slow", 100L));
+        String endpoint = "http://localhost:" + server.getAddress().getPort() + "/";
+        client = new IlpUpstreamClient(endpoint, properties, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @AfterEach
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Responses are deserialized including java.time fields")
+    public void deserializesResponse() {
+        DroneForServicePoint[] result = client.getForObject("/drones-for-service-points", DroneForServicePoint[].class);
+
+        assertEquals(1, result.length);
+        assertEquals(DayOfWeek.MONDAY, result[0].getDrones().getFirst().getAvailability().getFirst().getDayOfWeek());
+        assertEquals(LocalTime.of(23, 59, 59), result[0].getDrones().getFirst().getAvailability().getFirst().getUntil());
+        assertEquals(1, client.statistics().requests());
+        assertEquals(0, client.statistics().inFlight());
+    }
+
+    @Test
+    @DisplayName("Per-endpoint timeouts bound the request")
+    public void endpointTimeoutApplies() {
+        long start = System.nanoTime();
+        assertThrows(UpstreamException.class, () -> client.getForObject("/slow", Object.class));
+
+        assertTrue(System.nanoTime() - start < 900_000_000L);
+        assertEquals(1, client.statistics().timeouts());
+    }
+
+    @Test
+    @DisplayName("Non-2xx responses are reported as failures")
+    public void errorStatusFails() {
+        assertThrows(UpstreamException.class, () -> client.getForObject("/missing", Object.class));
+
+        assertEquals(1, client.statistics().failures());
+        assertEquals(0, client.statistics().inFlight());
+    }
+
+    @Test
+    @DisplayName("Conditional requests send the ETag back and surface 304 Not Modified")
+    public void conditionalGetNotModified() {
+        UpstreamResponse first = client.getConditional("/restricted-areas", null, null);
+        UpstreamResponse second = client.getConditional("/restricted-areas", first.etag(), null);
+
+        assertFalse(first.notModified());
+        assertEquals("\"v1\"", first.etag());
+        assertTrue(second.notModified());
+        assertEquals(1, client.statistics().notModified());
+        assertEquals(0, client.statistics().failures());
+    }
+
+    @Test
+    @DisplayName("Concurrent conditional requests with the same validators share one upstream request")
+    public void conditionalGetCoalesced() throws Exception {
+        CompletableFuture<UpstreamResponse> first =
+                CompletableFuture.supplyAsync(() -> client.getConditional("/service-points", "\"v1\"", null));
+        Thread.sleep(100);
+        UpstreamResponse second = client.getConditional("/service-points", "\"v1\"", null);
+
+        assertSame(first.get(), second);
+        assertEquals("\"v2\"", second.etag());
+        assertEquals(1, client.statistics().requests());
+        assertEquals(1, client.statistics().coalesced());
+    }
+}
@@ -0,0 +1,77 @@
+package ilp_submission_2.upstream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    @DisplayName("Concurrent calls for the same key share one execution")
+    public void concurrentCallsAreCoalesced() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("/drones", () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return "drones";
+                })));
+            }
+
+            // wait until every other caller has joined the leader's call
+            while (singleFlight.coalesced() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("drones", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.executions());
+        assertEquals(callers - 1, singleFlight.coalesced());
+    }
+
+    @Test
+    @DisplayName("Calls after completion start a new execution")
+    public void sequentialCallsAreNotCached() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("/drones", loads::incrementAndGet);
+        singleFlight.execute("/drones", loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, singleFlight.coalesced());
+    }
+
+    @Test
+    @DisplayName("Failures are rethrown and release the key")
+    public void failureReleasesKey() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertThrows(UpstreamException.class, () -> singleFlight.execute("/drones", () -> {
+            throw new UpstreamException("upstream down");
+        }));
+
+        assertEquals("drones", singleFlight.execute("/drones", () -> "drones"));
+    }
+}